@@ -41,6 +41,8 @@ import org.eclipse.cdt.make.internal.core.scannerconfig2.SCProfileInstance;
 import org.eclipse.cdt.make.internal.core.scannerconfig2.ScannerConfigProfile;
 import org.eclipse.cdt.make.internal.core.scannerconfig2.ScannerConfigProfileManager;
 import org.eclipse.cdt.managedbuilder.internal.core.ManagedMakeMessages;
+import org.eclipse.cdt.managedbuilder.internal.envvar.EnvironmentSnapshot;
+import org.eclipse.cdt.managedbuilder.internal.envvar.EnvironmentVariableProvider;
 import org.eclipse.cdt.managedbuilder.macros.BuildMacroException;
 import org.eclipse.cdt.managedbuilder.macros.IBuildMacroProvider;
 import org.eclipse.cdt.newmake.internal.core.StreamMonitor;
@@ -310,11 +312,17 @@ public class ExternalBuildRunner extends AbstractBuildRunner {
 	protected Map<String, String> getEnvironment(IBuilder builder) throws CoreException {
 		Map<String, String> envMap = new HashMap<String, String>();
 		if (builder.appendEnvironment()) {
-			ICConfigurationDescription cfgDes = ManagedBuildManager.getDescriptionForConfiguration(builder.getParent().getParent());
-			IEnvironmentVariableManager mngr = CCorePlugin.getDefault().getBuildEnvironmentManager();
-			IEnvironmentVariable[] vars = mngr.getVariables(cfgDes, true);
-			for (IEnvironmentVariable var : vars) {
-				envMap.put(var.getName(), var.getValue());
+			IConfiguration cfg = builder.getParent().getParent();
+			EnvironmentSnapshot snapshot = EnvironmentVariableProvider.getDefault().getSnapshot(cfg);
+			if (snapshot != null) {
+				envMap.putAll(snapshot.getEnvironment());
+			} else {
+				ICConfigurationDescription cfgDes = ManagedBuildManager.getDescriptionForConfiguration(cfg);
+				IEnvironmentVariableManager mngr = CCorePlugin.getDefault().getBuildEnvironmentManager();
+				IEnvironmentVariable[] vars = mngr.getVariables(cfgDes, true);
+				for (IEnvironmentVariable var : vars) {
+					envMap.put(var.getName(), var.getValue());
+				}
 			}
 		}
 		
@@ -20,6 +20,7 @@ import org.eclipse.cdt.core.IMarkerGenerator;
 import org.eclipse.cdt.core.resources.IConsole;
 import org.eclipse.cdt.managedbuilder.buildmodel.BuildDescriptionManager;
 import org.eclipse.cdt.managedbuilder.buildmodel.IBuildDescription;
+import org.eclipse.cdt.managedbuilder.internal.buildmodel.BuildDescriptionCompilationDatabaseGenerator;
 import org.eclipse.cdt.managedbuilder.internal.buildmodel.BuildStateManager;
 import org.eclipse.cdt.managedbuilder.internal.buildmodel.DescriptionBuilder;
 import org.eclipse.cdt.managedbuilder.internal.buildmodel.IBuildModelBuilder;
@@ -120,6 +121,14 @@ public class InternalBuildRunner extends AbstractBuildRunner {
 
 			IBuildDescription des = BuildDescriptionManager.createBuildDescription(configuration, cBS, delta, flags);
 
+			if(BuildDescriptionCompilationDatabaseGenerator.isEnabled(builder)){
+				try {
+					new BuildDescriptionCompilationDatabaseGenerator(des).update(buildIncrementaly);
+				} catch (CoreException e) {
+					ManagedBuilderCorePlugin.log(e);
+				}
+			}
+
 			DescriptionBuilder dBuilder = null;
 			if (!isParallel)
 				dBuilder = new DescriptionBuilder(des, buildIncrementaly, resumeOnErr, cBS);
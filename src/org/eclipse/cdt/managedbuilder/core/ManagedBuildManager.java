@@ -24,6 +24,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.ListIterator;
@@ -33,6 +34,7 @@ import java.util.Random;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -67,6 +69,7 @@ import org.eclipse.cdt.managedbuilder.envvar.IEnvironmentVariableProvider;
 import org.eclipse.cdt.managedbuilder.internal.buildproperties.BuildPropertyManager;
 import org.eclipse.cdt.managedbuilder.internal.core.BooleanExpressionApplicabilityCalculator;
 import org.eclipse.cdt.managedbuilder.internal.core.BuildDbgUtil;
+import org.eclipse.cdt.managedbuilder.internal.core.BuildInfoCache;
 import org.eclipse.cdt.managedbuilder.internal.core.BuildObject;
 import org.eclipse.cdt.managedbuilder.internal.core.BuildSettingsUtil;
 import org.eclipse.cdt.managedbuilder.internal.core.Builder;
@@ -74,6 +77,7 @@ import org.eclipse.cdt.managedbuilder.internal.core.BuilderFactory;
 import org.eclipse.cdt.managedbuilder.internal.core.CommonBuilder;
 import org.eclipse.cdt.managedbuilder.internal.core.Configuration;
 import org.eclipse.cdt.managedbuilder.internal.core.DefaultManagedConfigElement;
+import org.eclipse.cdt.managedbuilder.internal.core.ExtensionElementIndex;
 import org.eclipse.cdt.managedbuilder.internal.core.FolderInfo;
 import org.eclipse.cdt.managedbuilder.internal.core.IMatchKeyProvider;
 import org.eclipse.cdt.managedbuilder.internal.core.InputType;
@@ -197,8 +201,17 @@ public class ManagedBuildManager extends AbstractCExtension {
 	// This is the version of the manifest and project files
 	private static final Version buildInfoVersion = new Version(4, 0, 0);
 	private static final Version version = new Version(4, 0, 0);
-	private static boolean projectTypesLoaded = false;
+	private static volatile boolean projectTypesLoaded = false;
 	private static boolean projectTypesLoading = false;
+	// Set once the extension tool-chains, tools, builders, target platforms and options
+	// may be resolved on demand, i.e. once the build definitions are loaded
+	private static boolean extensionElementsResolvable = false;
+	// Set while an extension element is being resolved on demand
+	private static boolean extensionElementsResolving = false;
+	// Set once all the extension elements are resolved
+	private static volatile boolean extensionElementsResolved = false;
+	// The extension elements resolved on demand, checked without the manager lock
+	private static final Map<Object, Boolean> resolvedExtensionElements = new ConcurrentHashMap<Object, Boolean>();
 	// Project types defined in the manifest files
 	public static SortedMap<String, IProjectType> projectTypeMap;
 	private static List<IProjectType> projectTypes;
@@ -253,8 +266,13 @@ public class ManagedBuildManager extends AbstractCExtension {
 	private static HashMap<MatchKey<ToolChain>, List<ToolChain>> fSortedToolChains;
 	private static HashMap<MatchKey<Tool>, List<Tool>> fSortedTools;
 	private static HashMap<MatchKey<Builder>, List<Builder>> fSortedBuilders;
+	// Indices of the resolved extension elements, built on the first query
+	private static volatile ExtensionElementIndex<ToolChain> fToolChainIndex;
+	private static volatile ExtensionElementIndex<Tool> fToolIndex;
+	private static volatile ExtensionElementIndex<Builder> fBuilderIndex;
+	private static volatile ExtensionElementIndex<Configuration> fConfigurationIndex;
 
-	private static Map<IProject, IManagedBuildInfo> fInfoMap = new HashMap<IProject, IManagedBuildInfo>();
+	private static final BuildInfoCache fInfoCache = new BuildInfoCache();
 
 	private static ISorter fToolChainSorter = new ISorter(){
 		public void sort() {
@@ -413,11 +431,40 @@ public class ManagedBuildManager extends AbstractCExtension {
 	 * Safe accessor for the map of IDs to ToolChains
 	 */
 	public static SortedMap<String, ? extends IToolChain> getExtensionToolChainMap() {
+		resolveExtensionElements();
 		return getExtensionToolChainMapInternal();
 	}
 	
 	public static IToolChain[] getExtensionToolChains() {
-		return getExtensionToolChainMapInternal().values().toArray(new ToolChain[extensionToolChainMap.size()]);
+		return getExtensionToolChainIndex().getElements().clone();
+	}
+
+	/**
+	 * @return the index of the extension tool-chains
+	 *
+	 * @noreference This method is not intended to be referenced by clients.
+	 * @since 8.0
+	 */
+	public static ExtensionElementIndex<ToolChain> getExtensionToolChainIndex() {
+		ExtensionElementIndex<ToolChain> index = fToolChainIndex;
+		if (index == null)
+			index = buildToolChainIndex();
+		return index;
+	}
+
+	private synchronized static ExtensionElementIndex<ToolChain> buildToolChainIndex() {
+		resolveExtensionElements();
+		ExtensionElementIndex<ToolChain> index = fToolChainIndex;
+		if (index == null) {
+			Collection<ToolChain> toolChains = getExtensionToolChainMapInternal().values();
+			index = new ExtensionElementIndex<ToolChain>(
+					toolChains.toArray(new ToolChain[toolChains.size()]),
+					calculateRealToolChains());
+			// the elements are final once the build definitions are loaded
+			if (extensionElementsResolved)
+				fToolChainIndex = index;
+		}
+		return index;
 	}
 
 	/**
@@ -438,11 +485,40 @@ public class ManagedBuildManager extends AbstractCExtension {
 	 * Safe accessor for the map of IDs to Tools
 	 */
 	public static SortedMap<String, ? extends ITool> getExtensionToolMap() {
+		resolveExtensionElements();
 		return getExtensionToolMapInternal();
 	}
 	
 	public static ITool[] getExtensionTools() {
-		return getExtensionToolMapInternal().values().toArray(new Tool[extensionToolMap.size()]);
+		return getExtensionToolIndex().getElements().clone();
+	}
+
+	/**
+	 * @return the index of the extension tools
+	 *
+	 * @noreference This method is not intended to be referenced by clients.
+	 * @since 8.0
+	 */
+	public static ExtensionElementIndex<Tool> getExtensionToolIndex() {
+		ExtensionElementIndex<Tool> index = fToolIndex;
+		if (index == null)
+			index = buildToolIndex();
+		return index;
+	}
+
+	private synchronized static ExtensionElementIndex<Tool> buildToolIndex() {
+		resolveExtensionElements();
+		ExtensionElementIndex<Tool> index = fToolIndex;
+		if (index == null) {
+			Collection<Tool> tools = getExtensionToolMapInternal().values();
+			index = new ExtensionElementIndex<Tool>(
+					tools.toArray(new Tool[tools.size()]),
+					calculateRealTools());
+			// the elements are final once the build definitions are loaded
+			if (extensionElementsResolved)
+				fToolIndex = index;
+		}
+		return index;
 	}
 
 	/**
@@ -473,11 +549,40 @@ public class ManagedBuildManager extends AbstractCExtension {
 	 * Safe accessor for the map of IDs to Builders
 	 */
 	public static SortedMap<String, ? extends IBuilder> getExtensionBuilderMap() {
+		resolveExtensionElements();
 		return getExtensionBuilderMapInternal();
 	}
 	
 	public static IBuilder[] getExtensionBuilders() {
-		return getExtensionBuilderMapInternal().values().toArray(new Builder[extensionBuilderMap.size()]);
+		return getExtensionBuilderIndex().getElements().clone();
+	}
+
+	/**
+	 * @return the index of the extension builders
+	 *
+	 * @noreference This method is not intended to be referenced by clients.
+	 * @since 8.0
+	 */
+	public static ExtensionElementIndex<Builder> getExtensionBuilderIndex() {
+		ExtensionElementIndex<Builder> index = fBuilderIndex;
+		if (index == null)
+			index = buildBuilderIndex();
+		return index;
+	}
+
+	private synchronized static ExtensionElementIndex<Builder> buildBuilderIndex() {
+		resolveExtensionElements();
+		ExtensionElementIndex<Builder> index = fBuilderIndex;
+		if (index == null) {
+			Collection<Builder> builders = getExtensionBuilderMapInternal().values();
+			index = new ExtensionElementIndex<Builder>(
+					builders.toArray(new Builder[builders.size()]),
+					calculateRealBuilders());
+			// the elements are final once the build definitions are loaded
+			if (extensionElementsResolved)
+				fBuilderIndex = index;
+		}
+		return index;
 	}
 
 	/**
@@ -590,15 +695,40 @@ public class ManagedBuildManager extends AbstractCExtension {
 	}
 
 	public static IConfiguration[] getExtensionConfigurations() {
+		return getExtensionConfigurationIndex().getElements().clone();
+	}
+
+	/**
+	 * @return the index of the extension configurations
+	 *
+	 * @noreference This method is not intended to be referenced by clients.
+	 * @since 8.0
+	 */
+	public static ExtensionElementIndex<Configuration> getExtensionConfigurationIndex() {
+		ExtensionElementIndex<Configuration> index = fConfigurationIndex;
+		if (index == null)
+			index = buildConfigurationIndex();
+		return index;
+	}
+
+	private synchronized static ExtensionElementIndex<Configuration> buildConfigurationIndex() {
 		try {
 			// Make sure the extensions are loaded
 			loadExtensions();
 		} catch (BuildException e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
+			ManagedBuilderCorePlugin.log(e);
 		}
-
-		return getExtensionConfigurationMap().values().toArray(new Configuration[getExtensionConfigurationMap().size()]);
+		ExtensionElementIndex<Configuration> index = fConfigurationIndex;
+		if (index == null) {
+			Collection<IConfiguration> cfgs = getExtensionConfigurationMap().values();
+			// the extension configurations are real configurations
+			Configuration elements[] = cfgs.toArray(new Configuration[cfgs.size()]);
+			index = new ExtensionElementIndex<Configuration>(elements, elements);
+			// the elements are final once the build definitions are loaded
+			if (projectTypesLoaded)
+				fConfigurationIndex = index;
+		}
+		return index;
 	}
 
 	/**
@@ -622,7 +752,7 @@ public class ManagedBuildManager extends AbstractCExtension {
 	 *  or {@code null}.
 	 */
 	public static IToolChain getExtensionToolChain(String id) {
-		return getExtensionToolChainMapInternal().get(id);
+		return resolved(getExtensionToolChainMapInternal().get(id));
 	}
 
 	/**
@@ -630,7 +760,7 @@ public class ManagedBuildManager extends AbstractCExtension {
 	 *  or {@code null}.
 	 */
 	public static ITool getExtensionTool(String id) {
-		return getExtensionToolMapInternal().get(id);
+		return resolved(getExtensionToolMapInternal().get(id));
 	}
 
 	/**
@@ -646,7 +776,7 @@ public class ManagedBuildManager extends AbstractCExtension {
 			e.printStackTrace();
 		}
 
-		return getExtensionTargetPlatformMap().get(id);
+		return resolved(getExtensionTargetPlatformMap().get(id));
 	}
 
 	/**
@@ -654,7 +784,7 @@ public class ManagedBuildManager extends AbstractCExtension {
 	 *  or {@code null}.
 	 */
 	public static IBuilder getExtensionBuilder(String id) {
-		return getExtensionBuilderMapInternal().get(id);
+		return resolved(getExtensionBuilderMapInternal().get(id));
 	}
 
 	public static IBuilder getExtensionBuilder(IBuilder builder) {
@@ -678,7 +808,7 @@ public class ManagedBuildManager extends AbstractCExtension {
 			e.printStackTrace();
 		}
 
-		return getExtensionOptionMap().get(id);
+		return resolved(getExtensionOptionMap().get(id));
 	}
 
 	/**
@@ -694,7 +824,7 @@ public class ManagedBuildManager extends AbstractCExtension {
 			e.printStackTrace();
 		}
 
-		return getExtensionInputTypeMap().get(id);
+		return resolved(getExtensionInputTypeMap().get(id));
 	}
 
 	/**
@@ -710,7 +840,7 @@ public class ManagedBuildManager extends AbstractCExtension {
 			e.printStackTrace();
 		}
 
-		return getExtensionOutputTypeMap().get(id);
+		return resolved(getExtensionOutputTypeMap().get(id));
 	}
 
 	/**
@@ -1668,6 +1798,7 @@ public class ManagedBuildManager extends AbstractCExtension {
 	 * has a reference to it as part of its description.
 	 */
 	public static void addExtensionConfiguration(Configuration configuration) {
+		fConfigurationIndex = null;
 		IConfiguration previous = getExtensionConfigurationMap().put(configuration.getId(), configuration);
 		if (previous != null) {
 			// Report error
@@ -1698,6 +1829,7 @@ public class ManagedBuildManager extends AbstractCExtension {
 	 * has a reference to it as part of its description.
 	 */
 	public static void addExtensionToolChain(ToolChain toolChain) {
+		fToolChainIndex = null;
 		IToolChain previous = getExtensionToolChainMapInternal().put(toolChain.getId(), toolChain);
 		if (previous != null) {
 			// Report error
@@ -1715,6 +1847,7 @@ public class ManagedBuildManager extends AbstractCExtension {
 	 * only once.
 	 */
 	public static void addExtensionTool(Tool tool) {
+		fToolIndex = null;
 		ITool previous = getExtensionToolMapInternal().put(tool.getId(), tool);
 		if (previous != null) {
 			// Report error
@@ -1745,6 +1878,7 @@ public class ManagedBuildManager extends AbstractCExtension {
 	 * has a reference to it as part of its description.
 	 */
 	public static void addExtensionBuilder(Builder builder) {
+		fBuilderIndex = null;
 		IBuilder previous = getExtensionBuilderMapInternal().put(builder.getId(), builder);
 		if (previous != null) {
 			// Report error
@@ -2219,6 +2353,11 @@ public class ManagedBuildManager extends AbstractCExtension {
 				//      loaded from a manifest file or a dynamic element provider.  It cannot
 				//      be to an object loaded from a managed build system project file (.cdtbuild).
 				//
+				// Only the project types and their configurations are resolved here.  The other
+				// tool-chains, tools, builders, target platforms and options they reference are
+				// resolved on demand when they are first looked up, the remaining ones are resolved
+				// before the build definitions are handed out, see resolveExtensionElements().
+				extensionElementsResolvable = true;
 
 				Collection<IProjectType> prjTypes = getExtensionProjectTypeMap().values();
 				for (IProjectType projectType : prjTypes) {
@@ -2247,60 +2386,6 @@ public class ManagedBuildManager extends AbstractCExtension {
 						ex.printStackTrace();
 					}
 				}
-				Collection<ToolChain> toolChains = getExtensionToolChainMapInternal().values();
-				for (ToolChain toolChain : toolChains) {
-					try {
-						toolChain.resolveReferences();
-					} catch (Exception ex) {
-						// TODO: log
-						ex.printStackTrace();
-					}
-				}
-				Collection<Tool> tools = getExtensionToolMapInternal().values();
-				for (Tool tool : tools) {
-					try {
-						tool.resolveReferences();
-					} catch (Exception ex) {
-						// TODO: log
-						ex.printStackTrace();
-					}
-				}
-				Collection<ITargetPlatform> targetPlatforms = getExtensionTargetPlatformMap().values();
-				for (ITargetPlatform targetPlatform : targetPlatforms) {
-					try {
-						((TargetPlatform) targetPlatform).resolveReferences();
-					} catch (Exception ex) {
-						// TODO: log
-						ex.printStackTrace();
-					}
-				}
-				Collection<Builder> builders = getExtensionBuilderMapInternal().values();
-				for (Builder builder : builders) {
-					try {
-						builder.resolveReferences();
-					} catch (Exception ex) {
-						// TODO: log
-						ex.printStackTrace();
-					}
-				}
-				Collection<IOption> options = getExtensionOptionMap().values();
-				for (IOption option : options) {
-					try {
-						((Option) option).resolveReferences();
-					} catch (Exception ex) {
-						// TODO: log
-						ex.printStackTrace();
-					}
-				}
-				Collection<IOptionCategory> optionCategories = getExtensionOptionCategoryMap().values();
-				for (IOptionCategory optionCat : optionCategories) {
-					try {
-						((OptionCategory) optionCat).resolveReferences();
-					} catch (Exception ex) {
-						// TODO: log
-						ex.printStackTrace();
-					}
-				}
 			}
 		}
 
@@ -2399,6 +2484,9 @@ public class ManagedBuildManager extends AbstractCExtension {
 			}
 		}
 
+		// The start up config extensions and the adjustments may access any extension element
+		resolveExtensionElements();
+
 		// configs resolved...
 		// Call the start up config extensions again now that configs have been resolved.
 		if (buildDefStartupList != null) {
@@ -2418,10 +2506,148 @@ public class ManagedBuildManager extends AbstractCExtension {
 		} // try
 
 		finally {
-			configElementMap = null;
+			if (extensionElementsResolved) {
+				configElementMap = null;
+			} else if (configElementMap != null) {
+				// of the elements resolved on demand only the options read their configuration
+				// elements, the entries of the options are dropped as the options are resolved
+				for (Iterator<IBuildObject> iter = configElementMap.keySet().iterator(); iter.hasNext();) {
+					if (!(iter.next() instanceof Option))
+						iter.remove();
+				}
+			}
 		}
 	}
 
+	/**
+	 * Resolves the extension element if it has not been resolved yet.
+	 * <p>
+	 * The elements are only resolved on demand while the build definitions are loaded, the
+	 * loading thread holds the manager lock then.  Other threads looking up an element during
+	 * the load wait for it to complete, after which all the elements are resolved and the lookups
+	 * no longer take the lock.
+	 */
+	private static <T> T resolved(T element) {
+		if (element != null && !extensionElementsResolved && !resolvedExtensionElements.containsKey(element))
+			resolveExtensionElement(element);
+		return element;
+	}
+
+	private synchronized static void resolveExtensionElement(Object element) {
+		if (!extensionElementsResolvable || extensionElementsResolved)
+			return;
+
+		boolean resolving = extensionElementsResolving;
+		extensionElementsResolving = true;
+		try {
+			if (element instanceof ToolChain) {
+				((ToolChain) element).resolveReferences();
+			} else if (element instanceof Tool) {
+				((Tool) element).resolveReferences();
+			} else if (element instanceof TargetPlatform) {
+				((TargetPlatform) element).resolveReferences();
+			} else if (element instanceof Builder) {
+				((Builder) element).resolveReferences();
+			} else if (element instanceof Option) {
+				((Option) element).resolveReferences();
+			} else if (element instanceof OptionCategory) {
+				((OptionCategory) element).resolveReferences();
+			} else if (element instanceof IInputType || element instanceof IOutputType) {
+				// input and output types are resolved by their tools
+				ITool tool = element instanceof IInputType ?
+						((IInputType) element).getParent() : ((IOutputType) element).getParent();
+				if (tool instanceof Tool)
+					((Tool) tool).resolveReferences();
+			}
+		} catch (Exception ex) {
+			ManagedBuilderCorePlugin.log(ex);
+		} finally {
+			extensionElementsResolving = resolving;
+		}
+
+		if (element instanceof Option && configElementMap != null)
+			configElementMap.remove(element);
+		// the elements resolved while resolving the element may not be complete yet
+		if (!resolving)
+			resolvedExtensionElements.put(element, Boolean.TRUE);
+	}
+
+	/**
+	 * Resolves all the extension tool-chains, tools, builders, target platforms and options
+	 * not resolved yet.  Called before the extension elements are enumerated.
+	 */
+	private static void resolveExtensionElements() {
+		if (!extensionElementsResolved)
+			resolveExtensionElementsSynchronized();
+	}
+
+	private synchronized static void resolveExtensionElementsSynchronized() {
+		try {
+			loadExtensions();
+		} catch (BuildException e) {
+		}
+		if (!extensionElementsResolvable || extensionElementsResolved)
+			return;
+
+		boolean resolving = extensionElementsResolving;
+		extensionElementsResolving = true;
+		try {
+			Collection<ToolChain> toolChains = getExtensionToolChainMapInternal().values();
+			for (ToolChain toolChain : toolChains) {
+				try {
+					toolChain.resolveReferences();
+				} catch (Exception ex) {
+					ManagedBuilderCorePlugin.log(ex);
+				}
+			}
+			Collection<Tool> tools = getExtensionToolMapInternal().values();
+			for (Tool tool : tools) {
+				try {
+					tool.resolveReferences();
+				} catch (Exception ex) {
+					ManagedBuilderCorePlugin.log(ex);
+				}
+			}
+			Collection<ITargetPlatform> targetPlatforms = getExtensionTargetPlatformMap().values();
+			for (ITargetPlatform targetPlatform : targetPlatforms) {
+				try {
+					((TargetPlatform) targetPlatform).resolveReferences();
+				} catch (Exception ex) {
+					ManagedBuilderCorePlugin.log(ex);
+				}
+			}
+			Collection<Builder> builders = getExtensionBuilderMapInternal().values();
+			for (Builder builder : builders) {
+				try {
+					builder.resolveReferences();
+				} catch (Exception ex) {
+					ManagedBuilderCorePlugin.log(ex);
+				}
+			}
+			Collection<IOption> options = getExtensionOptionMap().values();
+			for (IOption option : options) {
+				try {
+					((Option) option).resolveReferences();
+				} catch (Exception ex) {
+					ManagedBuilderCorePlugin.log(ex);
+				}
+			}
+			Collection<IOptionCategory> optionCategories = getExtensionOptionCategoryMap().values();
+			for (IOptionCategory optionCat : optionCategories) {
+				try {
+					((OptionCategory) optionCat).resolveReferences();
+				} catch (Exception ex) {
+					ManagedBuilderCorePlugin.log(ex);
+				}
+			}
+		} finally {
+			extensionElementsResolving = resolving;
+		}
+		extensionElementsResolved = true;
+		configElementMap = null;
+		resolvedExtensionElements.clear();
+	}
+
 	private static void performAdjustments(){
 		IProjectType types[] = getDefinedProjectTypes();
 		for (IProjectType type : types) {
@@ -2581,6 +2807,20 @@ public class ManagedBuildManager extends AbstractCExtension {
 		return buildInfo;
 	}
 
+	/**
+	 * Creates and registers the build information for the project like {@link #createBuildInfo(IResource)},
+	 * unless build information was registered for the project in the meantime, e.g. by another thread
+	 * loading the project.
+	 *
+	 * @return the build information registered for the project
+	 *
+	 * @noreference This method is not intended to be referenced by clients.
+	 * @since 8.0
+	 */
+	public static IManagedBuildInfo createBuildInfoIfAbsent(IProject project) {
+		return doSetLoaddedInfo(project, new ManagedBuildInfo(project), false);
+	}
+
 	public static void setLoaddedBuildInfo(IProject project, IManagedBuildInfo info) throws CoreException{
 		// Associate the build info with the project for the duration of the session
 		//project.setSessionProperty(buildInfoProperty, info);
@@ -2599,19 +2839,26 @@ public class ManagedBuildManager extends AbstractCExtension {
 //		}
 	}
 
-	private synchronized static void doSetLoaddedInfo(IProject project, IManagedBuildInfo info, boolean overwrite){
-		if(!overwrite && fInfoMap.get(project) != null)
-			return;
-
+	private static IManagedBuildInfo doSetLoaddedInfo(IProject project, IManagedBuildInfo info, boolean overwrite){
+		IManagedBuildInfo result = fInfoCache.put(project, info, overwrite);
 		if(info != null){
-			fInfoMap.put(project, info);
-			if(BuildDbgUtil.DEBUG)
+			if(BuildDbgUtil.DEBUG && result == info)
 				BuildDbgUtil.getInstance().traceln(BuildDbgUtil.BUILD_INFO_LOAD, "build info load: build info set for project " + project.getName()); //$NON-NLS-1$
 		}else{
-			fInfoMap.remove(project);
 			if(BuildDbgUtil.DEBUG)
 				BuildDbgUtil.getInstance().traceln(BuildDbgUtil.BUILD_INFO_LOAD, "build info load: build info CLEARED for project " + project.getName()); //$NON-NLS-1$
 		}
+		return result;
+	}
+
+	/**
+	 * @return the cache of the loaded build infos
+	 *
+	 * @noreference This method is not intended to be referenced by clients.
+	 * @since 8.0
+	 */
+	public static BuildInfoCache getBuildInfoCache() {
+		return fInfoCache;
 	}
 
 	private static IManagedConfigElementProvider createConfigProvider(
@@ -2702,6 +2949,8 @@ public class ManagedBuildManager extends AbstractCExtension {
 		}
 
 		if(buildInfo == null /*&& forceLoad*/){
+			if(BuildDbgUtil.DEBUG)
+				BuildDbgUtil.getInstance().traceln(BuildDbgUtil.BUILD_INFO_LOAD, fInfoCache.toString());
 			int flags = forceLoad ? 0 : ICProjectDescriptionManager.GET_IF_LOADDED;
 
 			if(BuildDbgUtil.DEBUG)
@@ -2780,9 +3029,9 @@ public class ManagedBuildManager extends AbstractCExtension {
 		return buildInfo;
 	}
 
-	synchronized static ManagedBuildInfo getLoadedBuildInfo(IProject project) throws CoreException{
+	static ManagedBuildInfo getLoadedBuildInfo(IProject project) throws CoreException{
 		// Check if there is any build info associated with this project for this session
-		ManagedBuildInfo buildInfo = (ManagedBuildInfo)fInfoMap.get(project);//project.getSessionProperty(buildInfoProperty);
+		ManagedBuildInfo buildInfo = (ManagedBuildInfo)fInfoCache.get(project);//project.getSessionProperty(buildInfoProperty);
 			// Make sure that if a project has build info, that the info is not corrupted
 		if (buildInfo != null) {
 			buildInfo.updateOwner(project);
@@ -2933,13 +3182,24 @@ public class ManagedBuildManager extends AbstractCExtension {
 		}
 
 		if(info == null){
+			// only one thread loads the build info of a project
+			fInfoCache.lock(project);
 			try {
-				info = loadOldStyleBuildInfo(project);
+				info = getLoadedBuildInfo(project);
+				if(info == null){
+					info = loadOldStyleBuildInfo(project);
 
-				if(info != null)
-					doSetLoaddedInfo(project, info, false);
+					if(info != null)
+						info = doSetLoaddedInfo(project, info, false);
+				}
+			} catch (CoreException e) {
+				throw e;
 			} catch (Exception e) {
 				throw new CoreException(new Status(IStatus.ERROR, ManagedBuilderCorePlugin.getUniqueIdentifier(), e.getLocalizedMessage(), e));
+			} finally {
+				fInfoCache.unlock(project);
+				if(BuildDbgUtil.DEBUG)
+					BuildDbgUtil.getInstance().traceln(BuildDbgUtil.BUILD_INFO_LOAD, fInfoCache.toString());
 			}
 		}
 
@@ -2947,7 +3207,7 @@ public class ManagedBuildManager extends AbstractCExtension {
 
 	}
 
-	public static synchronized IManagedBuildInfo getBuildInfoLegacy(IProject project){
+	public static IManagedBuildInfo getBuildInfoLegacy(IProject project){
 		try {
 			return getOldStyleBuildInfo(project);
 		} catch (CoreException e) {
@@ -3051,7 +3311,7 @@ public class ManagedBuildManager extends AbstractCExtension {
 	}
 
 	private static Map<IBuildObject, IManagedConfigElement> getConfigElementMap() {
-		if(!projectTypesLoading)
+		if(!projectTypesLoading && !extensionElementsResolving)
 			throw new IllegalStateException();
 
 		if (configElementMap == null) {
@@ -4163,6 +4423,7 @@ public class ManagedBuildManager extends AbstractCExtension {
 
 	private static HashMap<MatchKey<ToolChain>, List<ToolChain>> getSortedToolChains(){
 		if(fSortedToolChains == null){
+			resolveExtensionElements();
 			Collection<ToolChain> toolChains = getExtensionToolChainMapInternal().values();
 			fSortedToolChains = getSortedElements(toolChains);
 		}
@@ -4171,6 +4432,7 @@ public class ManagedBuildManager extends AbstractCExtension {
 
 	private static HashMap<MatchKey<Tool>, List<Tool>> getSortedTools(){
 		if(fSortedTools == null){
+			resolveExtensionElements();
 			Collection<Tool> tools = getExtensionToolMapInternal().values();
 			fSortedTools = getSortedElements(tools);
 		}
@@ -4179,6 +4441,7 @@ public class ManagedBuildManager extends AbstractCExtension {
 
 	private static HashMap<MatchKey<Builder>, List<Builder>> getSortedBuilders(){
 		if(fSortedBuilders == null){
+			resolveExtensionElements();
 			Collection<Builder> builders = getExtensionBuilderMapInternal().values();
 			fSortedBuilders = getSortedElements(builders);
 		}
@@ -4208,9 +4471,33 @@ public class ManagedBuildManager extends AbstractCExtension {
 		return map;
 	}
 
+	/**
+	 * @return the real extension tool-chains, a copy of the array of the
+	 * {@link #getExtensionToolChainIndex() index}
+	 */
 	public static IToolChain[] getRealToolChains(){
+		return getExtensionToolChainIndex().getRealElements().clone();
+	}
+
+	/**
+	 * @return the real extension tools, a copy of the array of the
+	 * {@link #getExtensionToolIndex() index}
+	 */
+	public static ITool[] getRealTools(){
+		return getExtensionToolIndex().getRealElements().clone();
+	}
+
+	/**
+	 * @return the real extension builders, a copy of the array of the
+	 * {@link #getExtensionBuilderIndex() index}
+	 */
+	public static IBuilder[] getRealBuilders(){
+		return getExtensionBuilderIndex().getRealElements().clone();
+	}
+
+	private static ToolChain[] calculateRealToolChains(){
 		HashMap<MatchKey<ToolChain>, List<ToolChain>> map = getSortedToolChains();
-		IToolChain tcs[] = new ToolChain[map.size()];
+		ToolChain tcs[] = new ToolChain[map.size()];
 		int i = 0;
 		for (List<ToolChain> list : map.values()) {
 			tcs[i++] = list.get(0);
@@ -4218,7 +4505,7 @@ public class ManagedBuildManager extends AbstractCExtension {
 		return tcs;
 	}
 
-	public static ITool[] getRealTools(){
+	private static Tool[] calculateRealTools(){
 		HashMap<MatchKey<Tool>, List<Tool>> map = getSortedTools();
 		Tool ts[] = new Tool[map.size()];
 		int i = 0;
@@ -4228,9 +4515,9 @@ public class ManagedBuildManager extends AbstractCExtension {
 		return ts;
 	}
 
-	public static IBuilder[] getRealBuilders(){
+	private static Builder[] calculateRealBuilders(){
 		HashMap<MatchKey<Builder>, List<Builder>> map = getSortedBuilders();
-		IBuilder bs[] = new Builder[map.size()];
+		Builder bs[] = new Builder[map.size()];
 		int i = 0;
 		for (List<Builder> list : map.values()) {
 			bs[i++] = list.get(0);
@@ -4250,7 +4537,7 @@ public class ManagedBuildManager extends AbstractCExtension {
 			if(list.size() == 0){
 				realBuilder = extBuilder;
 			} else {
-				for (IBuilder realBldr : getRealBuilders()) {
+				for (IBuilder realBldr : getExtensionBuilderIndex().getRealElements()) {
 					List<Builder> rList = findIdenticalElements((Builder)realBldr, fBuilderSorter);
 					if(rList == list){
 						realBuilder = realBldr;
@@ -4278,7 +4565,7 @@ public class ManagedBuildManager extends AbstractCExtension {
 			if(list.size() == 0){
 				realTool = extTool;
 			} else {
-				for (ITool realT : getRealTools()) {
+				for (ITool realT : getExtensionToolIndex().getRealElements()) {
 					List<Tool> rList = findIdenticalElements((Tool)realT, fToolSorter);
 					if(rList == list){
 						realTool = realT;
@@ -4312,7 +4599,7 @@ public class ManagedBuildManager extends AbstractCExtension {
 			if(list.size() == 0){
 				realToolChain = extTc;
 			} else {
-				for (IToolChain realTc : getRealToolChains()) {
+				for (IToolChain realTc : getExtensionToolChainIndex().getRealElements()) {
 					List<ToolChain> rList = findIdenticalElements((ToolChain)realTc, fToolChainSorter);
 					if(rList == list){
 						realToolChain = realTc;
@@ -17,6 +17,7 @@ import java.util.Map;
 import org.eclipse.cdt.build.internal.core.scannerconfig.CfgDiscoveredPathManager;
 import org.eclipse.cdt.managedbuilder.internal.buildmodel.BuildStateManager;
 import org.eclipse.cdt.managedbuilder.internal.buildmodel.DbgUtil;
+import org.eclipse.cdt.managedbuilder.internal.core.BuildSettingsChangeTracker;
 import org.eclipse.cdt.managedbuilder.internal.core.BuilderFactory;
 import org.eclipse.cdt.managedbuilder.internal.core.CommonBuilder;
 import org.eclipse.cdt.managedbuilder.internal.core.GeneratedMakefileBuilder;
@@ -107,6 +108,7 @@ public class ManagedBuilderCorePlugin extends Plugin {
 				/*| IResourceChangeEvent.POST_BUILD*/);
 		
 		BuildStateManager.getInstance().startup();
+		BuildSettingsChangeTracker.getInstance().startup();
 /*		try {
 			jobManager.beginRule(root, null);
 
@@ -176,6 +178,7 @@ public class ManagedBuilderCorePlugin extends Plugin {
 	 */
 	@Override
 	public void stop(BundleContext context) throws Exception {
+		BuildSettingsChangeTracker.getInstance().shutdown();
 		BuildStateManager.getInstance().shutdown();
 
 		CfgDiscoveredPathManager.stop();
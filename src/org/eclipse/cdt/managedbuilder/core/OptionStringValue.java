@@ -34,10 +34,10 @@ public final class OptionStringValue {
 		} else {
 			isBuiltIn = false;
 		}
-		value = el.getAttribute(Option.LIST_ITEM_VALUE);
-		srcPath = el.getAttribute(ATTR_SRC_PATH);
-		srcRootPath = el.getAttribute(ATTR_SRC_ROOT_PATH);
-		srcPrefixMapping = el.getAttribute(ATTR_SRC_PREFIX_MAPPING);
+		value = SafeStringInterner.safeIntern(el.getAttribute(Option.LIST_ITEM_VALUE));
+		srcPath = SafeStringInterner.safeIntern(el.getAttribute(ATTR_SRC_PATH));
+		srcRootPath = SafeStringInterner.safeIntern(el.getAttribute(ATTR_SRC_ROOT_PATH));
+		srcPrefixMapping = SafeStringInterner.safeIntern(el.getAttribute(ATTR_SRC_PREFIX_MAPPING));
 		if(value == null)
 			value = Option.EMPTY_STRING;
 	}
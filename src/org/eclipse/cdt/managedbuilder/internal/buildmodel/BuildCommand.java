@@ -14,6 +14,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.eclipse.cdt.managedbuilder.buildmodel.IBuildCommand;
+import org.eclipse.cdt.managedbuilder.internal.envvar.EnvironmentSnapshot;
 import org.eclipse.core.runtime.IPath;
 
 /**
@@ -24,7 +25,21 @@ public class BuildCommand implements IBuildCommand {
 	private String fArgs[];
 	private Map<String, String> fEnv;
 	private IPath fCWD;
+	private EnvironmentSnapshot fEnvSnapshot;
 	
+	/**
+	 * Creates a command sharing the environment of the given snapshot
+	 *
+	 * @since 8.0
+	 */
+	public BuildCommand(IPath cmd, String args[], EnvironmentSnapshot env, IPath cwd, BuildStep step){
+		this(cmd, args, (Map<String, String>)null, cwd, step);
+		if(env != null){
+			fEnvSnapshot = env;
+			fEnv = env.getEnvironment();
+		}
+	}
+
 	public BuildCommand(IPath cmd, String args[], Map<String, String> env, IPath cwd, BuildStep step){
 		fCmd = cmd;
 		if(args != null)
@@ -60,6 +75,24 @@ public class BuildCommand implements IBuildCommand {
 		return null;
 	}
 
+	/**
+	 * @return the environment in the <code>NAME=VALUE</code> form, or <code>null</code>
+	 * if the command has no environment
+	 * @since 8.0
+	 */
+	public String[] getEnvironmentStrings() {
+		if(fEnvSnapshot != null)
+			return fEnvSnapshot.getEnvironmentStrings();
+		if(fEnv == null)
+			return null;
+		String strings[] = new String[fEnv.size()];
+		int i = 0;
+		for(Map.Entry<String, String> entry : fEnv.entrySet()){
+			strings[i++] = entry.getKey() + '=' + entry.getValue();
+		}
+		return strings;
+	}
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.cdt.managedbuilder.builddescription.IBuildCommand#getCWD()
 	 */
@@ -55,7 +55,11 @@ import org.eclipse.cdt.managedbuilder.core.ManagedBuildManager;
 import org.eclipse.cdt.managedbuilder.core.ManagedBuilderCorePlugin;
 import org.eclipse.cdt.managedbuilder.envvar.IBuildEnvironmentVariable;
 import org.eclipse.cdt.managedbuilder.internal.core.Configuration;
+import org.eclipse.cdt.managedbuilder.internal.core.ResourcePathTrie;
+import org.eclipse.cdt.managedbuilder.internal.envvar.EnvironmentSnapshot;
+import org.eclipse.cdt.managedbuilder.internal.envvar.EnvironmentVariableProvider;
 import org.eclipse.cdt.managedbuilder.internal.macros.FileContextData;
+import org.eclipse.cdt.managedbuilder.internal.macros.FileMacroEvaluator;
 import org.eclipse.cdt.managedbuilder.internal.macros.OptionContextData;
 import org.eclipse.cdt.managedbuilder.macros.BuildMacroException;
 import org.eclipse.cdt.managedbuilder.macros.IBuildMacroProvider;
@@ -130,10 +134,14 @@ public class BuildDescription implements IBuildDescription {
 //	private Map fExtToToolAndTypeListMap = new HashMap();
 
 	private Map<String, String> fEnvironment;
+	private EnvironmentSnapshot fEnvironmentSnapshot;
+
+	private FileMacroEvaluator fFileMacroEvaluator;
 
 	private PDOMDependencyGenerator fPdomDepGen;
 
 	private PathSettingsContainer fToolInfos;
+	private ResourcePathTrie<ToolInfoHolder> fToolInfoTrie;
 
 	private BuildStep fCleanStep;
 
@@ -1230,7 +1238,7 @@ public class BuildDescription implements IBuildDescription {
 														IBuildMacroProvider.CONTEXT_FILE,
 														new FileContextData(
 																resPath,
-																null, option, tool));
+																null, option, tool, getFileMacroEvaluator()));
 								} catch (BuildMacroException e){
 								}
 
@@ -1266,7 +1274,7 @@ public class BuildDescription implements IBuildDescription {
 										IBuildMacroProvider.CONTEXT_FILE,
 										new FileContextData(
 												resPath,
-												null, option, tool));
+												null, option, tool, getFileMacroEvaluator()));
 							} catch (BuildMacroException e){
 							}
 							}
@@ -1310,7 +1318,7 @@ public class BuildDescription implements IBuildDescription {
 								IBuildMacroProvider.CONTEXT_FILE,
 								new FileContextData(
 										resPath,
-										null, option, tool));
+										null, option, tool, getFileMacroEvaluator()));
 					} catch (BuildMacroException e){
 					}
 
@@ -1504,11 +1512,34 @@ public class BuildDescription implements IBuildDescription {
 	}
 
 	public Map<String, String> getEnvironment(){
-		if(fEnvironment == null)
-			fEnvironment = calculateEnvironment();
+		if(fEnvironment == null){
+			fEnvironmentSnapshot = EnvironmentVariableProvider.getDefault().getSnapshot(fCfg);
+			if(fEnvironmentSnapshot != null)
+				fEnvironment = fEnvironmentSnapshot.getEnvironment();
+			else
+				fEnvironment = calculateEnvironment();
+		}
 		return fEnvironment;
 	}
 
+	/**
+	 * @return the environment snapshot the {@link #getEnvironment()} map belongs to,
+	 * or <code>null</code> if the environment was calculated without a snapshot
+	 */
+	public EnvironmentSnapshot getEnvironmentSnapshot(){
+		getEnvironment();
+		return fEnvironmentSnapshot;
+	}
+
+	/**
+	 * @return the evaluator of the file macros shared by the steps of this description
+	 */
+	public synchronized FileMacroEvaluator getFileMacroEvaluator(){
+		if(fFileMacroEvaluator == null)
+			fFileMacroEvaluator = new FileMacroEvaluator(fCfg);
+		return fFileMacroEvaluator;
+	}
+
 	protected Map<String, String> calculateEnvironment(){
 		IBuildEnvironmentVariable variables[] = ManagedBuildManager.getEnvironmentVariableProvider().getVariables(fCfg,true,true);
 		Map<String, String> map = new HashMap<String, String>();
@@ -2251,6 +2282,7 @@ public class BuildDescription implements IBuildDescription {
 
 	private void initToolInfos(){
 		fToolInfos = PathSettingsContainer.createRootContainer();
+		fToolInfoTrie = new ResourcePathTrie<ToolInfoHolder>();
 
 		for (IResourceInfo rcInfo : fCfg.getResourceInfos()) {
 //			if(rcInfo.isExcluded())
@@ -2276,14 +2308,15 @@ public class BuildDescription implements IBuildDescription {
 	}
 
 	private ToolInfoHolder getToolInfo(IPath path, boolean create){
-		PathSettingsContainer child = fToolInfos.getChildContainer(path, create, create);
-		ToolInfoHolder h = null;
-		if(child != null){
-			h = (ToolInfoHolder)child.getValue();
-			if(h == null && create){
-				h = new ToolInfoHolder();
-				child.setValue(h);
-			}
+		if(!create)
+			return fToolInfoTrie.getNearest(path);
+
+		PathSettingsContainer child = fToolInfos.getChildContainer(path, true, true);
+		ToolInfoHolder h = (ToolInfoHolder)child.getValue();
+		if(h == null){
+			h = new ToolInfoHolder();
+			child.setValue(h);
+			fToolInfoTrie.put(child.getPath(), h);
 		}
 		return h;
 	}
@@ -0,0 +1,333 @@
+/*******************************************************************************
+ * Copyright (c) 2011 Broadcom Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Broadcom Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.cdt.managedbuilder.internal.buildmodel;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.cdt.managedbuilder.buildmodel.IBuildCommand;
+import org.eclipse.cdt.managedbuilder.buildmodel.IBuildDescription;
+import org.eclipse.cdt.managedbuilder.buildmodel.IBuildIOType;
+import org.eclipse.cdt.managedbuilder.buildmodel.IBuildResource;
+import org.eclipse.cdt.managedbuilder.buildmodel.IBuildStep;
+import org.eclipse.cdt.managedbuilder.core.IBuilder;
+import org.eclipse.cdt.managedbuilder.core.ManagedBuilderCorePlugin;
+import org.eclipse.cdt.managedbuilder.internal.core.ManagedMakeMessages;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+
+/**
+ * Writes the JSON compilation database (compile_commands.json) for a build description.
+ * <p>
+ * An entry is written for every step compiling a single project source, with the command
+ * fully resolved as the internal builder would run it. Entries are written one per line,
+ * which allows {@link #update(boolean)} to read back the previous database and to keep the
+ * entries of the steps that do not need a rebuild.
+ *
+ * @since 8.0
+ */
+public class BuildDescriptionCompilationDatabaseGenerator {
+	/**
+	 * Builder attribute enabling the generation of the compilation database
+	 * into the build directory, see {@link IBuilder#getBuildAttribute(String, String)}
+	 */
+	public static final String COMPILATION_DATABASE_ATTRIBUTE = "org.eclipse.cdt.managedbuilder.compilationDatabase"; //$NON-NLS-1$
+	public static final String FILE_NAME = "compile_commands.json"; //$NON-NLS-1$
+
+	private static final String ENCODING = "utf-8"; //$NON-NLS-1$
+	private static final String LINE_SEPARATOR = "\n"; //$NON-NLS-1$
+	private static final String ARRAY_START = "["; //$NON-NLS-1$
+	private static final String ARRAY_END = "]"; //$NON-NLS-1$
+	private static final String ENTRY_SEPARATOR = ","; //$NON-NLS-1$
+	private static final String FILE_PREFIX = "{\"file\": "; //$NON-NLS-1$
+	private static final String DIRECTORY_PREFIX = ", \"directory\": "; //$NON-NLS-1$
+	private static final String ARGUMENTS_PREFIX = ", \"arguments\": ["; //$NON-NLS-1$
+	private static final String ENTRY_END = "]}"; //$NON-NLS-1$
+
+	private IBuildDescription fDes;
+	private int fChanged;
+
+	public BuildDescriptionCompilationDatabaseGenerator(IBuildDescription des){
+		fDes = des;
+	}
+
+	/**
+	 * @return whether the builder is set up to generate the compilation database
+	 * @see #COMPILATION_DATABASE_ATTRIBUTE
+	 */
+	public static boolean isEnabled(IBuilder builder){
+		if(builder == null)
+			return false;
+		return Boolean.valueOf(builder.getBuildAttribute(COMPILATION_DATABASE_ATTRIBUTE, null)).booleanValue();
+	}
+
+	/**
+	 * Streams the complete compilation database to the given stream.
+	 */
+	public void store(OutputStream stream) throws CoreException{
+		Writer writer = createWriter(stream);
+		try {
+			write(writer, Collections.<String, String>emptyMap(), false);
+			writer.flush();
+		} catch (IOException e) {
+			throw new CoreException(new Status(IStatus.ERROR, ManagedBuilderCorePlugin.getUniqueIdentifier(), ManagedMakeMessages.getString("BuildDescriptionCompilationDatabaseGenerator.0"), e)); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Updates the compilation database in the default build directory.
+	 * The database is only rewritten if any of its entries has changed. It is written
+	 * through the workspace, so the workspace stays in sync with it.
+	 *
+	 * @param incremental <code>true</code> to reuse the previous entries of the steps
+	 * that do not need a rebuild. The description must have been created with
+	 * the {@link org.eclipse.cdt.managedbuilder.buildmodel.BuildDescriptionManager#REBUILD} flag.
+	 * @return whether the database was rewritten
+	 */
+	public boolean update(boolean incremental) throws CoreException{
+		IPath dir = fDes.getDefaultBuildDirFullPath();
+		IFile file = ResourcesPlugin.getWorkspace().getRoot().getFile(dir.append(FILE_NAME));
+		if(!file.isSynchronized(IResource.DEPTH_ZERO))
+			file.refreshLocal(IResource.DEPTH_ZERO, null);
+		try {
+			Map<String, String> previous = file.exists() ? load(file) : Collections.<String, String>emptyMap();
+
+			ByteArrayOutputStream contents = new ByteArrayOutputStream();
+			Writer writer = createWriter(contents);
+			int count = write(writer, previous, incremental);
+			writer.flush();
+
+			if(fChanged == 0 && count == previous.size())
+				return false;
+
+			InputStream stream = new ByteArrayInputStream(contents.toByteArray());
+			if(file.exists()){
+				file.setContents(stream, IResource.FORCE, null);
+			} else {
+				new GenDirInfo(fDes.getConfiguration()).createIfProjectDir(dir, null);
+				file.create(stream, true, null);
+				file.setDerived(true);
+			}
+			return true;
+		} catch (IOException e) {
+			throw new CoreException(new Status(IStatus.ERROR, ManagedBuilderCorePlugin.getUniqueIdentifier(), ManagedMakeMessages.getString("BuildDescriptionCompilationDatabaseGenerator.0"), e)); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * @return the number of entries whose command changed by the last {@link #store(OutputStream)}
+	 * or {@link #update(boolean)}
+	 */
+	public int getChangedEntriesCount(){
+		return fChanged;
+	}
+
+	/**
+	 * Writes the entries of all compile steps.
+	 *
+	 * @param previous the previous entries keyed by the quoted source location
+	 * @return the number of entries written
+	 */
+	private int write(Writer writer, Map<String, String> previous, boolean incremental) throws IOException{
+		fChanged = 0;
+		int count = 0;
+		writer.write(ARRAY_START);
+		writer.write(LINE_SEPARATOR);
+
+		IBuildStep steps[] = fDes.getSteps();
+		for(int i = 0; i < steps.length; i++){
+			IBuildStep step = steps[i];
+			if(step == fDes.getInputStep() || step == fDes.getOutputStep() || step.isRemoved())
+				continue;
+
+			IBuildResource source = getSource(step);
+			if(source == null)
+				continue;
+
+			String key = quote(source.getLocation().toOSString());
+			String entry = null;
+			if(incremental && !step.needsRebuild())
+				entry = previous.get(key);
+			if(entry == null)
+				entry = createEntry(step, key);
+			if(entry == null)
+				continue;
+			if(!entry.equals(previous.get(key)))
+				fChanged++;
+
+			if(count++ != 0){
+				writer.write(ENTRY_SEPARATOR);
+				writer.write(LINE_SEPARATOR);
+			}
+			writer.write(entry);
+		}
+
+		if(count != 0)
+			writer.write(LINE_SEPARATOR);
+		writer.write(ARRAY_END);
+		writer.write(LINE_SEPARATOR);
+		return count;
+	}
+
+	/**
+	 * @return the project source compiled by the step, or <code>null</code>
+	 * if the step does not compile exactly one source
+	 */
+	private IBuildResource getSource(IBuildStep step){
+		if(!(step instanceof BuildStep) || ((BuildStep)step).getTool() == null)
+			return null;
+
+		IBuildResource source = null;
+		IBuildIOType types[] = ((BuildStep)step).getPrimaryTypes(true);
+		if(types.length == 0)
+			types = step.getInputIOTypes();
+		for(int i = 0; i < types.length; i++){
+			IBuildResource rcs[] = types[i].getResources();
+			for(int j = 0; j < rcs.length; j++){
+				if(source != null || rcs[j].getProducerStep() != fDes.getInputStep())
+					return null;
+				source = rcs[j];
+			}
+		}
+		return source;
+	}
+
+	private String createEntry(IBuildStep step, String quotedFile){
+		IBuildCommand cmds[] = step.getCommands(null, null, null, true);
+		if(cmds.length == 0)
+			return null;
+
+		IBuildCommand cmd = cmds[0];
+		StringBuffer buf = new StringBuffer();
+		buf.append(FILE_PREFIX).append(quotedFile);
+		IPath cwd = cmd.getCWD();
+		buf.append(DIRECTORY_PREFIX).append(quote(cwd != null ? cwd.toOSString() : fDes.getDefaultBuildDirLocation().toOSString()));
+		buf.append(ARGUMENTS_PREFIX).append(quote(cmd.getCommand().toOSString()));
+		String args[] = cmd.getArgs();
+		for(int i = 0; i < args.length; i++){
+			buf.append(", ").append(quote(args[i])); //$NON-NLS-1$
+		}
+		buf.append(ENTRY_END);
+		return buf.toString();
+	}
+
+	/**
+	 * Reads the entries of a database written by this generator.
+	 */
+	private Map<String, String> load(IFile file) throws IOException, CoreException{
+		Map<String, String> entries = new HashMap<String, String>();
+		BufferedReader reader = new BufferedReader(createReader(file.getContents(true)));
+		try {
+			String line;
+			while((line = reader.readLine()) != null){
+				if(!line.startsWith(FILE_PREFIX))
+					continue;
+				if(line.endsWith(ENTRY_SEPARATOR))
+					line = line.substring(0, line.length() - ENTRY_SEPARATOR.length());
+				int end = getQuotedStringEnd(line, FILE_PREFIX.length());
+				if(end != -1)
+					entries.put(line.substring(FILE_PREFIX.length(), end), line);
+			}
+		} finally {
+			reader.close();
+		}
+		return entries;
+	}
+
+	/**
+	 * @return the index following the JSON string starting at the given index, or -1
+	 */
+	private static int getQuotedStringEnd(String str, int start){
+		if(start >= str.length() || str.charAt(start) != '"')
+			return -1;
+		for(int i = start + 1; i < str.length(); i++){
+			char c = str.charAt(i);
+			if(c == '\\')
+				i++;
+			else if(c == '"')
+				return i + 1;
+		}
+		return -1;
+	}
+
+	private static String quote(String str){
+		StringBuffer buf = new StringBuffer(str.length() + 2);
+		buf.append('"');
+		for(int i = 0; i < str.length(); i++){
+			char c = str.charAt(i);
+			switch(c){
+			case '"':
+				buf.append("\\\""); //$NON-NLS-1$
+				break;
+			case '\\':
+				buf.append("\\\\"); //$NON-NLS-1$
+				break;
+			case '\n':
+				buf.append("\\n"); //$NON-NLS-1$
+				break;
+			case '\r':
+				buf.append("\\r"); //$NON-NLS-1$
+				break;
+			case '\t':
+				buf.append("\\t"); //$NON-NLS-1$
+				break;
+			default:
+				if(c < ' '){
+					String hex = Integer.toHexString(c);
+					buf.append("\\u"); //$NON-NLS-1$
+					for(int j = hex.length(); j < 4; j++)
+						buf.append('0');
+					buf.append(hex);
+				} else {
+					buf.append(c);
+				}
+			}
+		}
+		buf.append('"');
+		return buf.toString();
+	}
+
+	protected Writer createWriter(OutputStream stream){
+		try {
+			return new BufferedWriter(new OutputStreamWriter(stream, ENCODING));
+		} catch (UnsupportedEncodingException e) {
+			ManagedBuilderCorePlugin.log(e);
+		}
+		return new BufferedWriter(new OutputStreamWriter(stream));
+	}
+
+	private Reader createReader(InputStream stream){
+		try {
+			return new InputStreamReader(stream, ENCODING);
+		} catch (UnsupportedEncodingException e) {
+			ManagedBuilderCorePlugin.log(e);
+		}
+		return new InputStreamReader(stream);
+	}
+}
@@ -88,7 +88,10 @@ public class BuildProcessManager {
 			}
 			
 			if (i < maxProcesses) {
-				processes[i] = new ProcessLauncher(cmd.getCommand(), cmd.getArgs(), mapToStringArray(cmd.getEnvironment()), cwd, out, err, monitor, show);
+				String env[] = cmd instanceof BuildCommand ?
+						((BuildCommand)cmd).getEnvironmentStrings() :
+						mapToStringArray(cmd.getEnvironment());
+				processes[i] = new ProcessLauncher(cmd.getCommand(), cmd.getArgs(), env, cwd, out, err, monitor, show);
 				processes[i].launch();
 				return processes[i];
 			}
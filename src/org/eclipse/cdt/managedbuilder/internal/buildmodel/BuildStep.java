@@ -35,12 +35,13 @@ import org.eclipse.cdt.managedbuilder.core.ITool;
 import org.eclipse.cdt.managedbuilder.core.ManagedBuildManager;
 import org.eclipse.cdt.managedbuilder.internal.core.Configuration;
 import org.eclipse.cdt.managedbuilder.internal.core.Tool;
+import org.eclipse.cdt.managedbuilder.internal.envvar.EnvironmentSnapshot;
 import org.eclipse.cdt.managedbuilder.internal.macros.BuildMacroProvider;
 import org.eclipse.cdt.managedbuilder.internal.macros.FileContextData;
 import org.eclipse.cdt.managedbuilder.internal.macros.IMacroContextInfo;
+import org.eclipse.cdt.managedbuilder.internal.macros.MacroTemplate;
 import org.eclipse.cdt.managedbuilder.macros.IBuildMacroProvider;
 import org.eclipse.cdt.managedbuilder.macros.IFileContextData;
-import org.eclipse.cdt.utils.cdtvariables.CdtVariableResolver;
 import org.eclipse.cdt.utils.cdtvariables.SupplierBasedCdtVariableSubstitutor;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.Path;
@@ -298,7 +299,7 @@ public class BuildStep implements IBuildStep {
 		IPath outRcPath = outRc != null ? BuildDescriptionManager.getRelPath(cwd, outRc.getLocation()) : null;
 
 		IManagedCommandLineGenerator gen = fTool.getCommandLineGenerator();
-		FileContextData data = new FileContextData(inRcPath, outRcPath, null, fTool);
+		FileContextData data = new FileContextData(inRcPath, outRcPath, null, fTool, fBuildDescription.getFileMacroEvaluator());
 		String outPrefix = fTool.getOutputPrefix();
 		outPrefix = resolveMacros(outPrefix, data, true);
 		outRcPath = rmNamePrefix(outRcPath, outPrefix);
@@ -422,6 +423,9 @@ public class BuildStep implements IBuildStep {
 		IPath c = new Path(list.remove(0));
 		String[] args = list.toArray(new String[list.size()]);
 		
+		EnvironmentSnapshot snapshot = fBuildDescription.getEnvironmentSnapshot();
+		if(snapshot != null && env == snapshot.getEnvironment())
+			return new IBuildCommand[]{new BuildCommand(c, args, snapshot, cwd, this)};
 		return new IBuildCommand[]{new BuildCommand(c, args, env, cwd, this)};
 	}
 	
@@ -460,7 +464,7 @@ public class BuildStep implements IBuildStep {
 				IConfiguration cfg = getBuildDescription().getConfiguration();
 				IBuilder builder = cfg.getBuilder();
 				SupplierBasedCdtVariableSubstitutor sub = createSubstitutor(cfg, builder, fileData);
-				result = CdtVariableResolver.resolveToString(str, sub);
+				result = MacroTemplate.resolveToString(str, sub);
 			} else {
 				result = ManagedBuildManager.getBuildMacroProvider().resolveValueToMakefileFormat(str, "", " ", IBuildMacroProvider.CONTEXT_FILE, fileData);	//$NON-NLS-1$	//$NON-NLS-2$
 			}
@@ -504,8 +508,8 @@ public class BuildStep implements IBuildStep {
 				IBuilder builder = cfg.getBuilder();
 					return ((Tool)fTool).getToolCommandFlags(inRcPath, outRcPath, 
 							createSubstitutor(cfg, builder,
-									new FileContextData(inRcPath, outRcPath, null, fTool)),
-							BuildMacroProvider.getDefault());
+									new FileContextData(inRcPath, outRcPath, null, fTool, fBuildDescription.getFileMacroEvaluator())),
+							BuildMacroProvider.getDefault(), true);
 			}
 			return fTool.getToolCommandFlags(inRcPath, outRcPath);
 		} catch (BuildException e) {
@@ -171,7 +171,7 @@ public class CommandBuilder implements IBuildModelBuilder {
 		launcher.showCommand(true);
 
 		try {
-			fProcess = launcher.execute(fCmd.getCommand(), fCmd.getArgs(), mapToStringArray(fCmd.getEnvironment()), fCmd.getCWD(), monitor);
+			fProcess = launcher.execute(fCmd.getCommand(), fCmd.getArgs(), getEnvironmentStrings(), fCmd.getCWD(), monitor);
 		} catch (CoreException e1) {
 			// TODO Auto-generated catch block
 			if(DbgUtil.DEBUG)
@@ -241,6 +241,12 @@ public class CommandBuilder implements IBuildModelBuilder {
 		return fErrMsg;
 	}
 	
+	private String[] getEnvironmentStrings(){
+		if(fCmd instanceof BuildCommand)
+			return ((BuildCommand)fCmd).getEnvironmentStrings();
+		return mapToStringArray(fCmd.getEnvironment());
+	}
+
 	private String[] mapToStringArray(Map<String, String> map){
 		if(map == null)
 			return null;
@@ -38,7 +38,9 @@ public class BuildPropertyManager implements IBuildPropertyManager{
 	static final String ATTRIBUTE_NAME = "name"; //$NON-NLS-1$
 	static final String ATTRIBUTE_ID = "id"; //$NON-NLS-1$
 
-	private static BuildPropertyManager fInstance;
+	private static final class Holder {
+		static final BuildPropertyManager fInstance = new BuildPropertyManager();
+	}
 	
 	private List<IConfigurationElement> fTypeCfgElements;
 	private List<IConfigurationElement> fValueCfgElements;
@@ -48,9 +50,7 @@ public class BuildPropertyManager implements IBuildPropertyManager{
 	}
 	
 	public static BuildPropertyManager getInstance(){
-		if(fInstance == null)
-			fInstance = new BuildPropertyManager();
-		return fInstance;
+		return Holder.fInstance;
 	}
 	
 	public BuildProperties loadPropertiesFromString(String properties){
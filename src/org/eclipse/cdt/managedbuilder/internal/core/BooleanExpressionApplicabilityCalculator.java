@@ -12,6 +12,7 @@
  *******************************************************************************/
 package org.eclipse.cdt.managedbuilder.internal.core;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -32,10 +33,12 @@ import org.eclipse.cdt.managedbuilder.core.IResourceInfo;
 import org.eclipse.cdt.managedbuilder.core.ITool;
 import org.eclipse.cdt.managedbuilder.core.IToolChain;
 import org.eclipse.cdt.managedbuilder.internal.enablement.AdjustmentContext;
+import org.eclipse.cdt.managedbuilder.internal.enablement.CompiledEnablementExpression;
 import org.eclipse.cdt.managedbuilder.internal.enablement.OptionEnablementExpression;
 
 public class BooleanExpressionApplicabilityCalculator implements IOptionApplicability, IOptionCategoryApplicability {
 	private OptionEnablementExpression fExpressions[];
+	private CompiledEnablementExpression fCompiled;
 
 	private Map<String, Set<String>> fRefPropsMap;
 	
@@ -101,8 +104,44 @@ public class BooleanExpressionApplicabilityCalculator implements IOptionApplicab
 		return true;
 	}
 
+	/**
+	 * Evaluates the expressions, the results are memoized per resource info and
+	 * recomputed only once the options or build properties read by the expressions
+	 * change, see {@link CompiledEnablementExpression}.
+	 */
 	public boolean evaluate(IResourceInfo rcInfo,
 			IHoldsOptions holder, IOption option, int flags){
+		CompiledEnablementExpression compiled = getCompiledExpression();
+		if(!compiled.isMemoizable() || !(rcInfo instanceof ResourceInfo))
+			return evaluateExpressions(rcInfo, holder, option, flags);
+
+		EnablementResultCache cache = ((ResourceInfo)rcInfo).getEnablementResultCache();
+		int count = NotificationManager.getInstance().getModificationCount();
+		EnablementResultCache.Result result = cache.get(this, holder, option, flags);
+		if(result != null && result.fModificationCount == count)
+			return result.fValue;
+
+		Object inputs[] = compiled.readInputs(rcInfo, holder, option);
+		if(inputs == null)
+			return evaluateExpressions(rcInfo, holder, option, flags);
+		if(result != null && Arrays.equals(inputs, result.fInputs)){
+			result.fModificationCount = count;
+			return result.fValue;
+		}
+
+		boolean value = evaluateExpressions(rcInfo, holder, option, flags);
+		cache.put(this, holder, option, flags, new EnablementResultCache.Result(value, inputs, count));
+		return value;
+	}
+
+	private synchronized CompiledEnablementExpression getCompiledExpression(){
+		if(fCompiled == null)
+			fCompiled = new CompiledEnablementExpression(fExpressions);
+		return fCompiled;
+	}
+
+	private boolean evaluateExpressions(IResourceInfo rcInfo,
+			IHoldsOptions holder, IOption option, int flags){
 		for(int i = 0; i < fExpressions.length; i++){
 			if(!fExpressions[i].evaluate(rcInfo, holder, option, flags))
 				return false;
@@ -13,16 +13,16 @@ package org.eclipse.cdt.managedbuilder.internal.core;
 public class BuildDbgUtil extends DbgUtilBase {
 	public static final int BUILD_INFO_LOAD = 1;
 	public static boolean DEBUG = false;
-	private static BuildDbgUtil fInstance;
+	private static final class Holder {
+		static final BuildDbgUtil fInstance = new BuildDbgUtil();
+	}
 	
 	private BuildDbgUtil(){
 		fDbgOn = DEBUG;
 	}
 	
 	public static BuildDbgUtil getInstance(){
-		if(fInstance == null)
-			fInstance = new BuildDbgUtil();
-		return fInstance;
+		return Holder.fInstance;
 	}
 	
 	public int getFlags(){
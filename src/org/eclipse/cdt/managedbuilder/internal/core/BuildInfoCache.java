@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 2011 Broadcom Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Broadcom Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.cdt.managedbuilder.internal.core;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.cdt.managedbuilder.core.IManagedBuildInfo;
+import org.eclipse.core.resources.IProject;
+
+/**
+ * Cache of the build infos loaded for the projects.
+ * <p>
+ * The loaded build infos are looked up without locking. Loading a build info that is not
+ * in the cache yet is serialized per project, see {@link #lock(IProject)}, so that the threads
+ * loading the build infos of different projects do not block each other.
+ * <p>
+ * While {@link BuildDbgUtil#DEBUG} is set the cache counts the lookups and the contended
+ * project locks, the counts are reported by {@link #toString()} for tracing.
+ *
+ * @since 8.0
+ */
+public final class BuildInfoCache {
+	private final ConcurrentMap<IProject, IManagedBuildInfo> fInfos = new ConcurrentHashMap<IProject, IManagedBuildInfo>();
+	private final ConcurrentMap<IProject, ReentrantLock> fLocks = new ConcurrentHashMap<IProject, ReentrantLock>();
+
+	private final AtomicLong fHits = new AtomicLong();
+	private final AtomicLong fMisses = new AtomicLong();
+	private final AtomicLong fContentions = new AtomicLong();
+	private final AtomicLong fWaitTime = new AtomicLong();
+
+	/**
+	 * @return the build info loaded for the project, <code>null</code> if none
+	 */
+	public IManagedBuildInfo get(IProject project){
+		IManagedBuildInfo info = project != null ? fInfos.get(project) : null;
+		if(BuildDbgUtil.DEBUG){
+			if(info != null)
+				fHits.incrementAndGet();
+			else
+				fMisses.incrementAndGet();
+		}
+		return info;
+	}
+
+	/**
+	 * Sets the build info of the project, a <code>null</code> info removes the build info
+	 * and the lock of the project, e.g. once the project is closed or deleted.
+	 *
+	 * @param overwrite whether a build info already loaded for the project is replaced
+	 * @return the build info of the project after the call
+	 */
+	public IManagedBuildInfo put(IProject project, IManagedBuildInfo info, boolean overwrite){
+		if(info == null){
+			fInfos.remove(project);
+			// a lock held by a loading thread, including the current one, stays, see lock(IProject)
+			ReentrantLock lock = fLocks.get(project);
+			if(lock != null && lock.tryLock()){
+				try {
+					if(lock.getHoldCount() == 1)
+						fLocks.remove(project, lock);
+				} finally {
+					lock.unlock();
+				}
+			}
+			return null;
+		}
+		if(overwrite){
+			fInfos.put(project, info);
+			return info;
+		}
+		IManagedBuildInfo previous = fInfos.putIfAbsent(project, info);
+		return previous != null ? previous : info;
+	}
+
+	/**
+	 * Acquires the lock serializing the loading of the build info of the project.
+	 * The lock must be released with {@link #unlock(IProject)}.
+	 */
+	public void lock(IProject project){
+		for(;;){
+			ReentrantLock lock = getLock(project);
+			acquire(lock);
+			if(fLocks.get(project) == lock)
+				return;
+			// the lock was removed with the build info before it was acquired
+			lock.unlock();
+		}
+	}
+
+	private void acquire(ReentrantLock lock){
+		if(lock.tryLock())
+			return;
+
+		if(!BuildDbgUtil.DEBUG){
+			lock.lock();
+			return;
+		}
+		fContentions.incrementAndGet();
+		long start = System.nanoTime();
+		lock.lock();
+		fWaitTime.addAndGet(System.nanoTime() - start);
+	}
+
+	public void unlock(IProject project){
+		getLock(project).unlock();
+	}
+
+	private ReentrantLock getLock(IProject project){
+		ReentrantLock lock = fLocks.get(project);
+		if(lock == null){
+			lock = new ReentrantLock();
+			ReentrantLock previous = fLocks.putIfAbsent(project, lock);
+			if(previous != null)
+				lock = previous;
+		}
+		return lock;
+	}
+
+	/**
+	 * @return the number of the lookups that found a loaded build info
+	 */
+	public long getHitCount(){
+		return fHits.get();
+	}
+
+	/**
+	 * @return the number of the lookups that found no loaded build info
+	 */
+	public long getMissCount(){
+		return fMisses.get();
+	}
+
+	/**
+	 * @return the number of the times a thread had to wait for a project lock
+	 */
+	public long getContentionCount(){
+		return fContentions.get();
+	}
+
+	/**
+	 * @return the total time the threads waited for the project locks, in nanoseconds
+	 */
+	public long getWaitTime(){
+		return fWaitTime.get();
+	}
+
+	@Override
+	public String toString() {
+		return "build info cache: " + fInfos.size() + " infos, " //$NON-NLS-1$ //$NON-NLS-2$
+			+ getHitCount() + " hits, " + getMissCount() + " misses, " //$NON-NLS-1$ //$NON-NLS-2$
+			+ getContentionCount() + " contended loads, " //$NON-NLS-1$
+			+ getWaitTime() / 1000000 + " ms waited"; //$NON-NLS-1$
+	}
+}
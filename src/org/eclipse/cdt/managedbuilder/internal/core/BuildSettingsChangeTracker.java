@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2011 Broadcom Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Broadcom Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.cdt.managedbuilder.internal.core;
+
+import org.eclipse.cdt.core.CCorePlugin;
+import org.eclipse.cdt.core.model.CoreModel;
+import org.eclipse.cdt.core.settings.model.CProjectDescriptionEvent;
+import org.eclipse.cdt.core.settings.model.ICProjectDescriptionListener;
+import org.eclipse.cdt.internal.core.cdtvariables.ICdtVariableChangeListener;
+import org.eclipse.cdt.internal.core.cdtvariables.UserDefinedVariableSupplier;
+import org.eclipse.cdt.internal.core.cdtvariables.VariableChangeEvent;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences.IPreferenceChangeListener;
+import org.eclipse.core.runtime.preferences.IEclipsePreferences.PreferenceChangeEvent;
+import org.eclipse.core.runtime.preferences.InstanceScope;
+import org.eclipse.core.variables.IValueVariable;
+import org.eclipse.core.variables.IValueVariableListener;
+import org.eclipse.core.variables.VariablesPlugin;
+
+/**
+ * Reports the changes of the settings the build macros and the build environment are computed
+ * from, other than the options, to the {@link NotificationManager}: the user-defined macros and
+ * environment variables of the workspace and the configurations, the workspace build variables
+ * and the names of the projects. Changes of the system environment are not notified, they are
+ * picked up at the start of a build.
+ * <p>
+ * The caches validated against the {@link NotificationManager#getModificationCount()}, e.g. the
+ * resolved macro values, the environment snapshots and the tool command flags, are recomputed
+ * after any of those changes instead of only at the start of the next build.
+ *
+ * @since 8.0
+ */
+public class BuildSettingsChangeTracker {
+	// the preference node the core stores the user-defined workspace environment in
+	private static final String ENVIRONMENT_NODE = "environment"; //$NON-NLS-1$
+	private static final String WORKSPACE_ENVIRONMENT_NODE = "workspace"; //$NON-NLS-1$
+
+	private static final class Holder {
+		static final BuildSettingsChangeTracker fInstance = new BuildSettingsChangeTracker();
+	}
+
+	private EventListener fListener;
+
+	private static class EventListener implements ICProjectDescriptionListener, ICdtVariableChangeListener,
+			IValueVariableListener, IResourceChangeListener, IPreferenceChangeListener {
+
+		/*
+		 * the user-defined macros and environment variables of the configurations are
+		 * stored with the project description
+		 */
+		public void handleEvent(CProjectDescriptionEvent event) {
+			changed();
+		}
+
+		public void variablesChanged(VariableChangeEvent event) {
+			changed();
+		}
+
+		public void preferenceChange(PreferenceChangeEvent event) {
+			changed();
+		}
+
+		public void variablesAdded(IValueVariable[] variables) {
+			changed();
+		}
+
+		public void variablesRemoved(IValueVariable[] variables) {
+			changed();
+		}
+
+		public void variablesChanged(IValueVariable[] variables) {
+			changed();
+		}
+
+		/*
+		 * the project name macros change when a project is renamed
+		 */
+		public void resourceChanged(IResourceChangeEvent event) {
+			IResourceDelta delta = event.getDelta();
+			if(delta == null)
+				return;
+
+			IResourceDelta children[] = delta.getAffectedChildren(IResourceDelta.ADDED | IResourceDelta.REMOVED);
+			for(int i = 0; i < children.length; i++){
+				if(children[i].getResource().getType() == IResource.PROJECT
+						&& (children[i].getFlags() & (IResourceDelta.MOVED_FROM | IResourceDelta.MOVED_TO)) != 0){
+					changed();
+					return;
+				}
+			}
+		}
+
+		private void changed() {
+			NotificationManager.getInstance().buildSettingsChanged();
+		}
+	}
+
+	private BuildSettingsChangeTracker(){
+	}
+
+	public static BuildSettingsChangeTracker getInstance(){
+		return Holder.fInstance;
+	}
+
+	private static IEclipsePreferences getWorkspaceEnvironmentNode(){
+		return (IEclipsePreferences)new InstanceScope().getNode(CCorePlugin.PLUGIN_ID).node(ENVIRONMENT_NODE).node(WORKSPACE_ENVIRONMENT_NODE);
+	}
+
+	public synchronized void startup(){
+		if(fListener == null){
+			fListener = new EventListener();
+			CoreModel.getDefault().getProjectDescriptionManager().addCProjectDescriptionListener(fListener, CProjectDescriptionEvent.APPLIED | CProjectDescriptionEvent.LOADED);
+			UserDefinedVariableSupplier.getInstance().addListener(fListener);
+			VariablesPlugin.getDefault().getStringVariableManager().addValueVariableListener(fListener);
+			ResourcesPlugin.getWorkspace().addResourceChangeListener(fListener, IResourceChangeEvent.POST_CHANGE);
+			getWorkspaceEnvironmentNode().addPreferenceChangeListener(fListener);
+		}
+	}
+
+	public synchronized void shutdown(){
+		if(fListener != null){
+			getWorkspaceEnvironmentNode().removePreferenceChangeListener(fListener);
+			ResourcesPlugin.getWorkspace().removeResourceChangeListener(fListener);
+			VariablesPlugin.getDefault().getStringVariableManager().removeValueVariableListener(fListener);
+			UserDefinedVariableSupplier.getInstance().removeListener(fListener);
+			CoreModel.getDefault().getProjectDescriptionManager().removeCProjectDescriptionListener(fListener);
+			fListener = null;
+		}
+	}
+}
@@ -1639,11 +1639,15 @@ public class Builder extends HoldsOptions implements IBuilder, IMatchKeyProvider
 	
 	public void setCustomizedErrorParserIds(String[] ids){
 		customizedErrorParserIds = ids != null ? (String[])ids.clone() : ids;
+		if(!isExtensionBuilder)
+			setDirty(true);
 	}
 
 	public void setErrorParsers(String[] parsers) throws CoreException {
 		if(isCustomBuilder()){
 			customizedErrorParserIds = (parsers != null && parsers.length != 0) ? (String[])parsers.clone() : parsers;
+			if(!isExtensionBuilder)
+				setDirty(true);
 		} else {
 			IToolChain parent = getParent();
 			IConfiguration parentConfig = parent.getParent();
@@ -1854,6 +1858,8 @@ public class Builder extends HoldsOptions implements IBuilder, IMatchKeyProvider
 				command = getCommand();
 			}
 		}
+		if(!isExtensionBuilder)
+			setDirty(true);
 	}
 
 	public String getAutoBuildTargetAttribute() {
@@ -1976,18 +1982,26 @@ public class Builder extends HoldsOptions implements IBuilder, IMatchKeyProvider
 
 	public void setAutoBuildEnable(boolean enabled) throws CoreException {
 		autoBuildEnabled = Boolean.valueOf(enabled);
+		if(!isExtensionBuilder)
+			setDirty(true);
 	}
 
 	public void setAutoBuildTarget(String target) throws CoreException {
 		autoBuildTarget = target;
+		if(!isExtensionBuilder)
+			setDirty(true);
 	}
 
 	public void setCleanBuildEnable(boolean enabled) throws CoreException {
 		cleanBuildEnabled = Boolean.valueOf(enabled);
+		if(!isExtensionBuilder)
+			setDirty(true);
 	}
 
 	public void setCleanBuildTarget(String target) throws CoreException {
 		cleanBuildTarget = target;
+		if(!isExtensionBuilder)
+			setDirty(true);
 	}
 
 	public void setFullBuildEnable(boolean enabled) throws CoreException {
@@ -2000,10 +2014,14 @@ public class Builder extends HoldsOptions implements IBuilder, IMatchKeyProvider
 
 	public void setIncrementalBuildEnable(boolean enabled) throws CoreException {
 		incrementalBuildEnabled = Boolean.valueOf(enabled);
+		if(!isExtensionBuilder)
+			setDirty(true);
 	}
 
 	public void setIncrementalBuildTarget(String target) throws CoreException {
 		incrementalBuildTarget = target;
+		if(!isExtensionBuilder)
+			setDirty(true);
 	}
 
 	public boolean appendEnvironment() {
@@ -2180,6 +2198,8 @@ public class Builder extends HoldsOptions implements IBuilder, IMatchKeyProvider
 
 	public void setAppendEnvironment(boolean append) throws CoreException {
 		appendEnvironment = Boolean.valueOf(append);
+		if(!isExtensionBuilder)
+			setDirty(true);
 	}
 
 	public void setBuildAttribute(String name, String value)
@@ -2241,6 +2261,8 @@ public class Builder extends HoldsOptions implements IBuilder, IMatchKeyProvider
 		} else {
 			getCustomBuildPropertiesMap().put(name, value);
 		}
+		if(!isExtensionBuilder)
+			setDirty(true);
 	}
 	
 	private Map<String, String> getCustomBuildPropertiesMap(){
@@ -2252,6 +2274,8 @@ public class Builder extends HoldsOptions implements IBuilder, IMatchKeyProvider
 
 	public void setEnvironment(Map<String, String> env) throws CoreException {
 		customizedEnvironment = new HashMap<String, String>(env);
+		if(!isExtensionBuilder)
+			setDirty(true);
 	}
 
 	public boolean isCustomBuilder() {
@@ -2292,6 +2316,8 @@ public class Builder extends HoldsOptions implements IBuilder, IMatchKeyProvider
 
 	public void setManagedBuildOn(boolean on) throws CoreException {
 		managedBuildOn = Boolean.valueOf(on);
+		if(!isExtensionBuilder)
+			setDirty(true);
 	}
 
 	public boolean canKeepEnvironmentVariablesInBuildfile() {
@@ -2309,6 +2335,8 @@ public class Builder extends HoldsOptions implements IBuilder, IMatchKeyProvider
 
 	public void setKeepEnvironmentVariablesInBuildfile(boolean keep) {
 		keepEnvVarInBuildfile = Boolean.valueOf(keep);
+		if(!isExtensionBuilder)
+			setDirty(true);
 	}
 
 	public boolean supportsCustomizedBuild() {
@@ -2491,6 +2519,8 @@ public class Builder extends HoldsOptions implements IBuilder, IMatchKeyProvider
 
 	public void resetErrorParsers(){
 		errorParserIds = null;
+		if(!isExtensionBuilder)
+			setDirty(true);
 	}
 	
 	void removeErrorParsers(Set<String> set){
@@ -2514,6 +2544,8 @@ public class Builder extends HoldsOptions implements IBuilder, IMatchKeyProvider
 			}
 			errorParserIds = buf.toString();
 		}
+		if(!isExtensionBuilder)
+			setDirty(true);
 	}
 	
 	public boolean isSystemObject() {
@@ -2589,6 +2621,8 @@ public class Builder extends HoldsOptions implements IBuilder, IMatchKeyProvider
 			outputEntries = entries.clone();
 		else
 			outputEntries = null;
+		if(!isExtensionBuilder)
+			setDirty(true);
 	}
 	
 	private int getSuperClassNum(){
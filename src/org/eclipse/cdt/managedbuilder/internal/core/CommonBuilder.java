@@ -45,9 +45,12 @@ import org.eclipse.cdt.managedbuilder.core.IManagedBuildInfo;
 import org.eclipse.cdt.managedbuilder.core.IManagedProject;
 import org.eclipse.cdt.managedbuilder.core.ManagedBuildManager;
 import org.eclipse.cdt.managedbuilder.core.ManagedBuilderCorePlugin;
+import org.eclipse.cdt.managedbuilder.internal.buildmodel.BuildDescriptionCompilationDatabaseGenerator;
 import org.eclipse.cdt.managedbuilder.internal.buildmodel.BuildStateManager;
 import org.eclipse.cdt.managedbuilder.internal.buildmodel.IConfigurationBuildState;
 import org.eclipse.cdt.managedbuilder.internal.buildmodel.IProjectBuildState;
+import org.eclipse.cdt.managedbuilder.internal.envvar.EnvironmentVariableProvider;
+import org.eclipse.cdt.managedbuilder.internal.macros.BuildMacroProvider;
 import org.eclipse.cdt.managedbuilder.macros.BuildMacroException;
 import org.eclipse.cdt.managedbuilder.macros.IBuildMacroProvider;
 import org.eclipse.cdt.managedbuilder.makegen.IManagedBuilderMakefileGenerator;
@@ -541,6 +544,8 @@ public class CommonBuilder extends ACBuilder {
 		private boolean fBuild = true;
 		private final List<String> fConsoleMessages = new ArrayList<String>();
 		private IManagedBuilderMakefileGenerator fMakeGen;
+		private IBuildDescription fBuildDescription;
+		private boolean fBuildDescriptionForDelta;
 
 		public BuildStatus(IBuilder builder) {
 			fManagedBuildOn = builder.isManagedBuildOn();
@@ -577,6 +582,26 @@ public class CommonBuilder extends ACBuilder {
 		public void setMakeGen(IManagedBuilderMakefileGenerator makeGen) {
 			fMakeGen = makeGen;
 		}
+
+		/**
+		 * @return the build description calculated to clean the resources to be rebuilt,
+		 * or <code>null</code>
+		 */
+		public IBuildDescription getBuildDescription() {
+			return fBuildDescription;
+		}
+
+		/**
+		 * @return whether the build description was calculated for the resource delta
+		 */
+		public boolean isBuildDescriptionForDelta() {
+			return fBuildDescriptionForDelta;
+		}
+
+		public void setBuildDescription(IBuildDescription des, boolean forDelta) {
+			fBuildDescription = des;
+			fBuildDescriptionForDelta = forDelta;
+		}
 	}
 
 	/**
@@ -597,6 +622,11 @@ public class CommonBuilder extends ACBuilder {
 	/** Invokes a builder if the builder needs to be run */
 	private void build(int kind, CfgBuildInfo bInfo, IProgressMonitor monitor) throws CoreException{
 		outputTrace(bInfo.getProject().getName(), "building cfg " + bInfo.getConfiguration().getName() + " with builder " + bInfo.getBuilder().getName()); //$NON-NLS-1$ //$NON-NLS-2$
+		// pick up environment changes made since the last build, the macro values and
+		// the cached tool command flags may depend on them
+		NotificationManager.getInstance().buildSettingsChanged();
+		EnvironmentVariableProvider.getDefault().invalidateSnapshots();
+		BuildMacroProvider.getDefault().invalidateResolutionCache();
 		IBuilder builder = bInfo.getBuilder();
 		BuildStatus status = new BuildStatus(builder);
 
@@ -768,6 +798,7 @@ public class CommonBuilder extends ACBuilder {
 					des = BuildDescriptionManager.createBuildDescription(cfg, getDelta(curProject), flags);
 
 					BuildDescriptionManager.cleanGeneratedRebuildResources(des);
+					status.setBuildDescription(des, delta != null);
 				} catch (Throwable e){
 					//TODO: log error
 					outputError(curProject.getName(), "error occured while build description calculation: " + e.getLocalizedMessage());	//$NON-NLS-1$
@@ -812,9 +843,30 @@ public class CommonBuilder extends ACBuilder {
 			result = generator.generateMakefiles(getDelta(curProject));
 		}
 
+		if(result.getSeverity() != IStatus.ERROR && BuildDescriptionCompilationDatabaseGenerator.isEnabled(bInfo.getBuilder()))
+			generateCompilationDatabase(bInfo, buildStatus);
+
 		return result;
 	}
 
+	/**
+	 * Updates the compilation database of the configuration from the build description
+	 * calculated for the cleaning, only re-resolving the commands of the steps affected
+	 * by the delta on incremental builds. A description is only created here if none was
+	 * calculated for the cleaning.
+	 */
+	private void generateCompilationDatabase(CfgBuildInfo bInfo, BuildStatus buildStatus){
+		IBuildDescription des = buildStatus.getBuildDescription();
+		boolean incremental = des != null && buildStatus.isBuildDescriptionForDelta() && !buildStatus.isRebuild();
+		try {
+			if(des == null)
+				des = BuildDescriptionManager.createBuildDescription(bInfo.getConfiguration(), null, 0);
+			new BuildDescriptionCompilationDatabaseGenerator(des).update(incremental);
+		} catch (CoreException e) {
+			ManagedBuilderCorePlugin.log(e);
+		}
+	}
+
 	private void initializeGenerator(IManagedBuilderMakefileGenerator generator, int kind, CfgBuildInfo bInfo, IProgressMonitor monitor){
 		if(generator instanceof IManagedBuilderMakefileGenerator2){
 			IManagedBuilderMakefileGenerator2 gen2 = (IManagedBuilderMakefileGenerator2)generator;
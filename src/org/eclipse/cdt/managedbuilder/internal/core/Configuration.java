@@ -43,6 +43,7 @@ import org.eclipse.cdt.core.settings.model.ICStorageElement;
 import org.eclipse.cdt.core.settings.model.extension.CBuildData;
 import org.eclipse.cdt.core.settings.model.extension.CConfigurationData;
 import org.eclipse.cdt.core.settings.model.util.CDataUtil;
+import org.eclipse.cdt.core.settings.model.util.IPathSettingsContainerVisitor;
 import org.eclipse.cdt.core.settings.model.util.LanguageSettingEntriesSerializer;
 import org.eclipse.cdt.core.settings.model.util.PathSettingsContainer;
 import org.eclipse.cdt.internal.core.SafeStringInterner;
@@ -124,6 +125,9 @@ public class Configuration extends BuildObject implements IConfiguration, IBuild
 
 	private PathSettingsContainer pathSettings = PathSettingsContainer.createRootContainer();
 	private ResourceInfoContainer rcInfos = new ResourceInfoContainer(pathSettings, true);
+	// lookup trie of the resource infos, rebuilt once the resource info paths change
+	private volatile ResourcePathTrie<IResourceInfo> rcInfoTrie;
+	private volatile int rcInfoStamp;
 	private BooleanExpressionApplicabilityCalculator booleanExpressionCalculator;
 
 	private FolderInfo rootFolderInfo;
@@ -389,6 +393,22 @@ public class Configuration extends BuildObject implements IConfiguration, IBuild
 	 * 
 	 */
 	public Configuration(ManagedProject managedProject, ICStorageElement element, String managedBuildRevision, boolean isPreference) {
+		this(managedProject, element, managedBuildRevision, isPreference, true);
+	}
+
+	/**
+	 * Create a <code>Configuration</code> based on the specification stored in the 
+	 * project file.
+	 * 
+	 * @param managedProject The <code>ManagedProject</code> the configuration belongs to. 
+	 * @param element The XML element that contains the configuration settings.
+	 * @param hookUp whether the configuration is added to the managed project. A configuration
+	 * constructed on a worker thread is added by the loading thread, see
+	 * {@link ManagedProject#addConfiguration(Configuration)}.
+	 * 
+	 * @since 8.0
+	 */
+	public Configuration(ManagedProject managedProject, ICStorageElement element, String managedBuildRevision, boolean isPreference, boolean hookUp) {
 		this.managedProject = managedProject;
 		this.isPreferenceConfig = isPreference;
 		isExtensionConfig = false;
@@ -400,7 +420,7 @@ public class Configuration extends BuildObject implements IConfiguration, IBuild
 		loadFromProject(element);
 
 		// Hook me up
-		if(managedProject != null)
+		if(managedProject != null && hookUp)
 			managedProject.addConfiguration(this);
 
 		ICStorageElement configElements[] = element.getChildren();
@@ -898,6 +918,80 @@ public class Configuration extends BuildObject implements IConfiguration, IBuild
 	 * Persist this configuration to project file.
 	 */
 	public void serialize(ICStorageElement element) {
+		serializeAttributes(element);
+
+		// Serialize my children
+		IResourceInfo infos[] = rcInfos.getResourceInfos();
+		for(int i = 0; i < infos.length; i++){
+			ICStorageElement resElement = element.createChild(getResourceInfoElementName(infos[i]));
+			((ResourceInfo)infos[i]).serialize(resElement);
+		}
+
+		serializeTrailer(element, infos);
+	}
+
+	/**
+	 * Persist the changes of this configuration to the element it was last serialized to.
+	 * <p>
+	 * The element must hold the serialization of this configuration as it was written by
+	 * {@link #serialize(ICStorageElement)} or by this method. Only the dirty resource infos
+	 * are serialized again, the elements of the clean resource infos are kept. The resulting
+	 * element is the same as the one written by {@link #serialize(ICStorageElement)}.
+	 * <p>
+	 * Storage elements can only be appended to, so the elements of the clean resource infos
+	 * preceding the first changed one are kept in place, the clean elements following it are
+	 * re-attached in order by copying the elements instead of serializing the resource infos.
+	 */
+	public void serializeChanges(ICStorageElement element) {
+		for(String name : element.getAttributeNames())
+			element.removeAttribute(name);
+		serializeAttributes(element);
+
+		IResourceInfo infos[] = rcInfos.getResourceInfos();
+		ICStorageElement children[] = element.getChildren();
+		int kept = 0;
+		while(kept < infos.length && kept < children.length
+				&& isSerializedTo((ResourceInfo)infos[kept], children[kept]))
+			kept++;
+
+		Map<String, ICStorageElement> detached = new HashMap<String, ICStorageElement>();
+		for(int i = kept; i < children.length; i++){
+			String childId = children[i].getAttribute(IConfiguration.ID);
+			if(childId != null)
+				detached.put(childId, children[i]);
+			element.removeChild(children[i]);
+		}
+
+		for(int i = kept; i < infos.length; i++){
+			ResourceInfo info = (ResourceInfo)infos[i];
+			ICStorageElement child = detached.get(info.getId());
+			if(child != null && isSerializedTo(info, child)){
+				element.importChild(child);
+			} else {
+				ICStorageElement resElement = element.createChild(getResourceInfoElementName(info));
+				info.serialize(resElement);
+			}
+		}
+
+		serializeTrailer(element, infos);
+	}
+
+	private static String getResourceInfoElementName(IResourceInfo info){
+		return info.getKind() == ICSettingBase.SETTING_FILE ? IFileInfo.FILE_INFO_ELEMENT_NAME :
+			IFolderInfo.FOLDER_INFO_ELEMENT_NAME;
+	}
+
+	/**
+	 * @return whether the element holds the current serialization of the resource info
+	 */
+	private static boolean isSerializedTo(ResourceInfo info, ICStorageElement element){
+		return info.isSerialized
+			&& getResourceInfoElementName(info).equals(element.getName())
+			&& info.getId().equals(element.getAttribute(IConfiguration.ID))
+			&& !info.isDirty();
+	}
+
+	private void serializeAttributes(ICStorageElement element) {
 		element.setAttribute(IConfiguration.ID, id);
 		
 		if (name != null)
@@ -942,17 +1036,9 @@ public class Configuration extends BuildObject implements IConfiguration, IBuild
 
 		if (postannouncebuildStep != null)
 			element.setAttribute(POSTANNOUNCEBUILD_STEP, postannouncebuildStep);
+	}
 
-		// Serialize my children
-		IResourceInfo infos[] = rcInfos.getResourceInfos();
-		for(int i = 0; i < infos.length; i++){
-			String elementName = infos[i].getKind() == ICSettingBase.SETTING_FILE ? IFileInfo.FILE_INFO_ELEMENT_NAME :
-				IFolderInfo.FOLDER_INFO_ELEMENT_NAME;
-			
-			ICStorageElement resElement = element.createChild(elementName);
-			((ResourceInfo)infos[i]).serialize(resElement);
-		}
-
+	private void serializeTrailer(ICStorageElement element, IResourceInfo infos[]) {
 		PropertyManager.getInstance().serialize(this);
 		
 		if(sourceEntries != null && sourceEntries.length > 0){
@@ -961,6 +1047,8 @@ public class Configuration extends BuildObject implements IConfiguration, IBuild
 		}
 		// I am clean now
 		setDirty(false);
+		for(int i = 0; i < infos.length; i++)
+			((ResourceInfo)infos[i]).isSerialized = true;
 	}
 
 	/*
@@ -1149,6 +1237,7 @@ public class Configuration extends BuildObject implements IConfiguration, IBuild
 		if(resConfig.getPath().segmentCount() == 0)
 			rootFolderInfo = (FolderInfo)resConfig;
 		rcInfos.addResourceInfo(resConfig);
+		resourceInfosChanged();
 		isDirty = true;
 //		rebuildNeeded = true;
 	}
@@ -1158,6 +1247,7 @@ public class Configuration extends BuildObject implements IConfiguration, IBuild
  					IManagedOptionValueHandler.EVENT_CLOSE);
 		ITool tools[] = resConfig.getTools();
 		rcInfos.removeResourceInfo(resConfig.getPath());
+		resourceInfosChanged();
 		((ResourceInfo)resConfig).removed();
 		BuildSettingsUtil.disconnectDepentents(this, tools);
 		isDirty = true;
@@ -1434,6 +1524,8 @@ public class Configuration extends BuildObject implements IConfiguration, IBuild
 			artifactExtension = extension;
 //			rebuildNeeded = true;
 			if(!isExtensionElement()){
+				// the artifact macros may be referenced by the option values
+				NotificationManager.getInstance().buildSettingsChanged();
 				ITool tool = calculateTargetTool();
 				if(tool != null){
 					tool.setRebuildState(true);
@@ -1474,6 +1566,8 @@ public class Configuration extends BuildObject implements IConfiguration, IBuild
 
 			artifactName = name;
 			if(!isExtensionElement()){
+				// the artifact macros may be referenced by the option values
+				NotificationManager.getInstance().buildSettingsChanged();
 				ITool tool = calculateTargetTool();
 				if(tool != null) {
 					tool.setRebuildState(true);
@@ -2251,7 +2345,34 @@ public class Configuration extends BuildObject implements IConfiguration, IBuild
 	}
 
 	public IResourceInfo getResourceInfo(IPath path, boolean exactPath) {
-		return rcInfos.getResourceInfo(path, exactPath);
+		ResourcePathTrie<IResourceInfo> trie = rcInfoTrie;
+		if(trie == null || trie.getStamp() != rcInfoStamp)
+			trie = buildResourceInfoTrie();
+		return exactPath ? trie.get(path) : trie.getNearest(path);
+	}
+
+	/**
+	 * Builds the lookup trie mirroring the resource info containers, a container
+	 * without a resource info is present in the trie with a <code>null</code> value.
+	 */
+	private ResourcePathTrie<IResourceInfo> buildResourceInfoTrie(){
+		final ResourcePathTrie<IResourceInfo> trie = new ResourcePathTrie<IResourceInfo>(rcInfoStamp);
+		pathSettings.accept(new IPathSettingsContainerVisitor(){
+			public boolean visit(PathSettingsContainer container) {
+				trie.put(container.getPath(), (IResourceInfo)container.getValue());
+				return true;
+			}
+		});
+		rcInfoTrie = trie;
+		return trie;
+	}
+
+	/**
+	 * Called once the paths of the resource infos change.
+	 */
+	void resourceInfosChanged(){
+		rcInfoStamp++;
+		rcInfoTrie = null;
 	}
 
 	public IResourceInfo getResourceInfoById(String id) {
@@ -2269,6 +2390,7 @@ public class Configuration extends BuildObject implements IConfiguration, IBuild
 	
 	ResourceInfoContainer getRcInfoContainer(IResourceInfo rcInfo){
 		PathSettingsContainer cr = pathSettings.getChildContainer(rcInfo.getPath(), true, true);
+		resourceInfosChanged();
 		return new ResourceInfoContainer(cr, false);
 	}
 	
@@ -2471,6 +2593,8 @@ public class Configuration extends BuildObject implements IConfiguration, IBuild
 		if(isExtensionConfig)
 			return;
 		
+		NotificationManager.getInstance().buildSettingsChanged();
+
 		BooleanExpressionApplicabilityCalculator calculator = getBooleanExpressionCalculator();
 		if(calculator != null)
 			calculator.adjustConfiguration(this, false);
@@ -0,0 +1,101 @@
+/*******************************************************************************
+ * Copyright (c) 2011 Broadcom Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Broadcom Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.cdt.managedbuilder.internal.core;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.cdt.managedbuilder.core.IHoldsOptions;
+import org.eclipse.cdt.managedbuilder.core.IOption;
+
+/**
+ * The memoized results of the enablement expressions evaluated within a resource info,
+ * see {@link BooleanExpressionApplicabilityCalculator#evaluate(org.eclipse.cdt.managedbuilder.core.IResourceInfo, IHoldsOptions, IOption, int)}.
+ * <p>
+ * A result is valid for the {@link NotificationManager} modification count it was computed
+ * or last validated for. Once the count changes, the result is validated again by comparing
+ * the inputs of the expressions it was computed from with their current values.
+ * <p>
+ * The results are dropped when the tools of the resource info change, the least recently
+ * used results are evicted once the limit is reached, so that the holders and options
+ * replaced e.g. by a tool-chain modification do not stay reachable.
+ */
+final class EnablementResultCache {
+	private static final int LIMIT = 1024;
+
+	private final Map<Key, Result> fResults = new LinkedHashMap<Key, Result>(16, 0.75f, true){
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Key, Result> eldest) {
+			return size() > LIMIT;
+		}
+	};
+
+	private static final class Key {
+		private final Object fCalculator;
+		private final IHoldsOptions fHolder;
+		private final IOption fOption;
+		private final int fFlags;
+
+		Key(Object calculator, IHoldsOptions holder, IOption option, int flags){
+			fCalculator = calculator;
+			fHolder = holder;
+			fOption = option;
+			fFlags = flags;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(obj == this)
+				return true;
+			if(!(obj instanceof Key))
+				return false;
+			Key other = (Key)obj;
+			return fCalculator == other.fCalculator
+				&& fHolder == other.fHolder
+				&& fOption == other.fOption
+				&& fFlags == other.fFlags;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = System.identityHashCode(fCalculator);
+			hash = hash * 31 + System.identityHashCode(fHolder);
+			hash = hash * 31 + System.identityHashCode(fOption);
+			return hash * 31 + fFlags;
+		}
+	}
+
+	static final class Result {
+		final boolean fValue;
+		final Object fInputs[];
+		int fModificationCount;
+
+		Result(boolean value, Object inputs[], int modificationCount){
+			fValue = value;
+			fInputs = inputs;
+			fModificationCount = modificationCount;
+		}
+	}
+
+	synchronized Result get(Object calculator, IHoldsOptions holder, IOption option, int flags){
+		return fResults.get(new Key(calculator, holder, option, flags));
+	}
+
+	synchronized void put(Object calculator, IHoldsOptions holder, IOption option, int flags, Result result){
+		fResults.put(new Key(calculator, holder, option, flags), result);
+	}
+
+	synchronized void clear(){
+		fResults.clear();
+	}
+}
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2011 Broadcom Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Broadcom Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.cdt.managedbuilder.internal.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable index of the extension tool-chains, tools, builders or configurations.
+ * <p>
+ * The index is built once the extension elements are resolved and holds the elements,
+ * the real elements, and the elements grouped by their direct super-class. The queries
+ * return the shared arrays and unmodifiable lists of the index, they do not allocate.
+ * The arrays returned must not be modified.
+ *
+ * @since 8.0
+ */
+public final class ExtensionElementIndex<T extends IRealBuildObjectAssociation> {
+	private final T fElements[];
+	private final T fRealElements[];
+	private final Map<IRealBuildObjectAssociation, Boolean> fRealElementMap = new IdentityHashMap<IRealBuildObjectAssociation, Boolean>();
+	private final Map<IRealBuildObjectAssociation, List<T>> fBySuperClass = new IdentityHashMap<IRealBuildObjectAssociation, List<T>>();
+
+	/**
+	 * @param elements the extension elements
+	 * @param realElements the real elements, see {@link IRealBuildObjectAssociation#isRealBuildObject()}
+	 */
+	public ExtensionElementIndex(T elements[], T realElements[]){
+		fElements = elements;
+		fRealElements = realElements;
+		for(T element : realElements)
+			fRealElementMap.put(element, Boolean.TRUE);
+
+		for(T element : elements){
+			IRealBuildObjectAssociation superClass = element.getSuperClassObject();
+			if(superClass == null)
+				continue;
+			List<T> list = fBySuperClass.get(superClass);
+			if(list == null){
+				list = new ArrayList<T>(1);
+				fBySuperClass.put(superClass, list);
+			}
+			list.add(element);
+		}
+		for(Map.Entry<IRealBuildObjectAssociation, List<T>> entry : fBySuperClass.entrySet())
+			entry.setValue(Collections.unmodifiableList(entry.getValue()));
+	}
+
+	/**
+	 * @return the extension elements, the array must not be modified
+	 */
+	public T[] getElements(){
+		return fElements;
+	}
+
+	/**
+	 * @return the real extension elements, the array must not be modified
+	 */
+	public T[] getRealElements(){
+		return fRealElements;
+	}
+
+	/**
+	 * @return whether the element is one of the real extension elements
+	 */
+	public boolean isRealElement(IRealBuildObjectAssociation element){
+		return fRealElementMap.containsKey(element);
+	}
+
+	/**
+	 * @return the elements whose direct super-class is the given element
+	 */
+	public List<T> getSubClasses(IRealBuildObjectAssociation superClass){
+		List<T> list = fBySuperClass.get(superClass);
+		if(list != null)
+			return list;
+		return Collections.emptyList();
+	}
+}
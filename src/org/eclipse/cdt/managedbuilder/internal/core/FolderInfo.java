@@ -707,6 +707,7 @@ public class FolderInfo extends ResourceInfo implements IFolderInfo {
 				updateToolChainWithProperties(usePrefTc ? null : newSuperClass, Id, name);
 			}
 			BuildSettingsUtil.disconnectDepentents(getParent(), oldTools);
+			setDirty(true);
 		}
 		return toolChain;
 	}
@@ -826,6 +827,7 @@ public class FolderInfo extends ResourceInfo implements IFolderInfo {
 		tch.copyNonoverriddenSettings(toolChain);
 		toolChain = tch;
 		tch.updateParentFolderInfo(this);
+		setDirty(true);
 	}
 
 	private ConverterInfo getToolChainConverterInfo(ToolChain fromTc, IToolChain toTc){
@@ -1369,10 +1371,11 @@ public class FolderInfo extends ResourceInfo implements IFolderInfo {
 		}
 
 		toolChain.setToolsInternal(resultingTools);
-
+		clearEnablementResults();
 
 		adjustTargetTools(removedTools, info.getAddedTools(true));
 
+		setDirty(true);
 		setRebuildState(true);
 	}
 
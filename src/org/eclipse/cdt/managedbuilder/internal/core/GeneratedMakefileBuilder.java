@@ -46,6 +46,9 @@ import org.eclipse.cdt.managedbuilder.internal.buildmodel.DescriptionBuilder;
 import org.eclipse.cdt.managedbuilder.internal.buildmodel.IBuildModelBuilder;
 import org.eclipse.cdt.managedbuilder.internal.buildmodel.ParallelBuilder;
 import org.eclipse.cdt.managedbuilder.internal.buildmodel.StepBuilder;
+import org.eclipse.cdt.managedbuilder.internal.envvar.EnvironmentSnapshot;
+import org.eclipse.cdt.managedbuilder.internal.envvar.EnvironmentVariableProvider;
+import org.eclipse.cdt.managedbuilder.internal.macros.BuildMacroProvider;
 import org.eclipse.cdt.managedbuilder.macros.BuildMacroException;
 import org.eclipse.cdt.managedbuilder.macros.IBuildMacroProvider;
 import org.eclipse.cdt.managedbuilder.makegen.IManagedBuilderMakefileGenerator;
@@ -408,6 +411,12 @@ public class GeneratedMakefileBuilder extends ACBuilder {
 			outputError(getProject().getName(), "Build information was not found");	//$NON-NLS-1$
 			return referencedProjects;
 		}
+
+		// pick up environment changes made since the last build, the macro values and
+		// the cached tool command flags may depend on them
+		NotificationManager.getInstance().buildSettingsChanged();
+		EnvironmentVariableProvider.getDefault().invalidateSnapshots();
+		BuildMacroProvider.getDefault().invalidateResolutionCache();
 		if (!info.isValid()) {
 			outputError(getProject().getName(), "Build information is not valid");	//$NON-NLS-1$
 			return referencedProjects;
@@ -953,14 +962,19 @@ public class GeneratedMakefileBuilder extends ACBuilder {
 				launcher.showCommand(true);
 	
 				// Set the environmennt
-				IBuildEnvironmentVariable variables[] = ManagedBuildManager.getEnvironmentVariableProvider().getVariables(cfg,true,true);
 				String[] env = null;
-				ArrayList<String> envList = new ArrayList<String>();
-				if (variables != null) {
-					for(int i = 0; i < variables.length; i++){
-						envList.add(variables[i].getName() + "=" + variables[i].getValue());	//$NON-NLS-1$
+				EnvironmentSnapshot snapshot = EnvironmentVariableProvider.getDefault().getSnapshot(cfg);
+				if (snapshot != null) {
+					env = snapshot.getEnvironmentStrings();
+				} else {
+					IBuildEnvironmentVariable variables[] = ManagedBuildManager.getEnvironmentVariableProvider().getVariables(cfg,true,true);
+					ArrayList<String> envList = new ArrayList<String>();
+					if (variables != null) {
+						for(int i = 0; i < variables.length; i++){
+							envList.add(variables[i].getName() + "=" + variables[i].getValue());	//$NON-NLS-1$
+						}
+						env = envList.toArray(new String[envList.size()]);
 					}
-					env = envList.toArray(new String[envList.size()]);
 				}
 			
 				// Hook up an error parser manager
@@ -53,6 +53,7 @@ public class HeadlessBuildMessages extends NLS {
 	public static String HeadlessBuilder_usage;
 	public static String HeadlessBuilder_usage_build;
 	public static String HeadlessBuilder_usage_clean_build;
+	public static String HeadlessBuilder_usage_convert;
 	public static String HeadlessBuilder_invalid_uri;
 	public static String HeadlessBuilder_PreprocessorDefine;
 	public static String HeadlessBuilder_usage_import;
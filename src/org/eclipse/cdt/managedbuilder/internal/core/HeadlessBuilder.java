@@ -47,6 +47,7 @@ import org.eclipse.cdt.managedbuilder.core.IOption;
 import org.eclipse.cdt.managedbuilder.core.ITool;
 import org.eclipse.cdt.managedbuilder.core.ManagedBuildManager;
 import org.eclipse.cdt.managedbuilder.core.ManagedBuilderCorePlugin;
+import org.eclipse.cdt.managedbuilder.projectconverter.UpdateManagedProjectManager;
 import org.eclipse.core.filesystem.EFS;
 import org.eclipse.core.filesystem.IFileStore;
 import org.eclipse.core.filesystem.URIUtil;
@@ -63,6 +64,7 @@ import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.Path;
 import org.eclipse.core.runtime.Platform;
@@ -72,6 +74,7 @@ import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.equinox.app.IApplication;
 import org.eclipse.equinox.app.IApplicationContext;
 import org.eclipse.osgi.service.datalocation.Location;
+import org.eclipse.ui.dialogs.IOverwriteQuery;
 
 /**
  * A headless builder for CDT with additional features.
@@ -80,6 +83,7 @@ import org.eclipse.osgi.service.datalocation.Location;
  * Provides:
  *   - Import projects :                       -import     {[uri:/]/path/to/project}
  *   - Import all projects in the tree :       -importAll  {[uri:/]/path/to/projectTreeURI}
+ *   - Convert legacy managed projects :       -convert
  *   - Build projects / the workspace :        -build      {project_name_reg_ex/config_name_reg_ex | all}
  *   - Clean build projects / the workspace :  -cleanBuild {project_name_reg_ex/config_name_reg_ex | all}
  *   - Add Include path to build :             -I          {include_path}
@@ -172,6 +176,8 @@ public class HeadlessBuilder implements IApplication {
 	private final Set<String> projectRegExToClean = new HashSet<String>();
 	private boolean buildAll = false;
 	private boolean cleanAll = false;
+	/** Whether the legacy managed build projects of the workspace are converted */
+	private boolean convertAll = false;
 
 	/** List of Tool Option values being set */
 	private List<ToolOption> toolOptions = new ArrayList<ToolOption>();
@@ -438,10 +444,31 @@ public class HeadlessBuilder implements IApplication {
 					return status;
 			}
 
+			IProject[] allProjects = root.getProjects();
+
+			// Convert the legacy managed build projects, the projects are converted concurrently
+			if (convertAll) {
+				IOverwriteQuery convertQuery = new IOverwriteQuery() {
+					public String queryOverwrite(String pathString) {
+						return ALL;
+					}
+				};
+				UpdateManagedProjectManager.setUpdateProjectQuery(convertQuery);
+				UpdateManagedProjectManager.setBackupFileOverwriteQuery(convertQuery);
+				IStatus status = UpdateManagedProjectManager.updateProjects(allProjects, monitor);
+				for (IStatus projectStatus : status.getChildren()) {
+					if (projectStatus.isOK())
+						System.out.println(projectStatus.getMessage());
+					else
+						System.err.println(HeadlessBuildMessages.HeadlessBuilder_Error + projectStatus.getMessage());
+				}
+				if (!status.isOK())
+					buildSuccessful = false;
+			}
+
 			// Hook in our external settings to the build
 			HeadlessBuilderExternalSettingsProvider.hookExternalSettingsProvider();
 
-			IProject[] allProjects = root.getProjects();
 			// Map from Project -> Configurations to build. We also Build all projects which are clean'd
 			Map<IProject, Set<ICConfigurationDescription>> configsToBuild = new HashMap<IProject, Set<ICConfigurationDescription>>();
 
@@ -571,6 +598,7 @@ public class HeadlessBuilder implements IApplication {
 	 * Arguments
 	 *   -import     {[uri:/]/path/to/project}
 	 *   -importAll  {[uri:/]/path/to/projectTreeURI} Import all projects in the tree
+	 *   -convert    convert the legacy managed build projects of the workspace
 	 *   -build      {project_name_reg_ex/config_name_reg_ex | all}
 	 *   -cleanBuild {project_name_reg_ex/config_name_reg_ex | all}
 	 *   -I          {include_path} additional include_path to add to tools
@@ -598,6 +626,8 @@ public class HeadlessBuilder implements IApplication {
 					projectsToImport.add(args[++i]);
 				} else if ("-importAll".equals(args[i])) { //$NON-NLS-1$
 					projectTreeToImport.add(args[++i]);
+				} else if ("-convert".equals(args[i])) { //$NON-NLS-1$
+					convertAll = true;
 				} else if ("-build".equals(args[i])) { //$NON-NLS-1$
 					projectRegExToBuild.add(args[++i]);
 				} else if ("-cleanBuild".equals(args[i])) { //$NON-NLS-1$
@@ -649,6 +679,7 @@ public class HeadlessBuilder implements IApplication {
 			System.err.println(HeadlessBuildMessages.HeadlessBuilder_usage);
 			System.err.println(HeadlessBuildMessages.HeadlessBuilder_usage_import);
 			System.err.println(HeadlessBuildMessages.HeadlessBuilder_importAll);
+			System.err.println(HeadlessBuildMessages.HeadlessBuilder_usage_convert);
 			System.err.println(HeadlessBuildMessages.HeadlessBuilder_usage_build);
 			System.err.println(HeadlessBuildMessages.HeadlessBuilder_usage_clean_build);
 			System.err.println(HeadlessBuildMessages.HeadlessBuilder_InlucdePath);
@@ -19,6 +19,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Vector;
+import java.util.WeakHashMap;
 
 import org.eclipse.cdt.core.settings.model.ICStorageElement;
 import org.eclipse.cdt.managedbuilder.buildproperties.IBuildPropertyType;
@@ -66,6 +67,16 @@ public abstract class HoldsOptions extends BuildObject implements IHoldsOptions,
 	private Map<String, IOptionCategory> categoryMap;
 	private List<IOptionCategory> childOptionCategories;
 	private Map<String, Option> optionMap;
+	private OptionTable optionTable;
+	/** incremented whenever an option is added or removed */
+	private int optionsStamp;
+	/** holder whose options are yet to be copied to this holder, see copyChildren() */
+	private HoldsOptions copySource;
+	private boolean copySourceIds;
+	/** whether the options of the copy source are being cloned into this holder */
+	private boolean materializing;
+	/** holders that are yet to copy the options of this holder */
+	private Map<HoldsOptions, Boolean> pendingCopies;
 	//  Miscellaneous
 	private boolean isDirty = false;
 	private boolean rebuildState;
@@ -87,6 +98,10 @@ public abstract class HoldsOptions extends BuildObject implements IHoldsOptions,
 	/**
 	 * Copies children of <code>HoldsOptions</code>. Helper function for
 	 * derived constructors.
+	 * <p>
+	 * The options are copied lazily: they are cloned on the first access to the
+	 * options of this holder, or before the first change to the options of the source,
+	 * whichever comes first. Until then the holder shares the options of the source.
 	 * 
 	 * @param source The children of the source will be cloned and added 
 	 *               to the class itself.
@@ -97,7 +112,70 @@ public abstract class HoldsOptions extends BuildObject implements IHoldsOptions,
 		//        found on an non-extension tools
 		
 		boolean copyIds = id.equals(source.id);
-		if (source.optionMap != null) {
+		if (source.hasOptions()) {
+			synchronized (this) {
+				copySource = source;
+				copySourceIds = copyIds;
+			}
+			source.addPendingCopy(this);
+		}
+		
+		if(copyIds){
+			isDirty = source.isDirty;
+			rebuildState = source.rebuildState;
+		}
+	}
+
+	/**
+	 * @return whether the holder has options of its own
+	 */
+	private boolean hasOptions() {
+		return copySource != null ? copySource.hasOptions() : optionMap != null;
+	}
+
+	private synchronized void addPendingCopy(HoldsOptions copy) {
+		if (pendingCopies == null)
+			pendingCopies = new WeakHashMap<HoldsOptions, Boolean>();
+		pendingCopies.put(copy, Boolean.TRUE);
+	}
+
+	private synchronized void removePendingCopy(HoldsOptions copy) {
+		if (pendingCopies != null) {
+			pendingCopies.remove(copy);
+			if (pendingCopies.isEmpty())
+				pendingCopies = null;
+		}
+	}
+
+	/**
+	 * Completes the copies of the options of this holder that are still shared with
+	 * other holders. Called before the options of this holder change.
+	 */
+	void materializeCopies() {
+		HoldsOptions copies[];
+		synchronized (this) {
+			// the options being cloned are not visible to the pending copies yet
+			if (pendingCopies == null || materializing)
+				return;
+			copies = pendingCopies.keySet().toArray(new HoldsOptions[pendingCopies.size()]);
+		}
+		for (HoldsOptions copy : copies) {
+			copy.materializeOptions();
+		}
+	}
+
+	/**
+	 * Clones the options of the holder this holder was copied from, if not done yet.
+	 */
+	private synchronized void materializeOptions() {
+		HoldsOptions source = copySource;
+		if (source == null)
+			return;
+		copySource = null;
+		boolean copyIds = copySourceIds;
+
+		materializing = true;
+		try {
 			for (Option option : source.getOptionCollection()) {
 				int nnn = ManagedBuildManager.getRandomNumber();
 				String subId;
@@ -110,17 +188,17 @@ public abstract class HoldsOptions extends BuildObject implements IHoldsOptions,
 					subName = option.getName();
 				}
 				Option newOption = new Option(this, subId, subName, option);
-				addOption(newOption);
+				getOptionMapInternal().put(newOption.getId(), newOption);
 			}
+		} finally {
+			materializing = false;
 		}
-		
-		if(copyIds){
-			isDirty = source.isDirty;
-			rebuildState = source.rebuildState;
-		}
+		optionsStamp++;
+		source.removePendingCopy(this);
 	}
 	
 	void copyNonoverriddenSettings(HoldsOptions ho){
+		ho.materializeOptions();
 		if (ho.optionMap == null || ho.optionMap.size() == 0)
 			return;
 		
@@ -215,11 +293,13 @@ public abstract class HoldsOptions extends BuildObject implements IHoldsOptions,
 	 * @see org.eclipse.cdt.managedbuilder.core.IHoldsOptions#createOption(IOption, String, String, boolean)
 	 */
 	public IOption createOption(IOption superClass, String Id, String name, boolean isExtensionElement) {
+		materializeCopies();
 		Option option = new Option(this, superClass, Id, name, isExtensionElement);
 		addOption(option);
 		if(!isExtensionElement){
 			setDirty(true);
 			setRebuildState(true);
+			NotificationManager.getInstance().buildSettingsChanged();
 		}
 		return option;
 	}
@@ -243,7 +323,9 @@ public abstract class HoldsOptions extends BuildObject implements IHoldsOptions,
 			return;
 //			throw new IllegalArgumentException();
 		
+		materializeCopies();
 		getOptionMap().remove(option.getId());
+		optionsStamp++;
 		setDirty(true);
 		setRebuildState(true);
 		
@@ -256,11 +338,50 @@ public abstract class HoldsOptions extends BuildObject implements IHoldsOptions,
 	 * @see org.eclipse.cdt.managedbuilder.core.IHoldsOptions#getOptions()
 	 */
 	public IOption[] getOptions() {
-		IOption[] options = null;
-		// Merge our options with our superclass' options.
-		if (superClass != null) {
-			options = superClass.getOptions();
+		OptionTable table = getOptionTable();
+		if (table != null)
+			return table.getOptions();
+		return computeOptions(superClass != null ? superClass.getOptions() : null);
+	}
+
+	/**
+	 * Returns the table of the effective options of the holder, the table is
+	 * rebuilt once the options of the holder or of its super-classes change.
+	 * 
+	 * @return the option table, or <code>null</code> while the holder
+	 * is not resolved yet
+	 * @since 8.0
+	 */
+	public OptionTable getOptionTable() {
+		if (!resolved)
+			return null;
+
+		materializeOptions();
+		IHoldsOptions superHolder = superClass;
+		OptionTable superTable = null;
+		if (superHolder != null) {
+			if (!(superHolder instanceof HoldsOptions))
+				return null;
+			superTable = ((HoldsOptions)superHolder).getOptionTable();
+			if (superTable == null)
+				return null;
+		}
+		int stamp = optionsStamp;
+
+		OptionTable table = optionTable;
+		if (table == null || !table.isValid(superHolder, superTable, stamp)) {
+			IOption options[] = computeOptions(superTable != null ? superTable.getOptions() : null);
+			table = new OptionTable(options, superHolder, superTable, stamp);
+			optionTable = table;
 		}
+		return table;
+	}
+
+	/**
+	 * Merges the options of the holder with the given options of the super-class,
+	 * the array passed is modified.
+	 */
+	private IOption[] computeOptions(IOption[] options) {
 		// Our options take precedence.
 		Collection<Option> ourOpts = getOptionCollection();
 		if (options != null) {
@@ -346,6 +467,12 @@ public abstract class HoldsOptions extends BuildObject implements IHoldsOptions,
 	public IOption getOptionBySuperClassId(String optionId) {
 		if (optionId == null) return null;
 		
+		OptionTable table = getOptionTable();
+		if (table != null) {
+			int index = table.indexOf(optionId);
+			return index != -1 ? table.getOption(index) : null;
+		}
+
 		//  Look for an option with this ID, or an option with a superclass with this id
 		IOption[] options = getOptions();
 		for (IOption targetOption : options) {
@@ -412,7 +539,9 @@ public abstract class HoldsOptions extends BuildObject implements IHoldsOptions,
 	}
 	
 	public void addOption(Option option) {
+		materializeCopies();
 		getOptionMap().put(option.getId(), option);
+		optionsStamp++;
 	}
 	/**
 	 * Memory-safe way to access the map of category IDs to categories
@@ -428,6 +557,7 @@ public abstract class HoldsOptions extends BuildObject implements IHoldsOptions,
 	 * Memory-safe way to access the list of options
 	 */
 	private Collection<Option> getOptionCollection() {
+		materializeOptions();
 		// no need to store all the options twice, get them out of the map
 		if(optionMap != null)
 			return optionMap.values();
@@ -438,6 +568,11 @@ public abstract class HoldsOptions extends BuildObject implements IHoldsOptions,
 	 * Memory-safe way to access the list of IDs to options
 	 */
 	private Map<String, Option> getOptionMap() {
+		materializeOptions();
+		return getOptionMapInternal();
+	}
+
+	private Map<String, Option> getOptionMapInternal() {
 		if (optionMap == null) {
 			optionMap = new LinkedHashMap<String, Option>();
 		}
@@ -737,6 +872,7 @@ public abstract class HoldsOptions extends BuildObject implements IHoldsOptions,
 		if(superClass == null)
 			return true;
 		
+		materializeOptions();
 		if(optionMap != null && optionMap.size() != 0){
 			for(Option option : getOptionCollection())
 				if(option.hasCustomSettings())
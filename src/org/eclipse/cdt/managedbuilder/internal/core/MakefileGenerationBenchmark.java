@@ -0,0 +1,507 @@
+/*******************************************************************************
+ * Copyright (c) 2011 Broadcom Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Broadcom Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.cdt.managedbuilder.internal.core;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.cdt.core.dom.IPDOMManager;
+import org.eclipse.cdt.managedbuilder.buildmodel.BuildDescriptionManager;
+import org.eclipse.cdt.managedbuilder.core.IBuilder;
+import org.eclipse.cdt.managedbuilder.core.IConfiguration;
+import org.eclipse.cdt.managedbuilder.core.IFileInfo;
+import org.eclipse.cdt.managedbuilder.core.IOption;
+import org.eclipse.cdt.managedbuilder.core.IProjectType;
+import org.eclipse.cdt.managedbuilder.core.ITool;
+import org.eclipse.cdt.managedbuilder.core.ManagedBuildManager;
+import org.eclipse.cdt.managedbuilder.internal.envvar.EnvironmentVariableProvider;
+import org.eclipse.cdt.managedbuilder.internal.macros.BuildMacroProvider;
+import org.eclipse.cdt.managedbuilder.makegen.IManagedBuilderMakefileGenerator;
+import org.eclipse.cdt.managedbuilder.makegen.IManagedBuilderMakefileGenerator2;
+import org.eclipse.cdt.managedbuilder.templateengine.ProjectCreatedActions;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.IWorkspace;
+import org.eclipse.core.resources.IWorkspaceDescription;
+import org.eclipse.core.resources.IncrementalProjectBuilder;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.equinox.app.IApplication;
+import org.eclipse.equinox.app.IApplicationContext;
+
+/**
+ * A headless benchmark of the makefile generation and of the build description calculation
+ * on synthetic projects.
+ *
+ * The application is not registered by this plug-in, so it does not ship with the product.
+ * A test or tools fragment registers it with the org.eclipse.core.runtime.applications
+ * extension point, e.g. as makegenBenchmark.
+ * Arguments:
+ *   -projectType {id}     project type to create the synthetic project from, may be specified more than once
+ *   -folders     {n}      number of source folders (default 10)
+ *   -sources     {n}      number of sources per folder (default 20)
+ *   -fileConfigs {n}      give every n-th source a resource configuration (default 0, none)
+ *   -iterations  {n}      number of measured runs of each phase (default 5)
+ *   -warmup      {n}      number of unmeasured runs of each phase (default 1)
+ *   -out         {file}   append the results to the file as comma separated values
+ *
+ * Every run starts with the caches reset the way a build resets them, see {@link #resetCaches()}.
+ * For each phase the minimum, median and mean time in microseconds is reported along with the bytes allocated
+ * by the benchmark thread per run and the allocation rate. The allocated bytes are only available
+ * on VMs implementing com.sun.management.ThreadMXBean and are reported as -1 otherwise.
+ *
+ * @since 8.0
+ */
+public class MakefileGenerationBenchmark implements IApplication {
+
+	/** Error return status */
+	public static final Integer ERROR = 1;
+	/** OK return status */
+	public static final Integer OK = IApplication.EXIT_OK;
+
+	private static final String PROJECT_PREFIX = "mbsBenchmark_"; //$NON-NLS-1$
+	private static final String FOLDER_PREFIX = "src"; //$NON-NLS-1$
+	private static final String SOURCE_PREFIX = "source"; //$NON-NLS-1$
+	private static final String HEADER_NAME = "common.h"; //$NON-NLS-1$
+	private static final String SYMBOL_PREFIX = "MBS_BENCHMARK_"; //$NON-NLS-1$
+	private static final String CSV_SEPARATOR = ","; //$NON-NLS-1$
+	/** Every n-th source is modified for the incremental makefile generation */
+	private static final int MODIFIED_SOURCES_RATIO = 10;
+
+	private final List<String> projectTypes = new ArrayList<String>();
+	private int folders = 10;
+	private int sources = 20;
+	private int fileConfigs = 0;
+	private int iterations = 5;
+	private int warmup = 1;
+	private String outFile;
+
+	/**
+	 * A benchmarked operation
+	 */
+	private static abstract class Phase {
+		final String name;
+
+		Phase(String name) {
+			this.name = name;
+		}
+
+		abstract void run() throws CoreException;
+	}
+
+	/**
+	 * Measurements of a phase
+	 */
+	private static class Result {
+		final String projectType;
+		final String phase;
+		/** the times of the runs in nanoseconds */
+		final long[] times;
+		long allocatedBytes = -1;
+		long gcCount;
+		long gcTime;
+
+		Result(String projectType, String phase, int iterations) {
+			this.projectType = projectType;
+			this.phase = phase;
+			this.times = new long[iterations];
+		}
+
+		long min() {
+			long[] sorted = sortedTimes();
+			return sorted.length != 0 ? sorted[0] : 0;
+		}
+
+		long median() {
+			long[] sorted = sortedTimes();
+			return sorted.length != 0 ? sorted[sorted.length / 2] : 0;
+		}
+
+		long mean() {
+			long sum = 0;
+			for (long time : times)
+				sum += time;
+			return times.length != 0 ? sum / times.length : 0;
+		}
+
+		/** @return the bytes allocated per run, or -1 if unknown */
+		long allocatedPerRun() {
+			return allocatedBytes >= 0 && times.length != 0 ? allocatedBytes / times.length : -1;
+		}
+
+		/** @return the allocation rate in MB per second, or -1 if unknown */
+		long allocationRate() {
+			long total = 0;
+			for (long time : times)
+				total += time;
+			if (allocatedBytes < 0 || total == 0)
+				return -1;
+			return (long)(allocatedBytes / (total / 1e9) / (1024 * 1024));
+		}
+
+		private long[] sortedTimes() {
+			long[] sorted = times.clone();
+			Arrays.sort(sorted);
+			return sorted;
+		}
+	}
+
+	public Object start(IApplicationContext context) throws Exception {
+		if (!getArguments((String[])context.getArguments().get(IApplicationContext.APPLICATION_ARGS)))
+			return ERROR;
+
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		if (!workspace.getRoot().isAccessible()) {
+			System.err.println(ManagedMakeMessages.getFormattedString("MakefileGenerationBenchmark.workspace.not.accessible", workspace.getRoot().getLocationURI().toString())); //$NON-NLS-1$
+			return ERROR;
+		}
+
+		final boolean isAutoBuilding = workspace.isAutoBuilding();
+		List<Result> results = new ArrayList<Result>();
+		try {
+			IWorkspaceDescription desc = workspace.getDescription();
+			desc.setAutoBuilding(false);
+			workspace.setDescription(desc);
+
+			for (int i = 0; i < projectTypes.size(); i++) {
+				IProjectType type = ManagedBuildManager.getProjectType(projectTypes.get(i));
+				if (type == null) {
+					System.err.println(ManagedMakeMessages.getFormattedString("MakefileGenerationBenchmark.unknown.project.type", projectTypes.get(i))); //$NON-NLS-1$
+					return ERROR;
+				}
+				IProject project = createProject(PROJECT_PREFIX + i, type);
+				try {
+					benchmark(type, project, results);
+				} finally {
+					project.delete(true, true, new NullProgressMonitor());
+				}
+			}
+		} finally {
+			IWorkspaceDescription desc = workspace.getDescription();
+			desc.setAutoBuilding(isAutoBuilding);
+			workspace.setDescription(desc);
+		}
+
+		report(results);
+		return OK;
+	}
+
+	public void stop() {
+	}
+
+	/**
+	 * Creates the synthetic project: folders with sources including a common header, and
+	 * resource configurations defining an additional preprocessor symbol for every n-th source
+	 */
+	private IProject createProject(String name, IProjectType type) throws Exception {
+		IProgressMonitor monitor = new NullProgressMonitor();
+		IProject project = ResourcesPlugin.getWorkspace().getRoot().getProject(name);
+		if (project.exists())
+			project.delete(true, true, monitor);
+
+		ProjectCreatedActions pca = new ProjectCreatedActions();
+		pca.setProject(project);
+		pca.setConfigs(type.getConfigurations());
+		pca.setArtifactExtension(type.getConfigurations()[0].getArtifactExtension());
+		pca.createProject(monitor, IPDOMManager.ID_NO_INDEXER, true);
+
+		IConfiguration cfg = ManagedBuildManager.getBuildInfo(project).getDefaultConfiguration();
+		String ext = cfg.getToolFromInputExtension("c") != null ? "c" : "cpp"; //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+
+		int n = 0;
+		for (int i = 0; i < folders; i++) {
+			IFolder folder = project.getFolder(FOLDER_PREFIX + i);
+			folder.create(true, true, monitor);
+			createFile(folder.getFile(HEADER_NAME), "#define FOLDER_" + i + " " + i + "\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+			for (int j = 0; j < sources; j++, n++) {
+				IFile file = folder.getFile(SOURCE_PREFIX + j + '.' + ext);
+				createFile(file, "#include \"" + HEADER_NAME + "\"\nint " + SOURCE_PREFIX + i + '_' + j + "(void) { return FOLDER_" + i + "; }\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+				if (fileConfigs > 0 && n % fileConfigs == 0)
+					createFileInfo(cfg, file, n);
+			}
+		}
+		ManagedBuildManager.saveBuildInfo(project, true);
+		return project;
+	}
+
+	private static void createFile(IFile file, String contents) throws CoreException {
+		file.create(new ByteArrayInputStream(contents.getBytes()), true, new NullProgressMonitor());
+	}
+
+	private static void createFileInfo(IConfiguration cfg, IFile file, int n) {
+		IFileInfo fileInfo = cfg.createFileInfo(file.getProjectRelativePath());
+		for (ITool tool : fileInfo.getToolsToInvoke()) {
+			for (IOption option : tool.getOptions()) {
+				try {
+					if (option.getValueType() == IOption.PREPROCESSOR_SYMBOLS) {
+						ManagedBuildManager.setOption(fileInfo, tool, option, new String[] {SYMBOL_PREFIX + n});
+						return;
+					}
+				} catch (Exception e) {
+					// try the next option
+				}
+			}
+		}
+	}
+
+	private void benchmark(IProjectType type, final IProject project, List<Result> results) throws CoreException {
+		final IConfiguration cfg = ManagedBuildManager.getBuildInfo(project).getDefaultConfiguration();
+		final IBuilder builder = cfg.getBuilder();
+
+		// The generator creates the build directory on the first run, so that the
+		// incremental generation and the dependency generation have something to work with
+		createGenerator(cfg, builder, IncrementalProjectBuilder.FULL_BUILD).regenerateMakefiles();
+		final IResourceDelta delta = modifySources(project);
+
+		List<Phase> phases = new ArrayList<Phase>();
+		phases.add(new Phase("regenerateMakefiles") { //$NON-NLS-1$
+			@Override
+			void run() throws CoreException {
+				createGenerator(cfg, builder, IncrementalProjectBuilder.FULL_BUILD).regenerateMakefiles();
+			}
+		});
+		if (delta != null) {
+			phases.add(new Phase("generateMakefiles") { //$NON-NLS-1$
+				@Override
+				void run() throws CoreException {
+					createGenerator(cfg, builder, IncrementalProjectBuilder.INCREMENTAL_BUILD).generateMakefiles(delta);
+				}
+			});
+		}
+		phases.add(new Phase("generateDependencies") { //$NON-NLS-1$
+			@Override
+			void run() throws CoreException {
+				createGenerator(cfg, builder, IncrementalProjectBuilder.INCREMENTAL_BUILD).generateDependencies();
+			}
+		});
+		phases.add(new Phase("createBuildDescription") { //$NON-NLS-1$
+			@Override
+			void run() throws CoreException {
+				BuildDescriptionManager.createBuildDescription(cfg, null, 0);
+			}
+		});
+		if (delta != null) {
+			phases.add(new Phase("createBuildDescription.delta") { //$NON-NLS-1$
+				@Override
+				void run() throws CoreException {
+					BuildDescriptionManager.createBuildDescription(cfg, delta,
+							BuildDescriptionManager.REBUILD | BuildDescriptionManager.REMOVED | BuildDescriptionManager.DEPS);
+				}
+			});
+		}
+
+		for (Phase phase : phases) {
+			System.out.println(ManagedMakeMessages.getFormattedString("MakefileGenerationBenchmark.running", new String[] {type.getId(), phase.name})); //$NON-NLS-1$
+			results.add(measure(type.getId(), phase));
+		}
+	}
+
+	private static IManagedBuilderMakefileGenerator createGenerator(IConfiguration cfg, IBuilder builder, int kind) {
+		IManagedBuilderMakefileGenerator generator = builder.getBuildFileGenerator();
+		if (generator instanceof IManagedBuilderMakefileGenerator2)
+			((IManagedBuilderMakefileGenerator2)generator).initialize(kind, cfg, builder, new NullProgressMonitor());
+		else
+			generator.initialize(cfg.getOwner().getProject(), ManagedBuildManager.getBuildInfo(cfg.getOwner()), new NullProgressMonitor());
+		return generator;
+	}
+
+	/**
+	 * Touches every n-th source and returns the resulting project delta, as the
+	 * builder would see it on the next incremental build
+	 */
+	private static IResourceDelta modifySources(final IProject project) throws CoreException {
+		final IResourceDelta[] delta = new IResourceDelta[1];
+		IResourceChangeListener listener = new IResourceChangeListener() {
+			public void resourceChanged(IResourceChangeEvent event) {
+				if (event.getDelta() != null)
+					delta[0] = event.getDelta().findMember(project.getFullPath());
+			}
+		};
+		IWorkspace workspace = ResourcesPlugin.getWorkspace();
+		workspace.addResourceChangeListener(listener, IResourceChangeEvent.POST_CHANGE);
+		try {
+			int n = 0;
+			for (IResource member : project.members()) {
+				if (!(member instanceof IFolder) || !member.getName().startsWith(FOLDER_PREFIX))
+					continue;
+				for (IResource rc : ((IFolder)member).members()) {
+					if (rc instanceof IFile && rc.getName().startsWith(SOURCE_PREFIX) && n++ % MODIFIED_SOURCES_RATIO == 0)
+						rc.touch(new NullProgressMonitor());
+				}
+			}
+		} finally {
+			workspace.removeResourceChangeListener(listener);
+		}
+		return delta[0];
+	}
+
+	private Result measure(String projectType, Phase phase) throws CoreException {
+		for (int i = 0; i < warmup; i++) {
+			resetCaches();
+			phase.run();
+		}
+
+		Result result = new Result(projectType, phase.name, iterations);
+		System.gc();
+		long allocated = getAllocatedBytes();
+		long gcCount = getGcCount();
+		long gcTime = getGcTime();
+		for (int i = 0; i < iterations; i++) {
+			resetCaches();
+			long start = System.nanoTime();
+			phase.run();
+			result.times[i] = System.nanoTime() - start;
+		}
+		if (allocated >= 0)
+			result.allocatedBytes = getAllocatedBytes() - allocated;
+		result.gcCount = getGcCount() - gcCount;
+		result.gcTime = getGcTime() - gcTime;
+		return result;
+	}
+
+	/**
+	 * Invalidates the cached command flags, macro values and environment snapshots
+	 * the same way the builders do at the start of every build, so that each run
+	 * measures a build rather than the lookups of the results of the previous run
+	 */
+	private static void resetCaches() {
+		NotificationManager.getInstance().buildSettingsChanged();
+		EnvironmentVariableProvider.getDefault().invalidateSnapshots();
+		BuildMacroProvider.getDefault().invalidateResolutionCache();
+	}
+
+	/**
+	 * @return the bytes allocated by the current thread so far, or -1 if the VM does not tell
+	 */
+	private static long getAllocatedBytes() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		try {
+			Class<?> sunBean = Class.forName("com.sun.management.ThreadMXBean"); //$NON-NLS-1$
+			if (sunBean.isInstance(bean)) {
+				Method method = sunBean.getMethod("getThreadAllocatedBytes", long.class); //$NON-NLS-1$
+				return ((Long)method.invoke(bean, Long.valueOf(Thread.currentThread().getId()))).longValue();
+			}
+		} catch (Exception e) {
+			// not supported
+		}
+		return -1;
+	}
+
+	private static long getGcCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans())
+			count += Math.max(0, bean.getCollectionCount());
+		return count;
+	}
+
+	private static long getGcTime() {
+		long time = 0;
+		for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans())
+			time += Math.max(0, bean.getCollectionTime());
+		return time;
+	}
+
+	private void report(List<Result> results) throws IOException {
+		String header = "projectType,phase,folders,sources,fileConfigs,iterations,minUs,medianUs,meanUs,allocatedBytesPerRun,allocationMBPerSec,gcCount,gcTimeMs"; //$NON-NLS-1$
+		List<String> lines = new ArrayList<String>();
+		for (Result result : results) {
+			StringBuffer buf = new StringBuffer();
+			buf.append(result.projectType).append(CSV_SEPARATOR);
+			buf.append(result.phase).append(CSV_SEPARATOR);
+			buf.append(folders).append(CSV_SEPARATOR);
+			buf.append(sources).append(CSV_SEPARATOR);
+			buf.append(fileConfigs).append(CSV_SEPARATOR);
+			buf.append(iterations).append(CSV_SEPARATOR);
+			buf.append(result.min() / 1000).append(CSV_SEPARATOR);
+			buf.append(result.median() / 1000).append(CSV_SEPARATOR);
+			buf.append(result.mean() / 1000).append(CSV_SEPARATOR);
+			buf.append(result.allocatedPerRun()).append(CSV_SEPARATOR);
+			buf.append(result.allocationRate()).append(CSV_SEPARATOR);
+			buf.append(result.gcCount).append(CSV_SEPARATOR);
+			buf.append(result.gcTime);
+			lines.add(buf.toString());
+		}
+
+		System.out.println(header);
+		for (String line : lines)
+			System.out.println(line);
+
+		if (outFile != null) {
+			boolean exists = new File(outFile).exists();
+			PrintWriter writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(outFile, true)));
+			try {
+				if (!exists)
+					writer.println(header);
+				for (String line : lines)
+					writer.println(line);
+			} finally {
+				writer.close();
+			}
+		}
+	}
+
+	/**
+	 * Helper method to process expected arguments
+	 *
+	 * @param args String[] of arguments to parse
+	 * @return boolean indicating success
+	 */
+	public boolean getArguments(String[] args) {
+		try {
+			if (args == null || args.length == 0)
+				throw new Exception(ManagedMakeMessages.getResourceString("MakefileGenerationBenchmark.no.arguments")); //$NON-NLS-1$
+			for (int i = 0; i < args.length; i++) {
+				if ("-projectType".equals(args[i])) { //$NON-NLS-1$
+					projectTypes.add(args[++i]);
+				} else if ("-folders".equals(args[i])) { //$NON-NLS-1$
+					folders = Integer.parseInt(args[++i]);
+				} else if ("-sources".equals(args[i])) { //$NON-NLS-1$
+					sources = Integer.parseInt(args[++i]);
+				} else if ("-fileConfigs".equals(args[i])) { //$NON-NLS-1$
+					fileConfigs = Integer.parseInt(args[++i]);
+				} else if ("-iterations".equals(args[i])) { //$NON-NLS-1$
+					iterations = Integer.parseInt(args[++i]);
+				} else if ("-warmup".equals(args[i])) { //$NON-NLS-1$
+					warmup = Integer.parseInt(args[++i]);
+				} else if ("-out".equals(args[i])) { //$NON-NLS-1$
+					outFile = args[++i];
+				} else {
+					throw new Exception(ManagedMakeMessages.getFormattedString("MakefileGenerationBenchmark.unknown.argument", args[i])); //$NON-NLS-1$
+				}
+			}
+			if (projectTypes.isEmpty())
+				throw new Exception(ManagedMakeMessages.getResourceString("MakefileGenerationBenchmark.no.project.type")); //$NON-NLS-1$
+		} catch (Exception e) {
+			System.err.println(e.getMessage());
+			System.err.println(ManagedMakeMessages.getResourceString("MakefileGenerationBenchmark.usage")); //$NON-NLS-1$
+			return false;
+		}
+		return true;
+	}
+}
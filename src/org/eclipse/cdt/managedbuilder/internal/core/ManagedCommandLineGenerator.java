@@ -10,9 +10,13 @@
  *******************************************************************************/
 package org.eclipse.cdt.managedbuilder.internal.core;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.eclipse.cdt.managedbuilder.core.IManagedCommandLineGenerator;
 import org.eclipse.cdt.managedbuilder.core.IManagedCommandLineInfo;
 import org.eclipse.cdt.managedbuilder.core.ITool;
+import org.eclipse.cdt.managedbuilder.internal.macros.MacroTemplate;
 
 public class ManagedCommandLineGenerator implements
 		IManagedCommandLineGenerator {
@@ -92,26 +96,52 @@ public class ManagedCommandLineGenerator implements
 		
 		String flagsStr = stringArrayToString(flags);
 		
-		String command = commandLinePattern;
+		String command = null;
+		MacroTemplate template = MacroTemplate.getTemplate(commandLinePattern);
+		if(template == null){
+			command = commandLinePattern;
+		} else if(template.isSimple()){
+			// values referencing macros themselves need the replacement in order below
+			Map<String, String> values = new HashMap<String, String>();
+			if(putParameter(values, CMD_LINE_PRM_NAME, commandName)
+					&& putParameter(values, FLAGS_PRM_NAME, flagsStr)
+					&& putParameter(values, OUTPUT_FLAG_PRM_NAME, outputFlag)
+					&& putParameter(values, OUTPUT_PREFIX_PRM_NAME, outputPrefix)
+					&& putParameter(values, OUTPUT_PRM_NAME, outputName)
+					&& putParameter(values, INPUTS_PRM_NAME, inputsStr))
+				command = template.substitute(values);
+		}
+
+		if(command == null){
+			command = commandLinePattern;
 
-		command = command.replace(makeVariable(CMD_LINE_PRM_NAME), commandName);
-		command = command.replace(makeVariable(FLAGS_PRM_NAME), flagsStr);
-		command = command.replace(makeVariable(OUTPUT_FLAG_PRM_NAME), outputFlag);
-		command = command.replace(makeVariable(OUTPUT_PREFIX_PRM_NAME), outputPrefix);
-		command = command.replace(makeVariable(OUTPUT_PRM_NAME), outputName);
-		command = command.replace(makeVariable(INPUTS_PRM_NAME), inputsStr);
+			command = command.replace(makeVariable(CMD_LINE_PRM_NAME), commandName);
+			command = command.replace(makeVariable(FLAGS_PRM_NAME), flagsStr);
+			command = command.replace(makeVariable(OUTPUT_FLAG_PRM_NAME), outputFlag);
+			command = command.replace(makeVariable(OUTPUT_PREFIX_PRM_NAME), outputPrefix);
+			command = command.replace(makeVariable(OUTPUT_PRM_NAME), outputName);
+			command = command.replace(makeVariable(INPUTS_PRM_NAME), inputsStr);
 		
-		command = command.replace(makeVariable(CMD_LINE_PRM_NAME.toLowerCase()), commandName);
-		command = command.replace(makeVariable(FLAGS_PRM_NAME.toLowerCase()), flagsStr);
-		command = command.replace(makeVariable(OUTPUT_FLAG_PRM_NAME.toLowerCase()), outputFlag);
-		command = command.replace(makeVariable(OUTPUT_PREFIX_PRM_NAME.toLowerCase()), outputPrefix);
-		command = command.replace(makeVariable(OUTPUT_PRM_NAME.toLowerCase()), outputName);
-		command = command.replace(makeVariable(INPUTS_PRM_NAME.toLowerCase()), inputsStr);
+			command = command.replace(makeVariable(CMD_LINE_PRM_NAME.toLowerCase()), commandName);
+			command = command.replace(makeVariable(FLAGS_PRM_NAME.toLowerCase()), flagsStr);
+			command = command.replace(makeVariable(OUTPUT_FLAG_PRM_NAME.toLowerCase()), outputFlag);
+			command = command.replace(makeVariable(OUTPUT_PREFIX_PRM_NAME.toLowerCase()), outputPrefix);
+			command = command.replace(makeVariable(OUTPUT_PRM_NAME.toLowerCase()), outputName);
+			command = command.replace(makeVariable(INPUTS_PRM_NAME.toLowerCase()), inputsStr);
+		}
 
 		return new ManagedCommandLineInfo(command.trim(), commandLinePattern, commandName, stringArrayToString(flags),
 				outputFlag, outputPrefix, outputName, stringArrayToString(inputResources));
 	}
 	
+	private boolean putParameter(Map<String, String> values, String name, String value) {
+		if(value == null || value.indexOf(VAR_FIRST_CHAR + VAR_SECOND_CHAR) != -1)
+			return false;
+		values.put(name, value);
+		values.put(name.toLowerCase(), value);
+		return true;
+	}
+
 	private String stringArrayToString( String[] array ) {
 		if( array == null || array.length <= 0 ) return new String();
 		StringBuffer sb = new StringBuffer();
@@ -12,35 +12,55 @@ package org.eclipse.cdt.managedbuilder.internal.core;
 
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.cdt.managedbuilder.core.IHoldsOptions;
 import org.eclipse.cdt.managedbuilder.core.IOption;
 import org.eclipse.cdt.managedbuilder.core.IResourceInfo;
 
 public class NotificationManager /*implements ISettingsChangeListener */{
-	private static NotificationManager fInstance;
+	private static final class Holder {
+		static final NotificationManager fInstance = new NotificationManager();
+	}
 	private List<ISettingsChangeListener> fListeners;
+	private final AtomicInteger fModificationCount = new AtomicInteger();
 	
 	private NotificationManager(){
 		fListeners = new CopyOnWriteArrayList<ISettingsChangeListener>();
 	}
 	
 	public static NotificationManager getInstance(){
-		if(fInstance == null)
-			fInstance = new NotificationManager();
-		return fInstance;
+		return Holder.fInstance;
 	}
 
 	public void optionRemoved(IResourceInfo rcInfo, IHoldsOptions holder, IOption option) {
+		fModificationCount.incrementAndGet();
 		SettingsChangeEvent event = createOptionRemovedEvent(rcInfo, holder, option);
 		notifyListeners(event);
 	}
 
 	public void optionChanged(IResourceInfo rcInfo, IHoldsOptions holder, IOption option, Object oldValue) {
+		fModificationCount.incrementAndGet();
 		SettingsChangeEvent event = createOptionChangedEvent(rcInfo, holder, option, oldValue);
 		notifyListeners(event);
 	}
 	
+	/**
+	 * Notifies that a setting affecting the build has changed without a settings change event,
+	 * e.g. an option value set directly on the option or a build macro changed.
+	 */
+	public void buildSettingsChanged() {
+		fModificationCount.incrementAndGet();
+	}
+
+	/**
+	 * @return the counter incremented on every option or build settings change,
+	 * used to validate the data computed from the settings
+	 */
+	public int getModificationCount() {
+		return fModificationCount.get();
+	}
+
 	private void notifyListeners(SettingsChangeEvent event){
 		for (ISettingsChangeListener listener : fListeners)
 			listener.settingsChanged(event);
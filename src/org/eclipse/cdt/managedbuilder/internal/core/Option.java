@@ -186,29 +186,18 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 		boolean copyIds = Id.equals(option.id);
 		
 		//  Copy the remaining attributes
-		if (option.unusedChildren != null) {
-			unusedChildren = new String(option.unusedChildren);
-		}
+		// strings and value lists are immutable and shared with the cloned option
+		unusedChildren = option.unusedChildren;
 		if (option.isAbstract != null) {
 			isAbstract = new Boolean(option.isAbstract.booleanValue());
 		}
-		if (option.command != null) {
-			command = new String(option.command);
-		}
-		if (option.commandFalse != null) {
-			commandFalse = new String(option.commandFalse);
-		}
-		if (option.tip != null) {
-			tip = new String(option.tip);
-		}
-		if (option.contextId != null) {
-			contextId = new String(option.contextId);
-		}
-		if (option.categoryId != null) {
-			categoryId = new String(option.categoryId);
-		}
+		command = option.command;
+		commandFalse = option.commandFalse;
+		tip = option.tip;
+		contextId = option.contextId;
+		categoryId = option.categoryId;
 		if (option.builtIns != null) {
-			builtIns = new ArrayList<OptionStringValue>(option.builtIns);
+			builtIns = OptionValuePool.intern(option.builtIns);
 		}
 		if (option.browseType != null) {
 			browseType = new Integer(option.browseType.intValue());
@@ -245,12 +234,8 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 					break;
 				case STRING:
 				case ENUMERATED:
-					if (option.value != null) {
-						value = new String((String)option.value);
-					}
-					if (option.defaultValue != null) {
-						defaultValue = new String((String)option.defaultValue);
-					}
+					value = option.value;
+					defaultValue = option.defaultValue;
 					break;
 				case STRING_LIST:
 				case INCLUDE_PATH:
@@ -269,13 +254,13 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 				case UNDEF_MACRO_FILES:
 					if (option.value != null) {
 						@SuppressWarnings("unchecked")
-						ArrayList<OptionStringValue> list = new ArrayList<OptionStringValue>((ArrayList<OptionStringValue>)option.value);
-						value = list;
+						List<OptionStringValue> list = (List<OptionStringValue>)option.value;
+						value = OptionValuePool.intern(list);
 					}
 					if (option.defaultValue != null) {
 						@SuppressWarnings("unchecked")
-						ArrayList<OptionStringValue> list = new ArrayList<OptionStringValue>((ArrayList<OptionStringValue>)option.defaultValue);
-						defaultValue = list;
+						List<OptionStringValue> list = (List<OptionStringValue>)option.defaultValue;
+						defaultValue = OptionValuePool.intern(list);
 					}
 					break;
 			}
@@ -607,11 +592,11 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 						}
 					}
 					if(vList != null && vList.size() != 0)
-						value = vList;
+						value = OptionValuePool.intern(vList);
 					else
 						value = null;
 					if(biList != null && biList.size() != 0)
-						builtIns = biList;
+						builtIns = OptionValuePool.intern(biList);
 					else
 						builtIns = null;
 						
@@ -808,7 +793,7 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 				case UNDEF_MACRO_FILES:
 					if (value != null) {
 						@SuppressWarnings("unchecked")
-						ArrayList<OptionStringValue> stringList = (ArrayList<OptionStringValue>)value;
+						List<OptionStringValue> stringList = (List<OptionStringValue>)value;
 						for (OptionStringValue optValue : stringList) {
 							ICStorageElement valueElement = element.createChild(LIST_VALUE);
 							optValue.serialize(valueElement);
@@ -981,6 +966,7 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 		}
 		
 		// I am clean now
+		aboutToChange();
 		isDirty = false;
 	}
 	
@@ -1744,13 +1730,16 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 	 * @see org.eclipse.cdt.managedbuilder.core.IOption#setValue(Object)
 	 */
 	public void setDefaultValue(Object v) {
+		aboutToChange();
+		Object oldValue = defaultValue;
 		if(v instanceof List<?>) {
 			@SuppressWarnings("unchecked")
 			List<OptionStringValue> vList = valueListToListValueList((List<String>)v, false);
-			defaultValue = vList;
+			defaultValue = OptionValuePool.intern(vList);
 		} else {
 			defaultValue = v;
 		}
+		valueChanged(oldValue, defaultValue);
 		if(!isExtensionElement()){
 			setDirty(true);
 			rebuildState = true;
@@ -1761,8 +1750,10 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 	 * @see org.eclipse.cdt.managedbuilder.core.IOption#setCategory(org.eclipse.cdt.managedbuilder.core.IOptionCategory)
 	 */
 	public void setCategory(IOptionCategory category) {
+		aboutToChange();
 		if (this.category != category) {
 			this.category = category;
+			valueChanged();
 			if (category != null) {
 				categoryId = category.getId();
 			} else {
@@ -1779,9 +1770,11 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 	 * @see org.eclipse.cdt.managedbuilder.core.IOption#setCommand(String)
 	 */
 	public void setCommand(String cmd) {
+		aboutToChange();
 		if (cmd == null && command == null) return;
 		if (cmd == null || command == null || !cmd.equals(command)) {
 			command = cmd;
+			valueChanged();
 			if(!isExtensionElement()){
 				isDirty = true;
 				rebuildState = true;
@@ -1793,9 +1786,11 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 	 * @see org.eclipse.cdt.managedbuilder.core.IOption#setCommandFalse(String)
 	 */
 	public void setCommandFalse(String cmd) {
+		aboutToChange();
 		if (cmd == null && commandFalse == null) return;
 		if (cmd == null || commandFalse == null || !cmd.equals(commandFalse)) {
 			commandFalse = cmd;
+			valueChanged();
 			if(!isExtensionElement()){
 				isDirty = true;
 				rebuildState = true;
@@ -1807,6 +1802,7 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 	 * @see org.eclipse.cdt.managedbuilder.core.IOption#setToolTip(String)
 	 */
 	public void setToolTip(String tooltip) {
+		aboutToChange();
 		if (tooltip == null && tip == null) return;
 		if (tooltip == null || tip == null || !tooltip.equals(tip)) {
 			tip = tooltip;
@@ -1821,6 +1817,7 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 	 * @see org.eclipse.cdt.managedbuilder.core.IOption#setContextId(String)
 	 */
 	public void setContextId(String id) {
+		aboutToChange();
 		if (id == null && contextId == null) return;
 		if (id == null || contextId == null || !id.equals(contextId)) {
 			contextId = id;
@@ -1835,8 +1832,10 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 	 * @see org.eclipse.cdt.managedbuilder.core.IOption#setResourceFilter(int)
 	 */
 	public void setResourceFilter(int filter) {
+		aboutToChange();
 		if (resourceFilter == null || !(filter == resourceFilter.intValue())) {
 			resourceFilter = new Integer(filter);
+			valueChanged();
 			if(!isExtensionElement()){
 				isDirty = true;
 				rebuildState = true;
@@ -1848,6 +1847,7 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 	 * @see org.eclipse.cdt.managedbuilder.core.IOption#setBrowseType(int)
 	 */
 	public void setBrowseType(int type) {
+		aboutToChange();
 		if (browseType == null || !(type == browseType.intValue())) {
 			browseType = new Integer(type);
 			if(!isExtensionElement()){
@@ -1861,6 +1861,7 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 	 * @see org.eclipse.cdt.managedbuilder.core.IOption#setBrowseFilterPath(java.lang.String)
 	 */
 	public void setBrowseFilterPath(String path) {
+		aboutToChange();
 		if (browseFilterPath == null || !(browseFilterPath.equals(path))) {
 			browseFilterPath = path;
 			if(!isExtensionElement()) {
@@ -1874,6 +1875,7 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 	 * @see org.eclipse.cdt.managedbuilder.core.IOption#setBrowseFilterExtensions(java.lang.String[])
 	 */
 	public void setBrowseFilterExtensions(String[] extensions) {
+		aboutToChange();
 		if (browseFilterExtensions == null || !(browseFilterExtensions.equals(extensions))) {
 			browseFilterExtensions = extensions;
 			if(!isExtensionElement()) {
@@ -1887,11 +1889,14 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 	 * @see org.eclipse.cdt.managedbuilder.core.IOption#setValue(boolean)
 	 */
 	public void setValue(boolean value) throws BuildException {
+		aboutToChange();
+		Object oldValue = this.value;
 		if (/*!isExtensionElement() && */getValueType() == BOOLEAN){
 			this.value = new Boolean(value);
 		} else {
 			throw new BuildException(ManagedMakeMessages.getResourceString("Option.error.bad_value_type")); //$NON-NLS-1$
 		}
+		valueChanged(oldValue, this.value);
 		if(!isExtensionElement()){
 			setDirty(true);
 			rebuildState = true;
@@ -1903,12 +1908,15 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 	 * @see org.eclipse.cdt.managedbuilder.core.IOption#setValue(String)
 	 */
 	public void setValue(String value) throws BuildException {
+		aboutToChange();
+		Object oldValue = this.value;
 		// Note that we can still set the human-readable value here 
 		if (/*!isExtensionElement() && */(getValueType() == STRING || getValueType() == ENUMERATED)) {
-			this.value = value;
+			this.value = OptionValuePool.intern(value);
 		} else {
 			throw new BuildException(ManagedMakeMessages.getResourceString("Option.error.bad_value_type")); //$NON-NLS-1$
 		}
+		valueChanged(oldValue, this.value);
 		if(!isExtensionElement()){
 			setDirty(true);
 			rebuildState = true;
@@ -1920,6 +1928,8 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 	 * @see org.eclipse.cdt.managedbuilder.core.IOption#setValue(String [])
 	 */
 	public void setValue(String [] value) throws BuildException {
+		aboutToChange();
+		Object oldValue = this.value;
 		if (/*!isExtensionElement() && */ 
 			  (getValueType() == STRING_LIST
 			|| getValueType() == INCLUDE_PATH
@@ -1941,11 +1951,12 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 			if(value == null)
 				this.value = null;
 			else
-				this.value = valueListToListValueList(Arrays.asList(value), false);
+				this.value = OptionValuePool.intern(valueListToListValueList(Arrays.asList(value), false));
 		}
 		else {
 			throw new BuildException(ManagedMakeMessages.getResourceString("Option.error.bad_value_type")); //$NON-NLS-1$
 		}
+		valueChanged(oldValue, this.value);
 		if(!isExtensionElement()){
 			setDirty(true);
 			rebuildState = true;
@@ -1953,6 +1964,8 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 	}
 
 	public void setValue(OptionStringValue [] value) throws BuildException {
+		aboutToChange();
+		Object oldValue = this.value;
 		if (/*!isExtensionElement() && */ 
 			  (getValueType() == STRING_LIST
 			|| getValueType() == INCLUDE_PATH
@@ -1974,11 +1987,12 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 			if(value == null)
 				this.value = null;
 			else
-				this.value = new ArrayList<OptionStringValue>(Arrays.asList(value));
+				this.value = OptionValuePool.intern(Arrays.asList(value));
 		}
 		else {
 			throw new BuildException(ManagedMakeMessages.getResourceString("Option.error.bad_value_type")); //$NON-NLS-1$
 		}
+		valueChanged(oldValue, this.value);
 		if(!isExtensionElement()){
 			setDirty(true);
 			rebuildState = true;
@@ -1989,13 +2003,16 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 	 * @see org.eclipse.cdt.managedbuilder.core.IOption#setValue(Object)
 	 */
 	public void setValue(Object v) {
+		aboutToChange();
+		Object oldValue = value;
 		if(v instanceof List<?>) {
 			@SuppressWarnings("unchecked")
 			List<OptionStringValue> vList = valueListToListValueList((List<String>)v, false);
-			value = vList;
+			value = OptionValuePool.intern(vList);
 		} else {
 			value = v;
 		}
+		valueChanged(oldValue, value);
 		if(!isExtensionElement()){
 			setDirty(true);
 			rebuildState = true;
@@ -2006,9 +2023,11 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 	 * @see org.eclipse.cdt.managedbuilder.core.IOption#setValueType()
 	 */
 	public void setValueType(int type) {
+		aboutToChange();
 		// TODO:  Verify that this is a valid type
 		if (valueType == null || valueType.intValue() != type) {
 			valueType = new Integer(type);
+			valueChanged();
 			if(!isExtensionElement()){
 				setDirty(true);
 				rebuildState = true;
@@ -2032,6 +2051,9 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 	 * @see org.eclipse.cdt.managedbuilder.core.IOption#setValueHandlerElement(IConfigurationElement)
 	 */
 	public void setValueHandlerElement(IConfigurationElement element) {
+		aboutToChange();
+		if (valueHandlerElement != element)
+			valueChanged();
 		valueHandlerElement = element;
 		if(!isExtensionElement()){
 			setDirty(true);
@@ -2082,11 +2104,13 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 	 * @see org.eclipse.cdt.managedbuilder.core.IOption#setValueHandlerExtraArgument(String))
 	 */
 	public void setValueHandlerExtraArgument(String extraArgument) {
+		aboutToChange();
  		if (extraArgument == null && valueHandlerExtraArgument == null) return;
  		if (extraArgument == null || 
  				valueHandlerExtraArgument == null ||
  				!extraArgument.equals(valueHandlerExtraArgument)) {
 			valueHandlerExtraArgument = extraArgument;
+			valueChanged();
 			if(!isExtensionElement()){
 				isDirty = true;
 				rebuildState = true;
@@ -2124,6 +2148,7 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 	 * @see org.eclipse.cdt.managedbuilder.core.IOption#setFieldEditorExtraArgument(java.lang.String)
 	 */
 	public void setFieldEditorExtraArgument(String extraArgument) {
+		aboutToChange();
  		if (extraArgument == null && fieldEditorExtraArgument == null) return;
  		if (extraArgument == null || 
  				fieldEditorExtraArgument == null ||
@@ -2157,10 +2182,32 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 		return isDirty;
 	}
 
+	/*
+	 * the copies of the holder still sharing this option are completed before the option changes
+	 */
+	private void aboutToChange() {
+		if (holder instanceof HoldsOptions)
+			((HoldsOptions)holder).materializeCopies();
+	}
+
+	/*
+	 * the data computed from the option values and commands, e.g. the command flags of the
+	 * tools and the enablement results, is validated against the modification count
+	 */
+	private void valueChanged() {
+		NotificationManager.getInstance().buildSettingsChanged();
+	}
+
+	private void valueChanged(Object oldValue, Object newValue) {
+		if (oldValue == null ? newValue != null : !oldValue.equals(newValue))
+			valueChanged();
+	}
+
 	/* (non-Javadoc)
 	 * @see org.eclipse.cdt.managedbuilder.core.IToolChain#setDirty(boolean)
 	 */
 	public void setDirty(boolean isDirty) {
+		aboutToChange();
 		this.isDirty = isDirty;
 	}
 
@@ -2273,7 +2320,9 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 								vList.add(ve);
 							}
 						}
-						value = vList;
+						value = OptionValuePool.intern(vList);
+						if (builtIns != null)
+							builtIns = OptionValuePool.intern(builtIns);
 						break;
 					default :
 						break;
@@ -2378,6 +2427,7 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 	}
 
 	public void setWasOptRef(boolean was) {
+		aboutToChange();
 		wasOptRef = was;
 	}
 	
@@ -2398,6 +2448,24 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 	public void setVersion(Version version) {
 		// Do nothing
 	}
+
+	@Override
+	public void setId(String id) {
+		aboutToChange();
+		super.setId(id);
+	}
+
+	@Override
+	public void setName(String name) {
+		aboutToChange();
+		super.setName(name);
+	}
+
+	@Override
+	public void setManagedBuildRevision(String managedBuildRevision) {
+		aboutToChange();
+		super.setManagedBuildRevision(managedBuildRevision);
+	}
 	
 	public BooleanExpressionApplicabilityCalculator getBooleanExpressionCalculator(boolean isExtensionAdjustment){
 		if(booleanExpressionCalculator == null && !isExtensionAdjustment){
@@ -2413,12 +2481,15 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 	}
 
 	public void setAdjusted(boolean adjusted) {
+		aboutToChange();
 		isUdjusted = adjusted;
 	}
 
 	public void setSuperClass(IOption superClass) {
+		aboutToChange();
 		if ( this.superClass != superClass ) {
 			this.superClass = superClass;
+			valueChanged();
 			if ( this.superClass == null) {
 				superClassId = null;
 			} else {
@@ -2438,6 +2509,7 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 		if(isExtensionElement() && rebuild)
 			return;
 
+		aboutToChange();
 		rebuildState = rebuild;
 	}
 	
@@ -2531,7 +2603,7 @@ public class Option extends BuildObject implements IOption, IBuildPropertiesRest
 			throw new BuildException(ManagedMakeMessages.getResourceString("Option.error.bad_value_type")); //$NON-NLS-1$
 		}
 		@SuppressWarnings("unchecked")
-		ArrayList<OptionStringValue> v = (ArrayList<OptionStringValue>)getExactValue();
+		List<OptionStringValue> v = (List<OptionStringValue>)getExactValue();
 		if (v == null) {
 			return EMPTY_LV_ARRAY;
 		}
@@ -120,7 +120,7 @@ public class OptionReference implements IOption {
 			case ENUMERATED:
 				// Pre-2.0 the value was the string for the UI
 				// Post-2.0 it is the ID of the enumerated option
-				value = element.getAttribute(DEFAULT_VALUE);				
+				value = SafeStringInterner.safeIntern(element.getAttribute(DEFAULT_VALUE));
 				break;
 			case STRING_LIST:
 			case INCLUDE_PATH:
@@ -144,9 +144,9 @@ public class OptionReference implements IOption {
 					if (node.getNodeType() == Node.ELEMENT_NODE) {
 						Boolean isBuiltIn = new Boolean(((Element)node).getAttribute(LIST_ITEM_BUILTIN));
 						if (isBuiltIn.booleanValue()) {
-							getBuiltInList().add(((Element)node).getAttribute(LIST_ITEM_VALUE));
+							getBuiltInList().add(SafeStringInterner.safeIntern(((Element)node).getAttribute(LIST_ITEM_VALUE)));
 						} else {
-							valueList.add(((Element)node).getAttribute(LIST_ITEM_VALUE));
+							valueList.add(SafeStringInterner.safeIntern(((Element)node).getAttribute(LIST_ITEM_VALUE)));
 						}
 					}
 				}
@@ -187,10 +187,10 @@ public class OptionReference implements IOption {
 					value = new Boolean(element.getAttribute(DEFAULT_VALUE));
 					break;
 				case STRING:
-					value = element.getAttribute(DEFAULT_VALUE);
+					value = SafeStringInterner.safeIntern(element.getAttribute(DEFAULT_VALUE));
 					break;
 				case ENUMERATED:
-					String temp = element.getAttribute(DEFAULT_VALUE);
+					String temp = SafeStringInterner.safeIntern(element.getAttribute(DEFAULT_VALUE));
 					if (temp != null) {
 						value = temp;
 					}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2011 Broadcom Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Broadcom Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.cdt.managedbuilder.internal.core;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.cdt.managedbuilder.core.IHoldsOptions;
+import org.eclipse.cdt.managedbuilder.core.IOption;
+
+/**
+ * Immutable table of the effective options of an options holder, i.e. the valid options
+ * of the holder merged with the options inherited from its super-classes.
+ * <p>
+ * The options are addressed by a dense index in the order of {@link IHoldsOptions#getOptions()},
+ * an option can be looked up by its id or the id of any of its super-classes in a single
+ * map access instead of walking the super-class chains of all the options.
+ * <p>
+ * The table is built lazily by the {@link HoldsOptions} and rebuilt once the options of
+ * the holder or of its super-class holders change. Only the set of the options is kept,
+ * the values are read from the options.
+ *
+ * @since 8.0
+ */
+public final class OptionTable {
+	private final IHoldsOptions fSuperClass;
+	private final OptionTable fSuperTable;
+	private final int fStamp;
+	private final IOption fOptions[];
+	/** option ids and super-class ids mapped to the option indices */
+	private final Map<String, Integer> fIndices;
+
+	OptionTable(IOption options[], IHoldsOptions superClass, OptionTable superTable, int stamp){
+		fOptions = options;
+		fSuperClass = superClass;
+		fSuperTable = superTable;
+		fStamp = stamp;
+
+		fIndices = new HashMap<String, Integer>(options.length * 2);
+		for(int i = 0; i < options.length; i++){
+			Integer index = Integer.valueOf(i);
+			IOption option = options[i];
+			do {
+				// the first option in the order of the holder wins
+				if(!fIndices.containsKey(option.getId()))
+					fIndices.put(option.getId(), index);
+				option = option.getSuperClass();
+			} while(option != null);
+		}
+	}
+
+	boolean isValid(IHoldsOptions superClass, OptionTable superTable, int stamp){
+		return fSuperClass == superClass
+			&& fSuperTable == superTable
+			&& fStamp == stamp;
+	}
+
+	/**
+	 * @return the number of the effective options
+	 */
+	public int size(){
+		return fOptions.length;
+	}
+
+	public IOption getOption(int index){
+		return fOptions[index];
+	}
+
+	public IOption[] getOptions(){
+		return fOptions.clone();
+	}
+
+	/**
+	 * @return the current value of the option at the given index
+	 */
+	public Object getValue(int index){
+		return fOptions[index].getValue();
+	}
+
+	/**
+	 * @return the index of the option with the given id or with a super-class of the given id,
+	 * <code>-1</code> if there is none
+	 */
+	public int indexOf(String id){
+		Integer index = id != null ? fIndices.get(id) : null;
+		return index != null ? index.intValue() : -1;
+	}
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2011 Broadcom Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Broadcom Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.cdt.managedbuilder.internal.core;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.cdt.internal.core.SafeStringInterner;
+import org.eclipse.cdt.managedbuilder.core.OptionStringValue;
+
+/**
+ * Weak pool of the option values shared by the options.
+ * <p>
+ * The options of the per-file and per-folder settings mostly hold the same values, e.g. the
+ * same include paths and defines. The strings are interned, and the {@link OptionStringValue}s
+ * and value lists are replaced by a canonical instance, so that the memory held by the option
+ * values grows with the number of distinct values rather than with the number of resources.
+ * <p>
+ * The pooled lists are shared by the options and are unmodifiable, the options replace their
+ * value lists on every change instead (copy on write). The pool only holds the values
+ * weakly, the values no longer referenced by any option are discarded.
+ *
+ * @since 8.0
+ */
+public final class OptionValuePool {
+	private static final Map<OptionStringValue, WeakReference<OptionStringValue>> fValues =
+		new WeakHashMap<OptionStringValue, WeakReference<OptionStringValue>>();
+	private static final Map<List<OptionStringValue>, WeakReference<List<OptionStringValue>>> fLists =
+		new WeakHashMap<List<OptionStringValue>, WeakReference<List<OptionStringValue>>>();
+
+	private OptionValuePool(){
+	}
+
+	public static String intern(String str){
+		return SafeStringInterner.safeIntern(str);
+	}
+
+	/**
+	 * @return the canonical instance equal to the given value
+	 */
+	public static OptionStringValue intern(OptionStringValue value){
+		if(value == null)
+			return null;
+		synchronized(fValues){
+			WeakReference<OptionStringValue> ref = fValues.get(value);
+			OptionStringValue pooled = ref != null ? ref.get() : null;
+			if(pooled == null){
+				pooled = value;
+				fValues.put(pooled, new WeakReference<OptionStringValue>(pooled));
+			}
+			return pooled;
+		}
+	}
+
+	/**
+	 * @return the shared unmodifiable list equal to the given list, with the elements interned
+	 */
+	public static List<OptionStringValue> intern(List<OptionStringValue> list){
+		if(list == null)
+			return null;
+		synchronized(fLists){
+			WeakReference<List<OptionStringValue>> ref = fLists.get(list);
+			List<OptionStringValue> pooled = ref != null ? ref.get() : null;
+			if(pooled == null){
+				List<OptionStringValue> values = new ArrayList<OptionStringValue>(list.size());
+				for(OptionStringValue value : list)
+					values.add(intern(value));
+				pooled = Collections.unmodifiableList(values);
+				fLists.put(pooled, new WeakReference<List<OptionStringValue>>(pooled));
+			}
+			return pooled;
+		}
+	}
+}
@@ -48,9 +48,11 @@ public class PropertyManager {
 
 	private static final String NODE_NAME = "properties";	//$NON-NLS-1$
 	
-	private static PropertyManager fInstance;
+	private static final class Holder {
+		static final PropertyManager fInstance = new PropertyManager();
+	}
 	
-	private LoaddedInfo fLoaddedInfo;
+	private volatile LoaddedInfo fLoaddedInfo;
 	
 	private static class LoaddedInfo {
 		private final IProject fProject;
@@ -98,9 +100,7 @@ public class PropertyManager {
 	}
 	
 	public static PropertyManager getInstance(){
-		if(fInstance == null)
-			fInstance = new PropertyManager();
-		return fInstance;
+		return Holder.fInstance;
 	}
 
 	protected void setProperty(IConfiguration cfg, IBuildObject bo, String prop, String value){
@@ -349,7 +349,7 @@ public class PropertyManager {
 		if(map == null){
 			map = loadData(cfg);
 			
-			setLoaddedData(cfg, map);
+			map = setLoaddedData(cfg, map);
 		}
 		
 		return map;
@@ -393,28 +393,41 @@ public class PropertyManager {
 		return cfg;
 	}
 	
-	protected void setLoaddedData(IConfiguration cfg, Map<String, Object> data){
+	/**
+	 * Sets the loadded data of the configuration, unless the data of the configuration
+	 * was loadded by another thread meanwhile.
+	 * 
+	 * @return the loadded data of the configuration
+	 */
+	protected Map<String, Object> setLoaddedData(IConfiguration cfg, Map<String, Object> data){
 		if(cfg.getOwner() == null)
-			return;
+			return data;
 
-		LoaddedInfo info = getLoaddedInfo();
-		
-		if(info != null){
-			if(info.cfgMatch(cfg)){
-				info = new LoaddedInfo(info.getProject(), info.getConfigurationId(), data);
-				setLoaddedInfo(info);
-				return;
-			}
-	
-			IConfiguration oldCfg = info.getConfiguration();
-			if(oldCfg != null){
-				storeData(oldCfg, info.getProperties());
+		IProject proj = cfg.getOwner().getProject();
+		while(true){
+			LoaddedInfo info = getLoaddedInfo();
+			// the configuration of the replaced data is looked up outside of the lock,
+			// since this may load the project description
+			IConfiguration oldCfg = null;
+			if(info != null && !info.cfgMatch(cfg))
+				oldCfg = info.getConfiguration();
+
+			synchronized(this){
+				if(getLoaddedInfo() != info)
+					continue;
+				
+				if(info != null){
+					if(info.cfgMatch(cfg))
+						return info.getProperties();
+					
+					if(oldCfg != null)
+						storeData(oldCfg, info.getProperties());
+				}
+				
+				setLoaddedInfo(new LoaddedInfo(proj, cfg.getId(), data));
+				return data;
 			}
 		}
-
-		IProject proj = cfg.getOwner().getProject();
-		info = new LoaddedInfo(proj, cfg.getId(), data);
-		setLoaddedInfo(info);
 	}
 
 	public void setProperty(IConfiguration cfg, String key, String value){
@@ -187,7 +187,7 @@ public class ResourceConfiguration extends ResourceInfo implements IFileInfo {
 		
 		//  Copy the remaining attributes
 		if (cloneConfig.toolsToInvoke != null) {
-			toolsToInvoke = new String(cloneConfig.toolsToInvoke);
+			toolsToInvoke = cloneConfig.toolsToInvoke;
 		}
 		if (cloneConfig.rcbsApplicability != null) {
 			rcbsApplicability = new Integer(cloneConfig.rcbsApplicability.intValue());
@@ -492,6 +492,7 @@ public class ResourceConfiguration extends ResourceInfo implements IFileInfo {
 	public void addTool(Tool tool) {
 		getToolList().add(tool);
 		getToolMap().put(tool.getId(), tool);
+		setDirty(true);
 		setRebuildState(true);
 	}
 
@@ -503,6 +504,8 @@ public class ResourceConfiguration extends ResourceInfo implements IFileInfo {
 	public void removeTool(ITool tool) {
 		getToolList().remove(tool);
 		getToolMap().remove(tool);
+		clearEnablementResults();
+		setDirty(true);
 		setRebuildState(true);
 	}
 
@@ -1024,7 +1027,9 @@ public class ResourceConfiguration extends ResourceInfo implements IFileInfo {
 			ITool tool = resultingTools[i];
 			map.put(tool.getId(), tool);
 		}
+		clearEnablementResults();
 		
+		setDirty(true);
 		setRebuildState(true);
 	}
 	
@@ -43,8 +43,11 @@ public abstract class ResourceInfo extends BuildObject implements IResourceInfo
 	private IPath path;
 	boolean isDirty;
 	boolean needsRebuild;
+	/** whether the storage element of the last serialization of the configuration holds the state of this info */
+	boolean isSerialized;
 	private ResourceInfoContainer rcInfo;
 	private CResourceData resourceData;
+	private EnablementResultCache enablementResults;
 
 	ResourceInfo(IConfiguration cfg, IManagedConfigElement element, boolean hasBody){
 		config = (Configuration)cfg;
@@ -61,6 +64,7 @@ public abstract class ResourceInfo extends BuildObject implements IResourceInfo
 
 		if(id.equals(base.getId())){
 			isDirty = base.isDirty;
+			isSerialized = base.isSerialized;
 			needsRebuild = base.needsRebuild;
 		} else {
 			needsRebuild = true;
@@ -196,6 +200,9 @@ public abstract class ResourceInfo extends BuildObject implements IResourceInfo
 
 	public void setDirty(boolean dirty) {
 		isDirty = dirty;
+		// Clean without being serialized, see Configuration#serializeChanges()
+		if(!dirty)
+			isSerialized = false;
 	}
 
 	public void setExclude(boolean excluded) {
@@ -221,6 +228,7 @@ public abstract class ResourceInfo extends BuildObject implements IResourceInfo
 		else if (!p.equals(normalizePath(this.path))) {
 			ResourceInfoContainer info = getRcInfo();
 			info.changeCurrentPath(p, true);
+			config.resourceInfosChanged();
 			this.path = p;
 			setDirty(true);
 			setRebuildState(true);
@@ -228,6 +236,20 @@ public abstract class ResourceInfo extends BuildObject implements IResourceInfo
 
 	}
 	
+	synchronized EnablementResultCache getEnablementResultCache(){
+		if(enablementResults == null)
+			enablementResults = new EnablementResultCache();
+		return enablementResults;
+	}
+
+	/*
+	 * drops the enablement results of the replaced tools
+	 */
+	synchronized void clearEnablementResults(){
+		if(enablementResults != null)
+			enablementResults.clear();
+	}
+
 	private ResourceInfoContainer getRcInfo(){
 		if(rcInfo == null)
 			rcInfo = (config).getRcInfoContainer(this);
@@ -0,0 +1,163 @@
+/*******************************************************************************
+ * Copyright (c) 2011 Broadcom Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Broadcom Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.cdt.managedbuilder.internal.core;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.IPath;
+
+/**
+ * Compact trie mapping resource paths to values, e.g. the resource infos of a configuration.
+ * <p>
+ * The path segments are mapped to integer ids once, the trie nodes keep the ids of their
+ * children in sorted arrays. Looking up a path takes one segment id lookup and one binary
+ * search per segment and allocates nothing, the cost depends on the depth of the path rather
+ * than on the number of paths in the trie.
+ * <p>
+ * A path is present in the trie once it was {@link #put(IPath, Object) put}, even with a
+ * <code>null</code> value. The nearest-ancestor query returns the value of the longest
+ * present prefix of the path.
+ * <p>
+ * The trie is not synchronized, it is meant to be filled once and then shared for reading.
+ *
+ * @since 8.0
+ */
+public final class ResourcePathTrie<V> {
+	private static final int NO_CHILDREN[] = new int[0];
+	private static final Node<?> NO_NODES[] = new Node<?>[0];
+
+	private final Map<String, Integer> fSegmentIds = new HashMap<String, Integer>();
+	private final Node<V> fRoot = new Node<V>();
+	private final int fStamp;
+
+	private static final class Node<V> {
+		private int fChildIds[] = NO_CHILDREN;
+		private Node<?> fChildren[] = NO_NODES;
+		private int fChildCount;
+		private boolean fPresent;
+		private V fValue;
+
+		@SuppressWarnings("unchecked")
+		Node<V> getChild(int segmentId){
+			int index = indexOf(segmentId);
+			return index >= 0 ? (Node<V>)fChildren[index] : null;
+		}
+
+		@SuppressWarnings("unchecked")
+		Node<V> createChild(int segmentId){
+			int index = indexOf(segmentId);
+			if(index >= 0)
+				return (Node<V>)fChildren[index];
+
+			index = -index - 1;
+			if(fChildCount == fChildIds.length){
+				int capacity = fChildCount == 0 ? 2 : fChildCount * 2;
+				int ids[] = new int[capacity];
+				Node<?> children[] = new Node<?>[capacity];
+				System.arraycopy(fChildIds, 0, ids, 0, fChildCount);
+				System.arraycopy(fChildren, 0, children, 0, fChildCount);
+				fChildIds = ids;
+				fChildren = children;
+			}
+			System.arraycopy(fChildIds, index, fChildIds, index + 1, fChildCount - index);
+			System.arraycopy(fChildren, index, fChildren, index + 1, fChildCount - index);
+			Node<V> child = new Node<V>();
+			fChildIds[index] = segmentId;
+			fChildren[index] = child;
+			fChildCount++;
+			return child;
+		}
+
+		private int indexOf(int segmentId){
+			int low = 0;
+			int high = fChildCount - 1;
+			while(low <= high){
+				int mid = (low + high) >>> 1;
+				int id = fChildIds[mid];
+				if(id < segmentId)
+					low = mid + 1;
+				else if(id > segmentId)
+					high = mid - 1;
+				else
+					return mid;
+			}
+			return -(low + 1);
+		}
+	}
+
+	public ResourcePathTrie(){
+		this(0);
+	}
+
+	/**
+	 * @param stamp the modification stamp of the paths the trie is built from,
+	 * see {@link #getStamp()}
+	 */
+	public ResourcePathTrie(int stamp){
+		fStamp = stamp;
+	}
+
+	public int getStamp(){
+		return fStamp;
+	}
+
+	/**
+	 * Adds the path to the trie and sets its value.
+	 */
+	public void put(IPath path, V value){
+		Node<V> node = fRoot;
+		int count = path.segmentCount();
+		for(int i = 0; i < count; i++){
+			String segment = path.segment(i);
+			Integer id = fSegmentIds.get(segment);
+			if(id == null){
+				id = Integer.valueOf(fSegmentIds.size());
+				fSegmentIds.put(segment, id);
+			}
+			node = node.createChild(id.intValue());
+		}
+		node.fPresent = true;
+		node.fValue = value;
+	}
+
+	/**
+	 * @return the value of the path, <code>null</code> if the path is not present
+	 */
+	public V get(IPath path){
+		Node<V> node = fRoot;
+		int count = path.segmentCount();
+		for(int i = 0; i < count && node != null; i++){
+			Integer id = fSegmentIds.get(path.segment(i));
+			node = id != null ? node.getChild(id.intValue()) : null;
+		}
+		return node != null && node.fPresent ? node.fValue : null;
+	}
+
+	/**
+	 * @return the value of the longest present prefix of the path, i.e. of the path itself
+	 * or of its nearest present ancestor, <code>null</code> if there is none
+	 */
+	public V getNearest(IPath path){
+		Node<V> node = fRoot;
+		V value = node.fValue;
+		int count = path.segmentCount();
+		for(int i = 0; i < count; i++){
+			Integer id = fSegmentIds.get(path.segment(i));
+			node = id != null ? node.getChild(id.intValue()) : null;
+			if(node == null)
+				break;
+			if(node.fPresent)
+				value = node.fValue;
+		}
+		return value;
+	}
+}
@@ -66,9 +66,11 @@ import org.eclipse.cdt.managedbuilder.internal.dataprovider.BuildLanguageData;
 import org.eclipse.cdt.managedbuilder.internal.enablement.OptionEnablementExpression;
 import org.eclipse.cdt.managedbuilder.internal.macros.BuildMacroProvider;
 import org.eclipse.cdt.managedbuilder.internal.macros.BuildfileMacroSubstitutor;
+import org.eclipse.cdt.managedbuilder.internal.macros.ExplicitFileMacroCollector;
 import org.eclipse.cdt.managedbuilder.internal.macros.FileContextData;
 import org.eclipse.cdt.managedbuilder.internal.macros.IMacroContextInfo;
 import org.eclipse.cdt.managedbuilder.internal.macros.IMacroContextInfoProvider;
+import org.eclipse.cdt.managedbuilder.internal.macros.MacroTemplate;
 import org.eclipse.cdt.managedbuilder.macros.IBuildMacroProvider;
 import org.eclipse.cdt.managedbuilder.makegen.IManagedDependencyGenerator;
 import org.eclipse.cdt.managedbuilder.makegen.IManagedDependencyGeneratorType;
@@ -169,6 +171,7 @@ public class Tool extends HoldsOptions implements ITool, IOptionCategory, IMatch
 	private List<Tool> identicalList;
 	private HashMap<String, PathInfoCache> discoveredInfoMap = new HashMap<String, PathInfoCache>(2);
 	private String scannerConfigDiscoveryProfileId;
+	private CommandFlagsCache[] commandFlagsCache = new CommandFlagsCache[2];
 
 	/*
 	 *  C O N S T R U C T O R S
@@ -2493,6 +2496,14 @@ public class Tool extends HoldsOptions implements ITool, IOptionCategory, IMatch
 				IMacroContextInfoProvider provider) {
 		IOption[] opts = getOptions();
 		ArrayList<String> flags = new ArrayList<String>();
+		addToolCommandFlags(opts, inputFileLocation, outputFileLocation, macroSubstitutor, provider, flags);
+		String[] f = new String[ flags.size() ];
+		return flags.toArray( f );
+	}
+
+	private void addToolCommandFlags(IOption[] opts, IPath inputFileLocation, IPath outputFileLocation,
+				SupplierBasedCdtVariableSubstitutor macroSubstitutor,
+				IMacroContextInfoProvider provider, List<String> flags) {
 		StringBuilder sb = new StringBuilder();
 		for (IOption option : opts) {
 			if (option == null)
@@ -2569,7 +2580,7 @@ public class Tool extends HoldsOptions implements ITool, IOptionCategory, IMatch
 						if(info != null){
 							macroSubstitutor.setMacroContextInfo(info);
 							if (val.length() > 0
-								&& (val = CdtVariableResolver.resolveToString(val, macroSubstitutor)).length() > 0) {
+								&& (val = MacroTemplate.resolveToString(val, macroSubstitutor)).length() > 0) {
 								sb.append( evaluateCommand( strCmd, val ) );
 							}
 						}
@@ -2641,8 +2652,107 @@ public class Tool extends HoldsOptions implements ITool, IOptionCategory, IMatch
 				}
 			}
 		}
-		String[] f = new String[ flags.size() ];
-		return flags.toArray( f );
+	}
+	
+	/**
+	 * Same as {@link #getToolCommandFlags(IPath, IPath, SupplierBasedCdtVariableSubstitutor, IMacroContextInfoProvider)},
+	 * but reuses the flags of the options whose values do not depend on the input and output
+	 * files from the previous invocation. The flags are recomputed once any option, configuration
+	 * setting, build macro or environment variable changes and at the start of every build,
+	 * see {@link NotificationManager#getModificationCount()}.
+	 *
+	 * @param explicitFileMacros <code>true</code> if the substitutor resolves all file macros
+	 * to explicit values, <code>false</code> if it resolves them to the builder automatic variables
+	 * where possible
+	 * @return the command flags with the build macros resolved
+	 * @since 8.0
+	 */
+	public String[] getToolCommandFlags(IPath inputFileLocation, IPath outputFileLocation,
+				SupplierBasedCdtVariableSubstitutor macroSubstitutor,
+				IMacroContextInfoProvider provider, boolean explicitFileMacros) {
+		if (isExtensionTool)
+			return getToolCommandFlags(inputFileLocation, outputFileLocation, macroSubstitutor, provider);
+
+		int modificationCount = NotificationManager.getInstance().getModificationCount();
+		int mode = explicitFileMacros ? 1 : 0;
+		CommandFlagsCache cache = commandFlagsCache[mode];
+		if (cache == null || cache.modificationCount != modificationCount) {
+			cache = new CommandFlagsCache(modificationCount, getOptions(), explicitFileMacros, provider);
+			commandFlagsCache[mode] = cache;
+		}
+
+		ArrayList<String> flags = new ArrayList<String>(cache.options.length);
+		for (int i = 0; i < cache.options.length; i++) {
+			String flag;
+			if (cache.recompute[i]) {
+				flag = getOptionCommandFlag(cache.options[i], inputFileLocation, outputFileLocation, macroSubstitutor, provider);
+			} else {
+				flag = cache.flags[i];
+				if (flag == null) {
+					// the flag is resolved with the first files passed, it does not depend on them
+					flag = getOptionCommandFlag(cache.options[i], inputFileLocation, outputFileLocation, macroSubstitutor, provider);
+					if (flag == null)
+						flag = EMPTY_STRING;
+					cache.flags[i] = flag;
+				}
+			}
+			if (flag != null && flag.length() != 0)
+				flags.add(flag);
+		}
+		return flags.toArray(new String[flags.size()]);
+	}
+
+	/**
+	 * The command flags of the options whose values do not depend on the input
+	 * and output files, valid for a single {@link NotificationManager} modification count
+	 */
+	private final class CommandFlagsCache {
+		final int modificationCount;
+		final IOption[] options;
+		/** Whether the flag of the option depends on the files or on state not tracked by the modification count */
+		final boolean[] recompute;
+		/** The resolved flags, empty for the options not contributing to the command line */
+		final String[] flags;
+
+		CommandFlagsCache(int modificationCount, IOption[] opts, boolean explicitFileMacros, IMacroContextInfoProvider provider) {
+			this.modificationCount = modificationCount;
+			List<IOption> list = new ArrayList<IOption>(opts.length);
+			for (IOption option : opts) {
+				if (option != null)
+					list.add(option);
+			}
+			options = list.toArray(new IOption[list.size()]);
+			recompute = new boolean[options.length];
+			flags = new String[options.length];
+
+			for (int i = 0; i < options.length; i++) {
+				IOption option = options[i];
+				IOptionApplicability applicabilityCalculator = option.getApplicabilityCalculator();
+				IOptionCategory cat = option.getCategory();
+				if (option.getCommandGenerator() != null
+						|| (applicabilityCalculator != null && !(applicabilityCalculator instanceof BooleanExpressionApplicabilityCalculator))
+						|| (cat != null && cat.getApplicabilityCalculator() != null)) {
+					// the generators and custom calculators may depend on anything
+					recompute[i] = true;
+					continue;
+				}
+				ExplicitFileMacroCollector collector = new ExplicitFileMacroCollector(null, explicitFileMacros);
+				getOptionCommandFlag(option, null, null, collector, provider);
+				recompute[i] = collector.getExplicisFileMacros().length != 0;
+			}
+		}
+	}
+
+	/**
+	 * @return the trimmed command line flag of the given option, or <code>null</code>
+	 * if the option does not contribute to the command line
+	 */
+	private String getOptionCommandFlag(IOption option, IPath inputFileLocation, IPath outputFileLocation,
+				SupplierBasedCdtVariableSubstitutor macroSubstitutor,
+				IMacroContextInfoProvider provider) {
+		List<String> flags = new ArrayList<String>(1);
+		addToolCommandFlags(new IOption[] { option }, inputFileLocation, outputFileLocation, macroSubstitutor, provider, flags);
+		return flags.isEmpty() ? null : flags.get(0);
 	}
 	
 	/* (non-Javadoc)
@@ -2650,7 +2760,7 @@ public class Tool extends HoldsOptions implements ITool, IOptionCategory, IMatch
 	 */
 	public String[] getToolCommandFlags(IPath inputFileLocation, IPath outputFileLocation) throws BuildException{
 		SupplierBasedCdtVariableSubstitutor macroSubstitutor = new BuildfileMacroSubstitutor(null,EMPTY_STRING,WHITE_SPACE);
-		return getToolCommandFlags(inputFileLocation, outputFileLocation, macroSubstitutor, BuildMacroProvider.getDefault() );
+		return getToolCommandFlags(inputFileLocation, outputFileLocation, macroSubstitutor, BuildMacroProvider.getDefault(), false);
 	}
 	
 	/* (non-Javadoc)
@@ -3752,6 +3862,8 @@ public class Tool extends HoldsOptions implements ITool, IOptionCategory, IMatch
 	
 	public void resetErrorParsers(){
 		errorParserIds = null;
+		if(!isExtensionTool)
+			setDirty(true);
 	}
 	
 	void removeErrorParsers(Set<String> set){
@@ -3776,6 +3888,8 @@ public class Tool extends HoldsOptions implements ITool, IOptionCategory, IMatch
 			}
 			errorParserIds = buf.toString();
 		}
+		if(!isExtensionTool)
+			setDirty(true);
 	}
 
 	public boolean isSystemObject() {
@@ -930,6 +930,8 @@ public class ToolChain extends HoldsOptions implements IToolChain, IMatchKeyProv
 	
 	public void setBuilder(Builder builder){
 		this.builder = builder;
+		if(!isExtensionElement())
+			setDirty(true);
 	}
 
 	/* (non-Javadoc)
@@ -1115,6 +1117,8 @@ public class ToolChain extends HoldsOptions implements IToolChain, IMatchKeyProv
 	public void addTool(Tool tool) {
 		getToolList().add(tool);
 		getToolMap().put(tool.getId(), tool);
+		if(!isExtensionElement())
+			setDirty(true);
 	}
 	
 	void setToolsInternal(ITool[] tools){
@@ -1128,11 +1132,15 @@ public class ToolChain extends HoldsOptions implements IToolChain, IMatchKeyProv
 			list.add((Tool)t);
 			map.put(t.getId(), (Tool)t);
 		}
+		if(!isExtensionElement())
+			setDirty(true);
 	}
 	
 	public void removeTool(Tool tool){
 		getToolList().remove(tool);
 		getToolMap().remove(tool.getId());
+		if(!isExtensionElement())
+			setDirty(true);
 		ITool extTool = ManagedBuildManager.getExtensionTool(tool);
 		if(extTool.getParent() == getSuperClass())
 			addUnusedChild(extTool);
@@ -2107,6 +2115,8 @@ public class ToolChain extends HoldsOptions implements IToolChain, IMatchKeyProv
 	
 	void setTargetPlatform(TargetPlatform tp){
 		targetPlatform = tp;
+		if(!isExtensionElement())
+			setDirty(true);
 	}
 
 	public CTargetPlatformData getTargetPlatformData() {
@@ -2474,6 +2484,8 @@ public class ToolChain extends HoldsOptions implements IToolChain, IMatchKeyProv
 	
 	void setNonInternalBuilderId(String id){
 		nonInternalBuilderId = id;
+		if(!isExtensionElement())
+			setDirty(true);
 	}
 	
 	String getNonInternalBuilderId(){
@@ -2488,6 +2500,8 @@ public class ToolChain extends HoldsOptions implements IToolChain, IMatchKeyProv
 	
 	public void resetErrorParsers(FolderInfo info){
 		errorParserIds = null;
+		if(!isExtensionElement())
+			setDirty(true);
 		info.resetErrorParsers(info.getFilteredTools());
 		
 		if(info.isRoot()){
@@ -2527,6 +2541,8 @@ public class ToolChain extends HoldsOptions implements IToolChain, IMatchKeyProv
 			}
 			errorParserIds = buf.toString();
 		}
+		if(!isExtensionElement())
+			setDirty(true);
 	}
 	
 	public String getUniqueRealName() {
@@ -2571,6 +2587,8 @@ public class ToolChain extends HoldsOptions implements IToolChain, IMatchKeyProv
 
 	public void setPerRcTypeDiscovery(boolean on){
 		isRcTypeBasedDiscovery = Boolean.valueOf(on);
+		if(!isExtensionElement())
+			setDirty(true);
 	}
 
 	public PathInfoCache setDiscoveredPathInfo(PathInfoCache info){
@@ -2653,6 +2671,8 @@ public class ToolChain extends HoldsOptions implements IToolChain, IMatchKeyProv
 		set.add(tool.getId());
 		unusedChildrenSet = set;
 		unusedChildren = translateUnusedIdSetToString(set);
+		if(!isExtensionElement())
+			setDirty(true);
 	}
 	
 	void setUnusedChildren(String children){
@@ -2661,6 +2681,8 @@ public class ToolChain extends HoldsOptions implements IToolChain, IMatchKeyProv
 		
 		unusedChildrenSet = null;
 		unusedChildren = children;
+		if(!isExtensionElement())
+			setDirty(true);
 	}
 	
 	private String translateUnusedIdSetToString(Set<String> set){
@@ -17,6 +17,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.cdt.build.internal.core.scannerconfig2.CfgScannerConfigInfoFactory2;
 import org.eclipse.cdt.core.model.ILanguageDescriptor;
@@ -42,6 +50,7 @@ import org.eclipse.cdt.managedbuilder.core.ITool;
 import org.eclipse.cdt.managedbuilder.core.IToolChain;
 import org.eclipse.cdt.managedbuilder.core.ManagedBuildManager;
 import org.eclipse.cdt.managedbuilder.core.ManagedBuilderCorePlugin;
+import org.eclipse.cdt.managedbuilder.internal.core.BuildDbgUtil;
 import org.eclipse.cdt.managedbuilder.internal.core.Builder;
 import org.eclipse.cdt.managedbuilder.internal.core.BuilderFactory;
 import org.eclipse.cdt.managedbuilder.internal.core.Configuration;
@@ -49,9 +58,11 @@ import org.eclipse.cdt.managedbuilder.internal.core.ISettingsChangeListener;
 import org.eclipse.cdt.managedbuilder.internal.core.InputType;
 import org.eclipse.cdt.managedbuilder.internal.core.ManagedBuildInfo;
 import org.eclipse.cdt.managedbuilder.internal.core.ManagedProject;
+import org.eclipse.cdt.managedbuilder.internal.core.MapStorageElement;
 import org.eclipse.cdt.managedbuilder.internal.core.NotificationManager;
 import org.eclipse.cdt.managedbuilder.internal.core.SettingsChangeEvent;
 import org.eclipse.cdt.managedbuilder.internal.core.Tool;
+import org.eclipse.cdt.managedbuilder.internal.envvar.EnvironmentVariableProvider;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IProjectDescription;
 import org.eclipse.core.resources.IWorkspaceRunnable;
@@ -73,6 +84,7 @@ public class ConfigurationDataProvider extends CConfigurationDataProvider implem
 	private static final QualifiedName CFG_PERSISTED_PROPERTY = new QualifiedName(ManagedBuilderCorePlugin.getUniqueIdentifier(), "configPersisted");	//$NON-NLS-1$
 	private static final QualifiedName NATURES_USED_ON_CACHE_PROPERTY = new QualifiedName(ManagedBuilderCorePlugin.getUniqueIdentifier(), "naturesUsedOnCache");	//$NON-NLS-1$
 	private static final QualifiedName BUILD_INFO_PROPERTY = new QualifiedName(ManagedBuilderCorePlugin.getUniqueIdentifier(), "buildInfo");	//$NON-NLS-1$
+	private static final QualifiedName CONFIGURATION_LOADER_PROPERTY = new QualifiedName(ManagedBuilderCorePlugin.getUniqueIdentifier(), "configurationLoader");	//$NON-NLS-1$
 	
 	private static boolean registered;
 	
@@ -83,6 +95,140 @@ public class ConfigurationDataProvider extends CConfigurationDataProvider implem
 		}
 	}
 
+	/**
+	 * Deserializes the configurations of a project description concurrently.
+	 * <p>
+	 * The core loads the configurations of a project description one after the other. When the
+	 * first one is requested, all the configurations of the description are constructed on worker
+	 * threads from in-memory copies of their storage elements, the storage of the description is
+	 * not read concurrently. {@link ConfigurationDataProvider#loadConfiguration} then takes the
+	 * configurations in the order the core requests them, adds them to the managed project and
+	 * sends the value handler events on the loading thread, as the serial load does.
+	 * <p>
+	 * The loaders of all the projects share one pool of worker threads, bounded by the number
+	 * of processors. The worker threads exit when they are idle.
+	 */
+	private static class ConfigurationLoader {
+		private static final int WORKERS = Runtime.getRuntime().availableProcessors();
+		private static final long WORKER_KEEP_ALIVE = 5;
+
+		private static final class Workers {
+			static final ThreadPoolExecutor fExecutor = createExecutor();
+		}
+
+		private final IProject fProject;
+		private final ManagedProject fManagedProject;
+		private final Map<String, FutureTask<Configuration>> fTasks = new HashMap<String, FutureTask<Configuration>>();
+		private final long fStartTime = System.currentTimeMillis();
+		private final int fCount;
+
+		private ConfigurationLoader(ICProjectDescription des, ManagedProject mProj){
+			fProject = des.getProject();
+			fManagedProject = mProj;
+
+			ICConfigurationDescription cfgDess[] = des.getConfigurations();
+			for(int i = 0; i < cfgDess.length; i++){
+				ICConfigurationDescription cfgDes = cfgDess[i];
+				if(cfgDes.isPreferenceConfiguration())
+					continue;
+				try {
+					ICStorageElement rootElement = cfgDes.getStorage(BUILD_SYSTEM_DATA_MODULE_NAME, false);
+					if(rootElement == null)
+						continue;
+					final String version = rootElement.getAttribute(VERSION_ATTRIBUTE);
+					ICStorageElement children[] = rootElement.getChildren();
+					for(int k = 0; k < children.length; k++){
+						if(IConfiguration.CONFIGURATION_ELEMENT_NAME.equals(children[k].getName())){
+							final ICStorageElement element = new MapStorageElement(children[k].getName(), null);
+							copy(children[k], element);
+							fTasks.put(cfgDes.getId(), new FutureTask<Configuration>(new Callable<Configuration>() {
+								public Configuration call() {
+									return new Configuration(fManagedProject, element, version, false, false);
+								}
+							}));
+							break;
+						}
+					}
+				} catch (CoreException e) {
+					// the configuration is loaded serially
+				}
+			}
+			fCount = fTasks.size();
+		}
+
+		/**
+		 * Starts loading the configurations of the project description.
+		 *
+		 * @return the loader, <code>null</code> if the configurations are loaded serially
+		 */
+		static ConfigurationLoader start(ICProjectDescription des, ManagedProject mProj){
+			if(WORKERS < 2 || des.getConfigurations().length < 2)
+				return null;
+
+			ConfigurationLoader loader = new ConfigurationLoader(des, mProj);
+			for(FutureTask<Configuration> task : loader.fTasks.values())
+				Workers.fExecutor.execute(task);
+			return loader;
+		}
+
+		private static ThreadPoolExecutor createExecutor(){
+			ThreadPoolExecutor executor = new ThreadPoolExecutor(WORKERS, WORKERS,
+					WORKER_KEEP_ALIVE, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(),
+					new ThreadFactory() {
+						private final AtomicInteger fCount = new AtomicInteger();
+
+						public Thread newThread(Runnable r) {
+							Thread thread = new Thread(r, "Configuration Loader " + fCount.incrementAndGet()); //$NON-NLS-1$
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+			executor.allowCoreThreadTimeOut(true);
+			return executor;
+		}
+
+		private static void copy(ICStorageElement from, ICStorageElement to){
+			String names[] = from.getAttributeNames();
+			for(int i = 0; i < names.length; i++)
+				to.setAttribute(names[i], from.getAttribute(names[i]));
+			String value = from.getValue();
+			if(value != null)
+				to.setValue(value);
+			ICStorageElement children[] = from.getChildren();
+			for(int i = 0; i < children.length; i++)
+				copy(children[i], to.createChild(children[i].getName()));
+		}
+
+		/**
+		 * @return the configuration loaded for the description, <code>null</code> if the
+		 * configuration has to be loaded serially
+		 */
+		Configuration take(ICConfigurationDescription des, ManagedProject mProj){
+			FutureTask<Configuration> task = fTasks.remove(des.getId());
+			if(task == null)
+				return null;
+
+			// runs the task on this thread unless a worker already took it
+			task.run();
+			Configuration cfg = null;
+			try {
+				cfg = task.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				// the configuration is loaded serially
+				ManagedBuilderCorePlugin.log(e.getCause());
+			}
+
+			if(BuildDbgUtil.DEBUG && fTasks.isEmpty())
+				BuildDbgUtil.getInstance().traceln(BuildDbgUtil.BUILD_INFO_LOAD, "build info load: " + fCount //$NON-NLS-1$
+						+ " configurations of project " + fProject.getName() + " loaded concurrently in " //$NON-NLS-1$ //$NON-NLS-2$
+						+ (System.currentTimeMillis() - fStartTime) + " ms"); //$NON-NLS-1$
+
+			return mProj == fManagedProject ? cfg : null;
+		}
+	}
+
 	private static class DesApplyRunnable implements IWorkspaceRunnable {
 		IBuilder fBuilder;
 		IProject fProject;
@@ -108,10 +254,15 @@ public class ConfigurationDataProvider extends CConfigurationDataProvider implem
 			BuildConfigurationData base) throws CoreException {
 		BuildConfigurationData appliedCfg = base;
 		ICStorageElement rootElement = des.getStorage(BUILD_SYSTEM_DATA_MODULE_NAME, true);
-		rootElement.clear();
-		rootElement.setAttribute(VERSION_ATTRIBUTE, ManagedBuildManager.getVersion().toString());
-		ICStorageElement cfgElemen = rootElement.createChild(IConfiguration.CONFIGURATION_ELEMENT_NAME);
 		Configuration cfg = (Configuration)appliedCfg.getConfiguration();
+		String version = ManagedBuildManager.getVersion().toString();
+		ICStorageElement cfgElemen = getSerializedConfigurationElement(rootElement, cfg, version);
+		boolean serializeChanges = cfgElemen != null;
+		if(!serializeChanges){
+			rootElement.clear();
+			rootElement.setAttribute(VERSION_ATTRIBUTE, version);
+			cfgElemen = rootElement.createChild(IConfiguration.CONFIGURATION_ELEMENT_NAME);
+		}
 		Builder b = (Builder)cfg.getEditableBuilder();
 		// Need to ensure that build macro supplier can get the description for this configuration during the write...
 		cfg.setConfigurationDescription(des);
@@ -121,10 +272,31 @@ public class ConfigurationDataProvider extends CConfigurationDataProvider implem
 		}
 //		cfg.setConfigurationDescription(des);
 //		ManagedBuildManager.performValueHandlerEvent(cfg, IManagedOptionValueHandler.EVENT_APPLY);
-		cfg.serialize(cfgElemen);
+		if(serializeChanges)
+			cfg.serializeChanges(cfgElemen);
+		else
+			cfg.serialize(cfgElemen);
 		
 		return appliedCfg;
 	}
+
+	/**
+	 * @return the configuration element of the storage if it holds a serialization of the configuration
+	 * written with the given version that can be updated with {@link Configuration#serializeChanges(ICStorageElement)},
+	 * <code>null</code> if the storage has to be written in full
+	 */
+	private static ICStorageElement getSerializedConfigurationElement(ICStorageElement rootElement,
+			Configuration cfg, String version){
+		if(!version.equals(rootElement.getAttribute(VERSION_ATTRIBUTE))
+				|| rootElement.getAttributeNames().length != 1)
+			return null;
+		ICStorageElement children[] = rootElement.getChildren();
+		if(children.length != 1
+				|| !IConfiguration.CONFIGURATION_ELEMENT_NAME.equals(children[0].getName())
+				|| !cfg.getId().equals(children[0].getAttribute(IConfiguration.ID)))
+			return null;
+		return children[0];
+	}
 	
 	protected CConfigurationData applyPreferences(
 			ICConfigurationDescription des, CConfigurationData base) throws CoreException{
@@ -275,8 +447,10 @@ public class ConfigurationDataProvider extends CConfigurationDataProvider implem
 		ICProjectDescription projDes = des.getProjectDescription();
 		IProject project = projDes.getProject();
 		IManagedBuildInfo info = ManagedBuildManager.getBuildInfo(project, false);
-		if(info == null)
-			info = ManagedBuildManager.createBuildInfo(project);
+		if(info == null){
+			// keep the build info registered by a thread loading the project concurrently
+			info = ManagedBuildManager.createBuildInfoIfAbsent(project);
+		}
 		
 		setLoaddedBuildInfo(projDes, info);
 		
@@ -294,11 +468,13 @@ public class ConfigurationDataProvider extends CConfigurationDataProvider implem
 	}
 
 	private static IManagedProject getManagedProject(ICConfigurationDescription des, IManagedBuildInfo info){
-		IManagedProject mProj = info.getManagedProject();
-		if(mProj == null){
-			mProj = createManagedProject(info, des.getProjectDescription());
+		synchronized(info){
+			IManagedProject mProj = info.getManagedProject();
+			if(mProj == null){
+				mProj = createManagedProject(info, des.getProjectDescription());
+			}
+			return mProj;
 		}
-		return mProj;
 	}
 	
 	private static IManagedProject createManagedProject(IManagedBuildInfo info, ICProjectDescription des){
@@ -538,7 +714,10 @@ public class ConfigurationDataProvider extends CConfigurationDataProvider implem
 			return loadPreferences(des);
 		
 		IManagedBuildInfo info = getBuildInfo(des);
-		Configuration cfg = load(des, (ManagedProject)info.getManagedProject(), false);
+		ManagedProject mProj = (ManagedProject)info.getManagedProject();
+		Configuration cfg = loadConcurrently(des, mProj);
+		if(cfg == null)
+			cfg = load(des, mProj, false);
 		
 		if(cfg != null){
 			cfg.setConfigurationDescription(des);
@@ -553,6 +732,30 @@ public class ConfigurationDataProvider extends CConfigurationDataProvider implem
 		return null;
 	}
 	
+	/**
+	 * @return the configuration constructed by the concurrent load of the configurations of
+	 * the project description, <code>null</code> if the configuration has to be loaded serially
+	 */
+	private Configuration loadConcurrently(ICConfigurationDescription des, ManagedProject mProj){
+		ICProjectDescription projDes = des.getProjectDescription();
+		ConfigurationLoader loader = (ConfigurationLoader)projDes.getSessionProperty(CONFIGURATION_LOADER_PROPERTY);
+		if(loader == null){
+			loader = ConfigurationLoader.start(projDes, mProj);
+			if(loader == null)
+				return null;
+			// kept for the life of the description so that the configurations are loaded once
+			projDes.setSessionProperty(CONFIGURATION_LOADER_PROPERTY, loader);
+		}
+
+		Configuration cfg = loader.take(des, mProj);
+		if(cfg == null)
+			return null;
+
+		mProj.addConfiguration(cfg);
+		ManagedBuildManager.performValueHandlerEvent(cfg, IManagedOptionValueHandler.EVENT_OPEN);
+		return cfg;
+	}
+
 	private boolean isPersistedCfg(ICConfigurationDescription cfgDes){
 		return cfgDes.getSessionProperty(CFG_PERSISTED_PROPERTY) != null;
 	}
@@ -580,6 +783,7 @@ public class ConfigurationDataProvider extends CConfigurationDataProvider implem
 		IManagedBuildInfo info = getBuildInfo(des);
 		IManagedProject mProj = info.getManagedProject();
 		mProj.removeConfiguration(cfg.getId());
+		EnvironmentVariableProvider.getDefault().invalidateSnapshot(cfg);
 	}
 
 	@Override
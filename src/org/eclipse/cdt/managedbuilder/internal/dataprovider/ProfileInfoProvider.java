@@ -27,7 +27,9 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IPath;
 
 public class ProfileInfoProvider {
-	private static ProfileInfoProvider fInstance;
+	private static final class Holder {
+		static final ProfileInfoProvider fInstance = new ProfileInfoProvider();
+	}
 //	private BuildLanguageData fLlanguageData;
 //	private IProject fProject;
 //    private CfgInfoContext fContext;
@@ -43,9 +45,7 @@ public class ProfileInfoProvider {
 	}
 	
 	public static ProfileInfoProvider getInstance(){
-		if(fInstance == null)
-			fInstance = new ProfileInfoProvider();
-		return fInstance;
+		return Holder.fInstance;
 	}
 	
 //	void checkUpdateInputType(IInputType inType){
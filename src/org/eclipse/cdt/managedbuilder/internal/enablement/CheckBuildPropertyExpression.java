@@ -11,6 +11,8 @@
  *******************************************************************************/
 package org.eclipse.cdt.managedbuilder.internal.enablement;
 
+import java.util.List;
+
 import org.eclipse.cdt.managedbuilder.buildproperties.IBuildProperty;
 import org.eclipse.cdt.managedbuilder.core.IConfiguration;
 import org.eclipse.cdt.managedbuilder.core.IHoldsOptions;
@@ -109,6 +111,14 @@ public class CheckBuildPropertyExpression implements IBooleanExpression {
 		return prop;
 	}
 	
+	/**
+	 * Adds the value of the build property read by the expression to the inputs.
+	 */
+	void collectInputs(IResourceInfo rcInfo, List<Object> inputs){
+		IBuildProperty prop = getBuildProperty(rcInfo.getParent(), fPropertyId);
+		inputs.add(prop != null ? prop.getValue().getId() : null);
+	}
+
 	public String getPropertyId(){
 		return fPropertyId;
 	}
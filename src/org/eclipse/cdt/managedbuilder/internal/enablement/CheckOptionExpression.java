@@ -244,6 +244,40 @@ public class CheckOptionExpression implements IBooleanExpression {
 		return false;		
 	}
 	
+	/**
+	 * @return whether the values compared by the expression contain macro references,
+	 * in which case the result depends on the macro values
+	 */
+	boolean hasMacroReferences(){
+		return fValue != null && fValue.indexOf(CompiledEnablementExpression.MACRO_PREFIX) != -1;
+	}
+
+	/**
+	 * Adds the options and option values read by the expression in the given context
+	 * to the inputs.
+	 * 
+	 * @return <code>false</code> if an option value contains macro references
+	 */
+	boolean collectInputs(IResourceInfo rcInfo, IHoldsOptions holder, IOption option, List<Object> inputs){
+		if(!collectInputs(getHolderAndOption(fOptionId, fHolderId, rcInfo, holder, option), inputs))
+			return false;
+		if(fValue == null)
+			return collectInputs(getHolderAndOption(fOtherOptionId, fOtherHolderId, rcInfo, holder, option), inputs);
+		return true;
+	}
+
+	private boolean collectInputs(IBuildObject ho[], List<Object> inputs){
+		IOption opt = ho != null ? (IOption)ho[1] : null;
+		if(opt == null){
+			inputs.add(null);
+			return true;
+		}
+		Object value = opt.getValue();
+		inputs.add(opt);
+		inputs.add(value);
+		return !CompiledEnablementExpression.hasMacroReferences(value);
+	}
+
 	protected IBuildObject[] getHolderAndOption(String optionId,
 			String holderId,
 			IResourceInfo rcInfo, 
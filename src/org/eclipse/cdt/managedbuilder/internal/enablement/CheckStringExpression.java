@@ -48,6 +48,15 @@ public class CheckStringExpression implements IBooleanExpression {
 		fIsRegex = OptionEnablementExpression.getBooleanValue(element.getAttribute(IS_REGEX));
 	}
 	
+	/**
+	 * @return whether the strings compared contain macro references, otherwise
+	 * the result is constant
+	 */
+	boolean hasMacroReferences(){
+		return fString.indexOf(CompiledEnablementExpression.MACRO_PREFIX) != -1
+			|| fValue.indexOf(CompiledEnablementExpression.MACRO_PREFIX) != -1;
+	}
+
 	public boolean evaluate(IResourceInfo rcInfo, 
             IHoldsOptions holder, 
             IOption option) {
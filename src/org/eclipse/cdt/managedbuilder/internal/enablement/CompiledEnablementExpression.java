@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright (c) 2011 Broadcom Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Broadcom Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.cdt.managedbuilder.internal.enablement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.cdt.managedbuilder.core.IHoldsOptions;
+import org.eclipse.cdt.managedbuilder.core.IOption;
+import org.eclipse.cdt.managedbuilder.core.IResourceInfo;
+
+/**
+ * Flattened form of a set of enablement expressions, listing the option checks and
+ * build property checks the expressions depend on.
+ * <p>
+ * The result of the expressions is a function of the options and option values read by
+ * the option checks, the build property values read by the property checks and the
+ * evaluation context. It can therefore be memoized as long as those inputs do not change,
+ * see {@link #readInputs(IResourceInfo, IHoldsOptions, IOption)}. Expressions whose result
+ * depends on anything else, i.e. on macro values or on the project natures, are not
+ * {@link #isMemoizable() memoizable}.
+ *
+ * @since 8.0
+ */
+public final class CompiledEnablementExpression {
+	static final String MACRO_PREFIX = "${"; //$NON-NLS-1$
+
+	private final boolean fMemoizable;
+	private final CheckOptionExpression fOptionChecks[];
+	private final CheckBuildPropertyExpression fPropertyChecks[];
+
+	public CompiledEnablementExpression(OptionEnablementExpression expressions[]){
+		List<CheckOptionExpression> optionChecks = new ArrayList<CheckOptionExpression>();
+		List<CheckBuildPropertyExpression> propertyChecks = new ArrayList<CheckBuildPropertyExpression>();
+		boolean memoizable = true;
+		for(int i = 0; i < expressions.length; i++){
+			if(!collect(expressions[i], optionChecks, propertyChecks))
+				memoizable = false;
+		}
+		fMemoizable = memoizable;
+		fOptionChecks = optionChecks.toArray(new CheckOptionExpression[optionChecks.size()]);
+		fPropertyChecks = propertyChecks.toArray(new CheckBuildPropertyExpression[propertyChecks.size()]);
+	}
+
+	/**
+	 * Collects the option and build property checks of the expression tree.
+	 *
+	 * @return <code>false</code> if the expression depends on inputs other than
+	 * the checked options and build properties
+	 */
+	private static boolean collect(IBooleanExpression expression,
+			List<CheckOptionExpression> optionChecks,
+			List<CheckBuildPropertyExpression> propertyChecks){
+		if(expression instanceof CompositeExpression){
+			boolean memoizable = true;
+			IBooleanExpression children[] = ((CompositeExpression)expression).getChildren();
+			for(int i = 0; i < children.length; i++){
+				if(!collect(children[i], optionChecks, propertyChecks))
+					memoizable = false;
+			}
+			return memoizable;
+		}
+		if(expression instanceof CheckOptionExpression){
+			CheckOptionExpression check = (CheckOptionExpression)expression;
+			optionChecks.add(check);
+			return !check.hasMacroReferences();
+		}
+		if(expression instanceof CheckBuildPropertyExpression){
+			propertyChecks.add((CheckBuildPropertyExpression)expression);
+			return true;
+		}
+		if(expression instanceof CheckStringExpression)
+			return !((CheckStringExpression)expression).hasMacroReferences();
+		// the holder checks and constants only depend on the context
+		return expression instanceof CheckHolderExpression
+			|| expression instanceof FalseExpression;
+	}
+
+	/**
+	 * @return whether the result of the expressions is determined by the evaluation
+	 * context and the inputs returned by {@link #readInputs(IResourceInfo, IHoldsOptions, IOption)}
+	 */
+	public boolean isMemoizable(){
+		return fMemoizable;
+	}
+
+	/**
+	 * Reads the current values of the inputs of the expressions in the given context.
+	 * Two equal arrays of inputs yield the same result of the expressions.
+	 *
+	 * @return the inputs, or <code>null</code> if the result also depends on the
+	 * macros referenced by the option values read
+	 */
+	public Object[] readInputs(IResourceInfo rcInfo, IHoldsOptions holder, IOption option){
+		if(!fMemoizable)
+			return null;
+		List<Object> inputs = new ArrayList<Object>();
+		for(int i = 0; i < fOptionChecks.length; i++){
+			if(!fOptionChecks[i].collectInputs(rcInfo, holder, option, inputs))
+				return null;
+		}
+		for(int i = 0; i < fPropertyChecks.length; i++){
+			fPropertyChecks[i].collectInputs(rcInfo, inputs);
+		}
+		return inputs.toArray();
+	}
+
+	static boolean hasMacroReferences(Object value){
+		if(value instanceof String)
+			return ((String)value).indexOf(MACRO_PREFIX) != -1;
+		if(value instanceof List<?>){
+			for(Object element : (List<?>)value){
+				if(hasMacroReferences(element))
+					return true;
+			}
+		}
+		return false;
+	}
+}
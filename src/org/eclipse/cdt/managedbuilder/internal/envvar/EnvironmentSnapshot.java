@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright (c) 2011 Broadcom Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Broadcom Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.cdt.managedbuilder.internal.envvar;
+
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.cdt.core.envvar.IEnvironmentVariable;
+import org.eclipse.cdt.core.settings.model.ICConfigurationDescription;
+
+/**
+ * Immutable view of the resolved build environment of a configuration.
+ * <p>
+ * The snapshot holds the variables together with the <code>NAME=VALUE</code> strings passed
+ * to the launched processes, so that they are computed once and shared by all the build steps
+ * and launches of the configuration. Snapshots are created and invalidated by the
+ * {@link EnvironmentVariableProvider}, see {@link EnvironmentVariableProvider#getSnapshot}.
+ *
+ * @since 8.0
+ */
+public final class EnvironmentSnapshot {
+	private static final AtomicLong fVersions = new AtomicLong();
+
+	private final long fVersion;
+	// the description references the configuration the snapshot is kept for
+	private final WeakReference<ICConfigurationDescription> fDes;
+	private final int fModificationCount;
+	private final boolean fCaseSensitive;
+	private final IEnvironmentVariable fVariables[];
+	private final Map<String, IEnvironmentVariable> fVariablesMap;
+	private final Map<String, String> fEnvironment;
+	private final String fEnvironmentStrings[];
+	private final AtomicBoolean fBuildPathsChecked = new AtomicBoolean();
+
+	EnvironmentSnapshot(ICConfigurationDescription des, int modificationCount, IEnvironmentVariable vars[], boolean caseSensitive){
+		fVersion = fVersions.incrementAndGet();
+		fDes = new WeakReference<ICConfigurationDescription>(des);
+		fModificationCount = modificationCount;
+		fCaseSensitive = caseSensitive;
+		fVariables = vars != null ? vars.clone() : new IEnvironmentVariable[0];
+
+		Map<String, IEnvironmentVariable> varMap = new HashMap<String, IEnvironmentVariable>(fVariables.length * 2);
+		Map<String, String> env = new LinkedHashMap<String, String>(fVariables.length * 2);
+		for(int i = 0; i < fVariables.length; i++){
+			IEnvironmentVariable var = fVariables[i];
+			varMap.put(getKey(var.getName()), var);
+			env.put(var.getName(), var.getValue());
+		}
+		fVariablesMap = varMap;
+		fEnvironment = Collections.unmodifiableMap(env);
+
+		fEnvironmentStrings = new String[env.size()];
+		int i = 0;
+		for(Map.Entry<String, String> entry : env.entrySet()){
+			fEnvironmentStrings[i++] = entry.getKey() + '=' + entry.getValue();
+		}
+	}
+
+	private String getKey(String name){
+		return fCaseSensitive ? name : name.toUpperCase();
+	}
+
+	boolean isValid(ICConfigurationDescription des, int modificationCount){
+		return fDes.get() == des && fModificationCount == modificationCount;
+	}
+
+	/**
+	 * @return <code>true</code> for the first caller only, which checks the build path
+	 * variables of the snapshot
+	 */
+	boolean markBuildPathsChecked(){
+		return fBuildPathsChecked.compareAndSet(false, true);
+	}
+
+	/**
+	 * @return the version of the snapshot, a newer snapshot has a greater version
+	 */
+	public long getVersion(){
+		return fVersion;
+	}
+
+	public IEnvironmentVariable[] getVariables(){
+		return fVariables.clone();
+	}
+
+	public IEnvironmentVariable getVariable(String name){
+		if(name == null)
+			return null;
+		return fVariablesMap.get(getKey(name));
+	}
+
+	/**
+	 * @return the unmodifiable map of the variable values keyed by the variable names
+	 */
+	public Map<String, String> getEnvironment(){
+		return fEnvironment;
+	}
+
+	/**
+	 * @return the environment in the <code>NAME=VALUE</code> form expected by process launchers
+	 */
+	public String[] getEnvironmentStrings(){
+		return fEnvironmentStrings.clone();
+	}
+}
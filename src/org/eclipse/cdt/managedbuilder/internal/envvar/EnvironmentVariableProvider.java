@@ -13,6 +13,8 @@ package org.eclipse.cdt.managedbuilder.internal.envvar;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.cdt.core.envvar.IEnvironmentVariable;
@@ -28,6 +30,7 @@ import org.eclipse.cdt.managedbuilder.envvar.IBuildEnvironmentVariable;
 import org.eclipse.cdt.managedbuilder.envvar.IEnvironmentBuildPathsChangeListener;
 import org.eclipse.cdt.managedbuilder.envvar.IEnvironmentVariableProvider;
 import org.eclipse.cdt.managedbuilder.envvar.IEnvironmentVariableSupplier;
+import org.eclipse.cdt.managedbuilder.internal.core.NotificationManager;
 import org.eclipse.cdt.utils.envvar.EnvVarOperationProcessor;
 
 /**
@@ -44,13 +47,16 @@ public class EnvironmentVariableProvider implements
 //	private static final String DELIMITER_WIN32 = ";";  //$NON-NLS-1$
 //	private static final String DELIMITER_UNIX = ":";  //$NON-NLS-1$
 	
-	private static EnvironmentVariableProvider fInstance = null;
+	private static final class Holder {
+		static final EnvironmentVariableProvider fInstance = createDefault();
+	}
 	private List<IEnvironmentBuildPathsChangeListener> fListeners = null;
 	private IEnvironmentVariableManager fMngr;
 	private boolean fBuildPathVarCheckAllowed;
 
 	private StoredBuildPathEnvironmentContainer fIncludeStoredBuildPathVariables;
 	private StoredBuildPathEnvironmentContainer fLibraryStoredBuildPathVariables;
+	private final Map<IConfiguration, EnvironmentSnapshot> fSnapshots = new WeakHashMap<IConfiguration, EnvironmentSnapshot>();
 	
 	/**
 	 * This class is used by the EnvironmentVariableProvider to calculate the build paths
@@ -84,11 +90,13 @@ public class EnvironmentVariableProvider implements
 	}
 
 	public static EnvironmentVariableProvider getDefault(){
-		if(fInstance == null){
-			fInstance = new EnvironmentVariableProvider(CCorePlugin.getDefault().getBuildEnvironmentManager());
-			fInstance.fBuildPathVarCheckAllowed = true;
-		}
-		return fInstance;
+		return Holder.fInstance;
+	}
+
+	private static EnvironmentVariableProvider createDefault(){
+		EnvironmentVariableProvider provider = new EnvironmentVariableProvider(CCorePlugin.getDefault().getBuildEnvironmentManager());
+		provider.fBuildPathVarCheckAllowed = true;
+		return provider;
 	}
 	
 	/* (non-Javadoc)
@@ -115,6 +123,11 @@ public class EnvironmentVariableProvider implements
 			IConfiguration cfg, boolean resolveMacros, boolean checkBuildPaths){
 		ICConfigurationDescription des = ManagedBuildManager.getDescriptionForConfiguration(cfg);
 		if(des != null){
+			if(resolveMacros){
+				EnvironmentSnapshot snapshot = getSnapshot(cfg, des, checkBuildPaths);
+				if(snapshot != null)
+					return snapshot.getVariable(variableName);
+			}
 			IEnvironmentVariable variable = fMngr.getVariable(variableName, des, resolveMacros);
 			if(checkBuildPaths && resolveMacros && fBuildPathVarCheckAllowed)
 				checkBuildPathVariable(cfg, variableName, variable);
@@ -130,6 +143,11 @@ public class EnvironmentVariableProvider implements
 	public IEnvironmentVariable[] getVariables(IConfiguration cfg, boolean resolveMacros, boolean checkBuildPaths){
 		ICConfigurationDescription des = ManagedBuildManager.getDescriptionForConfiguration(cfg);
 		if(des != null){
+			if(resolveMacros){
+				EnvironmentSnapshot snapshot = getSnapshot(cfg, des, checkBuildPaths);
+				if(snapshot != null)
+					return snapshot.getVariables();
+			}
 			IEnvironmentVariable vars[] = fMngr.getVariables(des, resolveMacros);
 			if(checkBuildPaths && resolveMacros && fBuildPathVarCheckAllowed)
 				checkBuildPathVariables(cfg,vars);
@@ -138,6 +156,72 @@ public class EnvironmentVariableProvider implements
 		return new IBuildEnvironmentVariable[0];
 	}
 	
+	/**
+	 * Returns the snapshot of the resolved environment of the given configuration.
+	 * <p>
+	 * The snapshot is shared until the configuration description is replaced, the build
+	 * settings change (see {@link NotificationManager#getModificationCount()}) or the
+	 * snapshots are invalidated. The build settings changes include the changes of the
+	 * user-defined environment reported by the
+	 * {@link org.eclipse.cdt.managedbuilder.internal.core.BuildSettingsChangeTracker}.
+	 * The build path variables are checked once per snapshot.
+	 *
+	 * @return the snapshot, or <code>null</code> if the configuration has no read-only
+	 * description, the environment of writable descriptions may change at any time
+	 * @since 8.0
+	 */
+	public EnvironmentSnapshot getSnapshot(IConfiguration cfg){
+		ICConfigurationDescription des = ManagedBuildManager.getDescriptionForConfiguration(cfg);
+		if(des == null)
+			return null;
+		return getSnapshot(cfg, des, true);
+	}
+
+	private EnvironmentSnapshot getSnapshot(IConfiguration cfg, ICConfigurationDescription des, boolean checkBuildPaths){
+		if(!des.isReadOnly())
+			return null;
+
+		int count = NotificationManager.getInstance().getModificationCount();
+		EnvironmentSnapshot snapshot;
+		synchronized(fSnapshots){
+			snapshot = fSnapshots.get(cfg);
+		}
+		if(snapshot == null || !snapshot.isValid(des, count)){
+			IEnvironmentVariable vars[] = fMngr.getVariables(des, true);
+			snapshot = new EnvironmentSnapshot(des, count, vars, fMngr.isVariableCaseSensitive());
+			synchronized(fSnapshots){
+				fSnapshots.put(cfg, snapshot);
+			}
+		}
+
+		if(checkBuildPaths && fBuildPathVarCheckAllowed && snapshot.markBuildPathsChecked())
+			checkBuildPathVariables(cfg, snapshot.getVariables());
+		return snapshot;
+	}
+
+	/**
+	 * Discards the environment snapshot of a configuration that is removed.
+	 *
+	 * @since 8.0
+	 */
+	public void invalidateSnapshot(IConfiguration cfg){
+		synchronized(fSnapshots){
+			fSnapshots.remove(cfg);
+		}
+	}
+
+	/**
+	 * Discards the environment snapshots of all configurations. Changes to the system
+	 * environment are not notified, this is used to pick them up, e.g. when a build starts.
+	 *
+	 * @since 8.0
+	 */
+	public void invalidateSnapshots(){
+		synchronized(fSnapshots){
+			fSnapshots.clear();
+		}
+	}
+
 	public static IBuildEnvironmentVariable wrap(IEnvironmentVariable var){
 		if(var == null)
 			return null;
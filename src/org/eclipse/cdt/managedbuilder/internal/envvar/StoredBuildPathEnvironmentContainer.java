@@ -13,6 +13,8 @@ package org.eclipse.cdt.managedbuilder.internal.envvar;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.eclipse.cdt.core.envvar.IEnvironmentVariable;
 import org.eclipse.cdt.internal.core.envvar.EnvVarCollector;
@@ -23,6 +25,7 @@ import org.eclipse.cdt.managedbuilder.core.ITool;
 import org.eclipse.cdt.managedbuilder.core.ManagedBuildManager;
 import org.eclipse.cdt.managedbuilder.core.ManagedBuilderCorePlugin;
 import org.eclipse.cdt.managedbuilder.envvar.IBuildEnvironmentVariable;
+import org.eclipse.cdt.managedbuilder.internal.core.NotificationManager;
 import org.eclipse.cdt.utils.envvar.StorableEnvironment;
 import org.eclipse.cdt.utils.envvar.StorableEnvironmentLoader;
 import org.eclipse.core.resources.IProject;
@@ -43,11 +46,31 @@ public class StoredBuildPathEnvironmentContainer extends
 	public static final String NODENAME_PREFIX_CFG = "buildEnvironment";  //$NON-NLS-1$
 	public static final String NODENAME_CFG_INCLUDE = NODENAME_PREFIX_CFG + "Include";  //$NON-NLS-1$
 	public static final String NODENAME_CFG_LIBRARY = NODENAME_PREFIX_CFG + "Library";  //$NON-NLS-1$
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+	/** fingerprint value meaning that the fingerprint is not known */
+	private static final long NO_FINGERPRINT = 0;
 	
 	private IConfiguration fConfiguration;
 	private StorableEnvironment fEnvironment;
 	private int fPathType;
 	private boolean fIsVariableCaseSensitive = ManagedBuildManager.getEnvironmentVariableProvider().isVariableCaseSensitive();
+	private final Map<IConfiguration, Fingerprint> fFingerprints = new WeakHashMap<IConfiguration, Fingerprint>();
+
+	/**
+	 * The hashed build path variable values of a configuration. The fingerprint of the
+	 * stored values is calculated from the stored environment when it is first loaded,
+	 * so that it cannot get out of sync with it, and a change of the current values is
+	 * then detected without comparing them with the stored ones one by one.
+	 */
+	private static final class Fingerprint {
+		private int fModificationCount;
+		private String fVarNames[];
+		/** fingerprint of the stored values */
+		private long fStored = NO_FINGERPRINT;
+		/** fingerprint of the values last flushed to the preferences */
+		private long fFlushed = NO_FINGERPRINT;
+	}
 
 	public StoredBuildPathEnvironmentContainer(int pathType){
 		fPathType = pathType == IEnvVarBuildPath.BUILDPATH_LIBRARY ? 
@@ -100,6 +123,11 @@ public class StoredBuildPathEnvironmentContainer extends
 
 	public boolean checkBuildPathChange(EnvVarCollector existingVariables, 
 			IConfiguration configuration){
+		Fingerprint fingerprint = getFingerprint(configuration);
+		long current = calculateFingerprint(fingerprint.fVarNames, existingVariables);
+		if(current == fingerprint.fStored)
+			return false;
+
 		StorableEnvironment env = getEnvironment(configuration);
 		if(env == null)
 			return false;
@@ -128,6 +156,7 @@ public class StoredBuildPathEnvironmentContainer extends
 				storeEnvironment(env,configuration, false, false);
 			}catch(CoreException e){
 			}
+		fingerprint.fStored = current;
 		return changed;
 	}
 	
@@ -141,6 +170,8 @@ public class StoredBuildPathEnvironmentContainer extends
 	public boolean isVariableChanged(String name, 
 			IEnvironmentVariable variable, 
 			IConfiguration configuration){
+		if(!isBuildPathVarName(name, getFingerprint(configuration).fVarNames))
+			return false;
 		StorableEnvironment env = getEnvironment(configuration);
 		if(env == null)
 			return false;
@@ -224,12 +255,103 @@ public class StoredBuildPathEnvironmentContainer extends
 
 	public void serialize(boolean force) {
 		if(fEnvironment != null){
+			Fingerprint fingerprint;
+			synchronized(fFingerprints){
+				fingerprint = fFingerprints.get(fConfiguration);
+			}
+			// the flushed values are up to date
+			if(!force && fingerprint != null && fingerprint.fStored != NO_FINGERPRINT
+					&& fingerprint.fStored == fingerprint.fFlushed)
+				return;
 			try{
 				storeEnvironment(fEnvironment,fConfiguration,force, true);
+				if(fingerprint != null)
+					fingerprint.fFlushed = fingerprint.fStored;
 			}catch(CoreException e){
 			}
 		}
 	}
+
+	/*
+	 * returns the fingerprint state of the configuration, the build path variable names
+	 * are recalculated whenever the build settings change
+	 */
+	private Fingerprint getFingerprint(IConfiguration configuration){
+		int count = NotificationManager.getInstance().getModificationCount();
+		Fingerprint fingerprint;
+		boolean created = false;
+		synchronized(fFingerprints){
+			fingerprint = fFingerprints.get(configuration);
+			if(fingerprint == null){
+				fingerprint = new Fingerprint();
+				fFingerprints.put(configuration, fingerprint);
+				created = true;
+			} else if(fingerprint.fModificationCount == count){
+				return fingerprint;
+			}
+		}
+		fingerprint.fVarNames = getBuildPathVarNames(configuration, fPathType);
+		fingerprint.fModificationCount = count;
+		if(created){
+			StorableEnvironment env = getEnvironment(configuration);
+			if(env != null)
+				fingerprint.fStored = calculateFingerprint(fingerprint.fVarNames, env);
+			fingerprint.fFlushed = fingerprint.fStored;
+		}
+		return fingerprint;
+	}
+
+	/*
+	 * returns the hash of the values of the build path variables, consistent with
+	 * haveIdenticalValues(): missing and removed variables hash the same regardless
+	 * of their values
+	 */
+	private long calculateFingerprint(String varNames[], EnvVarCollector existingVariables){
+		long hash = FNV_OFFSET;
+		for(int i = 0; i < varNames.length; i++){
+			String name = varNames[i];
+			hash = hash(hash, name, existingVariables != null ? existingVariables.getVariable(name) : null);
+		}
+		return hash == NO_FINGERPRINT ? FNV_OFFSET : hash;
+	}
+
+	/*
+	 * returns the hash of the stored values of the build path variables, equal to the
+	 * hash of the current values the stored ones were synchronized with
+	 */
+	private long calculateFingerprint(String varNames[], StorableEnvironment env){
+		long hash = FNV_OFFSET;
+		for(int i = 0; i < varNames.length; i++){
+			String name = varNames[i];
+			hash = hash(hash, name, env.getVariable(name));
+		}
+		return hash == NO_FINGERPRINT ? FNV_OFFSET : hash;
+	}
+
+	private long hash(long hash, String name, IEnvironmentVariable var){
+		hash = hash(hash, fIsVariableCaseSensitive ? name : name.toUpperCase());
+		if(var == null || var.getOperation() == IBuildEnvironmentVariable.ENVVAR_REMOVE)
+			return hash(hash, '\u0001');
+		return hash(hash(hash, '\u0002'), maskNull(var.getValue()));
+	}
+
+	private static long hash(long hash, String str){
+		for(int i = 0; i < str.length(); i++)
+			hash = hash(hash, str.charAt(i));
+		return hash(hash, '\u0000');
+	}
+
+	private static long hash(long hash, char c){
+		return (hash ^ c) * FNV_PRIME;
+	}
+
+	private boolean isBuildPathVarName(String name, String varNames[]){
+		for(int i = 0; i < varNames.length; i++){
+			if(varNamesEqual(name, varNames[i]))
+				return true;
+		}
+		return false;
+	}
 	
 	private Preferences getConfigurationNode(IConfiguration cfg){
 		IProject project = (IProject)cfg.getOwner();
@@ -13,6 +13,8 @@ package org.eclipse.cdt.managedbuilder.internal.macros;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.cdt.core.cdtvariables.CdtVariableException;
@@ -26,6 +28,7 @@ import org.eclipse.cdt.managedbuilder.core.IResourceConfiguration;
 import org.eclipse.cdt.managedbuilder.core.ITool;
 import org.eclipse.cdt.managedbuilder.core.IToolChain;
 import org.eclipse.cdt.managedbuilder.core.ManagedBuildManager;
+import org.eclipse.cdt.managedbuilder.internal.core.NotificationManager;
 import org.eclipse.cdt.managedbuilder.internal.core.Tool;
 import org.eclipse.cdt.managedbuilder.macros.BuildMacroException;
 import org.eclipse.cdt.managedbuilder.macros.IBuildMacro;
@@ -45,8 +48,17 @@ import org.eclipse.core.variables.IStringVariable;
  */
 public class BuildMacroProvider implements IBuildMacroProvider, IMacroContextInfoProvider {
 	private static final String PATTERN_MACRO_NAME = "="; //$NON-NLS-1$
+	/** The maximum number of resolution results cached by the default provider */
+	private static final int RESOLUTION_CACHE_LIMIT = 4096;
 
-	static private BuildMacroProvider fDefault;
+	private static final class Holder {
+		static final BuildMacroProvider fDefault = createDefault();
+	}
+	
+	private BuildMacroResolutionCache fResolutionCache;
+	/** Context data mapped to the dependency graphs of the context types */
+	private Map<Object, MacroDependencyGraph[]> fDependencyGraphs;
+	private static final Object NULL_CONTEXT_DATA = new Object();
 	
 	public static MbsMacroSupplier fMbsMacroSupplier = MbsMacroSupplier.getInstance();
 
@@ -55,9 +67,14 @@ public class BuildMacroProvider implements IBuildMacroProvider, IMacroContextInf
 	}
 	
 	public static BuildMacroProvider getDefault(){
-		if(fDefault == null)
-			fDefault = new BuildMacroProvider();
-		return fDefault; 
+		return Holder.fDefault;
+	}
+
+	private static BuildMacroProvider createDefault(){
+		BuildMacroProvider provider = new BuildMacroProvider();
+		provider.fResolutionCache = new BuildMacroResolutionCache(RESOLUTION_CACHE_LIMIT);
+		provider.fDependencyGraphs = new WeakHashMap<Object, MacroDependencyGraph[]>();
+		return provider;
 	}
 	/* (non-Javadoc)
 	 * @see org.eclipse.cdt.managedbuilder.macros.IBuildMacroProvider#getMacro(java.lang.String, int, java.lang.Object, boolean)
@@ -209,12 +226,19 @@ public class BuildMacroProvider implements IBuildMacroProvider, IMacroContextInf
 	public String resolveValue(String value, String nonexistentMacrosValue,
 			String listDelimiter, int contextType, Object contextData)
 			throws BuildMacroException {
+		Object cached = getCachedResolution(BuildMacroResolutionCache.STRING, value, nonexistentMacrosValue, listDelimiter, contextType, contextData);
+		if(cached != null)
+			return (String)cached;
+		int count = NotificationManager.getInstance().getModificationCount();
+
 		IMacroContextInfo info = getMacroContextInfo(contextType,contextData);
 		
 		if(info != null){
 			try {
-				return CdtVariableResolver.resolveToString(value,
+				String resolved = MacroTemplate.resolveToString(value,
 						getMacroSubstitutor(info,nonexistentMacrosValue, listDelimiter));
+				cacheResolution(BuildMacroResolutionCache.STRING, value, nonexistentMacrosValue, listDelimiter, contextType, contextData, count, resolved);
+				return resolved;
 			} catch (CdtVariableException e) {
 				throw new BuildMacroException(e);
 			}
@@ -229,10 +253,17 @@ public class BuildMacroProvider implements IBuildMacroProvider, IMacroContextInf
 			String nonexistentMacrosValue, String listDelimiter,
 			int contextType, Object contextData) throws BuildMacroException {
 		
+		Object cached = getCachedResolution(BuildMacroResolutionCache.STRING_LIST, value, nonexistentMacrosValue, listDelimiter, contextType, contextData);
+		if(cached != null)
+			return (String[])cached;
+		int count = NotificationManager.getInstance().getModificationCount();
+
 		IMacroContextInfo info = getMacroContextInfo(contextType,contextData);
 		if(info != null){
 			try {
-				return CdtVariableResolver.resolveToStringList(value,getMacroSubstitutor(info,nonexistentMacrosValue, listDelimiter));
+				String[] resolved = MacroTemplate.resolveToStringList(value,getMacroSubstitutor(info,nonexistentMacrosValue, listDelimiter));
+				cacheResolution(BuildMacroResolutionCache.STRING_LIST, value, nonexistentMacrosValue, listDelimiter, contextType, contextData, count, resolved);
+				return resolved;
 			} catch (CdtVariableException e) {
 				throw new BuildMacroException(e);
 			}
@@ -247,11 +278,18 @@ public class BuildMacroProvider implements IBuildMacroProvider, IMacroContextInf
 			String nonexistentMacrosValue, String listDelimiter,
 			int contextType, Object contextData) throws BuildMacroException {
 
+		Object cached = getCachedResolution(BuildMacroResolutionCache.MAKEFILE_STRING, value, nonexistentMacrosValue, listDelimiter, contextType, contextData);
+		if(cached != null)
+			return (String)cached;
+		int count = NotificationManager.getInstance().getModificationCount();
+
 		IMacroContextInfo info = getMacroContextInfo(contextType,contextData);
 		if(info != null){
 			try {
-				return CdtVariableResolver.resolveToString(value,
+				String resolved = MacroTemplate.resolveToString(value,
 						getBuildfileMacroSubstitutor(info,nonexistentMacrosValue, listDelimiter));
+				cacheResolution(BuildMacroResolutionCache.MAKEFILE_STRING, value, nonexistentMacrosValue, listDelimiter, contextType, contextData, count, resolved);
+				return resolved;
 			} catch (CdtVariableException e) {
 				throw new BuildMacroException(e);
 			}
@@ -266,10 +304,17 @@ public class BuildMacroProvider implements IBuildMacroProvider, IMacroContextInf
 			String nonexistentMacrosValue, String listDelimiter, int contextType, Object contextData)
 			throws BuildMacroException {
 
+		Object cached = getCachedResolution(BuildMacroResolutionCache.MAKEFILE_STRING_LIST, value, nonexistentMacrosValue, listDelimiter, contextType, contextData);
+		if(cached != null)
+			return (String[])cached;
+		int count = NotificationManager.getInstance().getModificationCount();
+
 		IMacroContextInfo info = getMacroContextInfo(contextType,contextData);
 		if(info != null){
 			try {
-				return CdtVariableResolver.resolveToStringList(value,getBuildfileMacroSubstitutor(info,nonexistentMacrosValue, listDelimiter));
+				String[] resolved = MacroTemplate.resolveToStringList(value,getBuildfileMacroSubstitutor(info,nonexistentMacrosValue, listDelimiter));
+				cacheResolution(BuildMacroResolutionCache.MAKEFILE_STRING_LIST, value, nonexistentMacrosValue, listDelimiter, contextType, contextData, count, resolved);
+				return resolved;
 			} catch (CdtVariableException e) {
 				throw new BuildMacroException(e);
 			}
@@ -308,14 +353,71 @@ public class BuildMacroProvider implements IBuildMacroProvider, IMacroContextInf
 			}
 		};
 		if(info != null){
+			MacroDependencyGraph graph = getDependencyGraph(contextType, contextData);
 			try {
-				CdtVariableResolver.checkIntegrity(info,subst);
+				if(graph != null)
+					graph.checkIntegrity(SupplierBasedCdtVariableManager.getVariables(info, true), mngr, info, subst);
+				else
+					CdtVariableResolver.checkIntegrity(info,subst);
 			} catch (CdtVariableException e) {
 				throw new BuildMacroException(e);
 			}
 		}
 	}
 
+	/**
+	 * @return the macro dependency graph maintained for the integrity checks of the context,
+	 * or <code>null</code> if the context is not tracked
+	 */
+	private MacroDependencyGraph getDependencyGraph(int contextType, Object contextData){
+		if(fDependencyGraphs == null)
+			return null;
+		synchronized(fDependencyGraphs){
+			Object key = contextData != null ? contextData : NULL_CONTEXT_DATA;
+			MacroDependencyGraph graphs[] = fDependencyGraphs.get(key);
+			if(graphs == null){
+				// CONTEXT_TOOL is the highest context type
+				graphs = new MacroDependencyGraph[CONTEXT_TOOL + 1];
+				fDependencyGraphs.put(key, graphs);
+			}
+			if(contextType < 0 || contextType >= graphs.length)
+				return null;
+			if(graphs[contextType] == null)
+				graphs[contextType] = new MacroDependencyGraph();
+			return graphs[contextType];
+		}
+	}
+
+	private Object getCachedResolution(int kind, Object value, String nonexistentMacrosValue, String listDelimiter, int contextType, Object contextData){
+		if(fResolutionCache == null)
+			return null;
+		return fResolutionCache.get(kind, value, nonexistentMacrosValue, listDelimiter, contextType, contextData);
+	}
+
+	private void cacheResolution(int kind, Object value, String nonexistentMacrosValue, String listDelimiter, int contextType, Object contextData, int modificationCount, Object resolved){
+		if(fResolutionCache != null)
+			fResolutionCache.put(kind, value, nonexistentMacrosValue, listDelimiter, contextType, contextData, modificationCount, resolved);
+	}
+
+	/**
+	 * @return the cache of the resolved values, <code>null</code> if the provider does not cache
+	 * @since 8.0
+	 */
+	public BuildMacroResolutionCache getResolutionCache(){
+		return fResolutionCache;
+	}
+
+	/**
+	 * Discards the cached resolved values, to be called when a change that is not reported
+	 * through the {@link org.eclipse.cdt.managedbuilder.internal.core.NotificationManager},
+	 * e.g. of the environment, may affect the macro values.
+	 * @since 8.0
+	 */
+	public void invalidateResolutionCache(){
+		if(fResolutionCache != null)
+			fResolutionCache.invalidate();
+	}
+
 	public SupplierBasedCdtVariableSubstitutor getMacroSubstitutor(IMacroContextInfo info, String inexistentMacroValue, String listDelimiter){
 		return new SupplierBasedCdtVariableSubstitutor(info, inexistentMacroValue, listDelimiter);
 	}
@@ -357,11 +459,18 @@ public class BuildMacroProvider implements IBuildMacroProvider, IMacroContextInf
 	 * @see org.eclipse.cdt.managedbuilder.macros.IBuildMacroProvider#resolveStringListValues(java.lang.String[], java.lang.String, java.lang.String, int, java.lang.Object)
 	 */
 	public String[] resolveStringListValues(String[] value, String nonexistentMacrosValue, String listDelimiter, int contextType, Object contextData) throws BuildMacroException {
+		Object cached = getCachedResolution(BuildMacroResolutionCache.STRING_LISTS, value, nonexistentMacrosValue, listDelimiter, contextType, contextData);
+		if(cached != null)
+			return (String[])cached;
+		int count = NotificationManager.getInstance().getModificationCount();
+
 		IMacroContextInfo info = getMacroContextInfo(contextType,contextData);
 		if(info != null){
 			try {
-				return CdtVariableResolver.resolveStringListValues(value,
+				String[] resolved = CdtVariableResolver.resolveStringListValues(value,
 						getMacroSubstitutor(info,nonexistentMacrosValue, listDelimiter), true);
+				cacheResolution(BuildMacroResolutionCache.STRING_LISTS, value, nonexistentMacrosValue, listDelimiter, contextType, contextData, count, resolved);
+				return resolved;
 			} catch (CdtVariableException e) {
 				throw new BuildMacroException(e);
 			}
@@ -373,11 +482,18 @@ public class BuildMacroProvider implements IBuildMacroProvider, IMacroContextInf
 	 * @see org.eclipse.cdt.managedbuilder.macros.IBuildMacroProvider#resolveStringListValuesToMakefileFormat(java.lang.String[], java.lang.String, java.lang.String, int, java.lang.Object)
 	 */
 	public String[] resolveStringListValuesToMakefileFormat(String[] value, String nonexistentMacrosValue, String listDelimiter, int contextType, Object contextData) throws BuildMacroException {
+		Object cached = getCachedResolution(BuildMacroResolutionCache.MAKEFILE_STRING_LISTS, value, nonexistentMacrosValue, listDelimiter, contextType, contextData);
+		if(cached != null)
+			return (String[])cached;
+		int count = NotificationManager.getInstance().getModificationCount();
+
 		IMacroContextInfo info = getMacroContextInfo(contextType,contextData);
 		if(info != null){
 			try {
-				return CdtVariableResolver.resolveStringListValues(value,
+				String[] resolved = CdtVariableResolver.resolveStringListValues(value,
 						getBuildfileMacroSubstitutor(info,nonexistentMacrosValue, listDelimiter), true);
+				cacheResolution(BuildMacroResolutionCache.MAKEFILE_STRING_LISTS, value, nonexistentMacrosValue, listDelimiter, contextType, contextData, count, resolved);
+				return resolved;
 			} catch (CdtVariableException e) {
 				throw new BuildMacroException(e);
 			}
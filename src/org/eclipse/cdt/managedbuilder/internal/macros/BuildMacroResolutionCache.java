@@ -0,0 +1,259 @@
+/*******************************************************************************
+ * Copyright (c) 2011 Broadcom Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Broadcom Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.cdt.managedbuilder.internal.macros;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.cdt.core.settings.model.ICConfigurationDescription;
+import org.eclipse.cdt.managedbuilder.core.IConfiguration;
+import org.eclipse.cdt.managedbuilder.core.ITool;
+import org.eclipse.cdt.managedbuilder.internal.core.Configuration;
+import org.eclipse.cdt.managedbuilder.internal.core.NotificationManager;
+import org.eclipse.cdt.managedbuilder.macros.IBuildMacroProvider;
+
+/**
+ * Bounded cache of the values resolved by the {@link BuildMacroProvider}.
+ * <p>
+ * Results are keyed by the kind of resolution, the value, the substitution settings and the
+ * context. Only the contexts whose data is a long-lived build object are cached, the file and
+ * option contexts are created per resolution. The context data is referenced weakly, the results
+ * of a context are dropped once its build object, e.g. a removed configuration, is collected.
+ * The Eclipse environment context is not cached, its values may change without a notification. The configurations of writable descriptions, e.g.
+ * those edited by the property pages, are not cached either, their settings may change at any
+ * time without being notified. The cache is emptied whenever the
+ * {@link NotificationManager} modification count changes, i.e. on option changes, on changes
+ * marking a configuration for rebuild and on the macro, build variable, environment and project
+ * name changes reported by the {@link org.eclipse.cdt.managedbuilder.internal.core.BuildSettingsChangeTracker}.
+ * It can also be invalidated explicitly, e.g. at the start of a build to pick up changes of the
+ * process environment. The least recently used results are evicted once the limit is reached.
+ *
+ * @since 8.0
+ */
+public class BuildMacroResolutionCache {
+	public static final int STRING = 0;
+	public static final int STRING_LIST = 1;
+	public static final int STRING_LISTS = 2;
+	public static final int MAKEFILE_STRING = 3;
+	public static final int MAKEFILE_STRING_LIST = 4;
+	public static final int MAKEFILE_STRING_LISTS = 5;
+
+	private final int fLimit;
+	private final Map<Key, Object> fResolved;
+	private final ReferenceQueue<Object> fCollectedContexts = new ReferenceQueue<Object>();
+	private int fModificationCount;
+	private long fHits;
+	private long fMisses;
+	private long fEvictions;
+	private long fInvalidations;
+
+	private static final class Key {
+		private final int fKind;
+		private final Object fValue;
+		private final String fNonexistentMacrosValue;
+		private final String fListDelimiter;
+		private final int fContextType;
+		/** the context data for lookups, a {@link ContextReference} for the stored keys */
+		private Object fContext;
+		private final int fHash;
+
+		Key(int kind, Object value, String nonexistentMacrosValue, String listDelimiter, int contextType, Object contextData){
+			fKind = kind;
+			fValue = value instanceof String[] ? Arrays.asList(((String[])value).clone()) : value;
+			fNonexistentMacrosValue = nonexistentMacrosValue;
+			fListDelimiter = listDelimiter;
+			fContextType = contextType;
+			fContext = contextData;
+
+			int hash = fValue.hashCode() * 31 + kind;
+			hash = hash * 31 + contextType;
+			hash = hash * 31 + System.identityHashCode(contextData);
+			hash = hash * 31 + (nonexistentMacrosValue != null ? nonexistentMacrosValue.hashCode() : 0);
+			hash = hash * 31 + (listDelimiter != null ? listDelimiter.hashCode() : 0);
+			fHash = hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(obj == this)
+				return true;
+			if(!(obj instanceof Key))
+				return false;
+			Key other = (Key)obj;
+			return fHash == other.fHash
+				&& fKind == other.fKind
+				&& fContextType == other.fContextType
+				&& getContextData() == other.getContextData()
+				&& equals(fNonexistentMacrosValue, other.fNonexistentMacrosValue)
+				&& equals(fListDelimiter, other.fListDelimiter)
+				&& fValue.equals(other.fValue);
+		}
+
+		/**
+		 * Makes the key reference the context data weakly before it is stored.
+		 */
+		void store(ReferenceQueue<Object> queue){
+			if(fContext != null)
+				fContext = new ContextReference(fContext, queue, this);
+		}
+
+		Object getContextData(){
+			return fContext instanceof ContextReference ? ((ContextReference)fContext).get() : fContext;
+		}
+
+		private static boolean equals(String s1, String s2){
+			return s1 == null ? s2 == null : s1.equals(s2);
+		}
+
+		@Override
+		public int hashCode() {
+			return fHash;
+		}
+	}
+
+	private static final class ContextReference extends WeakReference<Object> {
+		private final Key fKey;
+
+		ContextReference(Object contextData, ReferenceQueue<Object> queue, Key key){
+			super(contextData, queue);
+			fKey = key;
+		}
+	}
+
+	/**
+	 * @param limit the maximum number of cached results
+	 */
+	public BuildMacroResolutionCache(final int limit){
+		fLimit = limit;
+		fResolved = new LinkedHashMap<Key, Object>(16, 0.75f, true){
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+				if(size() > fLimit){
+					fEvictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+		fModificationCount = NotificationManager.getInstance().getModificationCount();
+	}
+
+	/**
+	 * @return whether the results for the given context may be cached
+	 */
+	public static boolean isCacheable(int contextType, Object contextData){
+		switch(contextType){
+		case IBuildMacroProvider.CONTEXT_FILE:
+		case IBuildMacroProvider.CONTEXT_OPTION:
+		case IBuildMacroProvider.CONTEXT_ECLIPSEENV:
+			return false;
+		case IBuildMacroProvider.CONTEXT_CONFIGURATION:
+			return !(contextData instanceof IConfiguration) || isReadOnly((IConfiguration)contextData);
+		case IBuildMacroProvider.CONTEXT_TOOL:
+			return !(contextData instanceof ITool) || isReadOnly(BuildMacroProvider.getConfiguration((ITool)contextData));
+		default:
+			return true;
+		}
+	}
+
+	private static boolean isReadOnly(IConfiguration cfg){
+		if(cfg == null || cfg.isExtensionElement())
+			return true;
+		if(!(cfg instanceof Configuration))
+			return false;
+		ICConfigurationDescription des = ((Configuration)cfg).getConfigurationDescription();
+		return des != null && des.isReadOnly();
+	}
+
+	/**
+	 * @return the cached result, i.e. a String or String[] depending on the kind,
+	 * or <code>null</code> if there is none
+	 */
+	public synchronized Object get(int kind, Object value, String nonexistentMacrosValue, String listDelimiter, int contextType, Object contextData){
+		if(value == null || !isCacheable(contextType, contextData))
+			return null;
+		validate();
+		Object resolved = fResolved.get(new Key(kind, value, nonexistentMacrosValue, listDelimiter, contextType, contextData));
+		if(resolved != null)
+			fHits++;
+		else
+			fMisses++;
+		return copy(resolved);
+	}
+
+	/**
+	 * Stores the result of a resolution, unless the build settings changed while it was
+	 * computed.
+	 *
+	 * @param modificationCount the {@link NotificationManager} modification count taken
+	 * before the value was resolved
+	 */
+	public synchronized void put(int kind, Object value, String nonexistentMacrosValue, String listDelimiter, int contextType, Object contextData, int modificationCount, Object resolved){
+		if(value == null || resolved == null || !isCacheable(contextType, contextData))
+			return;
+		validate();
+		if(modificationCount != fModificationCount)
+			return;
+		Key key = new Key(kind, value, nonexistentMacrosValue, listDelimiter, contextType, contextData);
+		key.store(fCollectedContexts);
+		fResolved.put(key, copy(resolved));
+	}
+
+	private static Object copy(Object resolved){
+		return resolved instanceof String[] ? ((String[])resolved).clone() : resolved;
+	}
+
+	private void validate(){
+		for(ContextReference ref; (ref = (ContextReference)fCollectedContexts.poll()) != null;)
+			fResolved.remove(ref.fKey);
+
+		int count = NotificationManager.getInstance().getModificationCount();
+		if(count != fModificationCount){
+			fModificationCount = count;
+			invalidate();
+		}
+	}
+
+	/**
+	 * Discards all cached results.
+	 */
+	public synchronized void invalidate(){
+		if(!fResolved.isEmpty()){
+			fResolved.clear();
+			fInvalidations++;
+		}
+	}
+
+	public synchronized long getHits(){
+		return fHits;
+	}
+
+	public synchronized long getMisses(){
+		return fMisses;
+	}
+
+	public synchronized long getEvictions(){
+		return fEvictions;
+	}
+
+	public synchronized long getInvalidations(){
+		return fInvalidations;
+	}
+
+	public synchronized int size(){
+		return fResolved.size();
+	}
+}
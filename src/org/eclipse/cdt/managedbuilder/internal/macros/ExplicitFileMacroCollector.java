@@ -28,13 +28,24 @@ public class ExplicitFileMacroCollector extends SupplierBasedCdtVariableSubstitu
 	private static final String EMPTY_STRING = "";	//$NON-NLS-1$
 	
 	private List<ICdtVariable> fMacrosList = new ArrayList<ICdtVariable>();
+	private boolean fAllFileMacros;
 
 /*	public ExplicitFileMacroCollector(int contextType, Object contextData){
 		super(contextType, contextData, EMPTY_STRING, EMPTY_STRING);
 	}
 */
 	public ExplicitFileMacroCollector(IMacroContextInfo contextInfo){
+		this(contextInfo, false);
+	}
+
+	/**
+	 * @param allFileMacros <code>true</code> to collect all referenced file macros,
+	 * e.g. for substitutors that resolve every file macro to its explicit value
+	 * @since 8.0
+	 */
+	public ExplicitFileMacroCollector(IMacroContextInfo contextInfo, boolean allFileMacros){
 		super(contextInfo, EMPTY_STRING, EMPTY_STRING);
+		fAllFileMacros = allFileMacros;
 	}
 /*
 	public ExplicitFileMacroCollector(ITool tool){
@@ -57,7 +68,7 @@ public class ExplicitFileMacroCollector extends SupplierBasedCdtVariableSubstitu
 	protected ResolvedMacro resolveMacro(ICdtVariable macro) throws CdtVariableException{
 		if(macro instanceof MbsMacroSupplier.FileContextMacro){
 			MbsMacroSupplier.FileContextMacro fileMacro = (MbsMacroSupplier.FileContextMacro)macro;
-			if(fileMacro.isExplicit())
+			if(fAllFileMacros || fileMacro.isExplicit())
 				fMacrosList.add(macro);
 			return null;
 		}
@@ -25,11 +25,21 @@ public class FileContextData implements IFileContextData {
 	private IPath fInputFileLocation;
 	private IPath fOutputFileLocation;
 	private IOptionContextData fOptionContextData;
+	private FileMacroEvaluator fMacroEvaluator;
 	
 	public FileContextData(IPath inputFileLocation, IPath outputFileLocation, IOption option, IBuildObject optionParent){
 		this(inputFileLocation, outputFileLocation, new OptionContextData(option,optionParent));
 	}
 
+	/**
+	 * @param evaluator the evaluator shared by the files of the configuration, may be <code>null</code>
+	 * @since 8.0
+	 */
+	public FileContextData(IPath inputFileLocation, IPath outputFileLocation, IOption option, IBuildObject optionParent, FileMacroEvaluator evaluator){
+		this(inputFileLocation, outputFileLocation, option, optionParent);
+		fMacroEvaluator = evaluator;
+	}
+
 	public FileContextData(IPath inputFileLocation, IPath outputFileLocation, IOptionContextData optionContextData){
 		fInputFileLocation = inputFileLocation;
 		fOutputFileLocation = outputFileLocation;
@@ -57,4 +67,12 @@ public class FileContextData implements IFileContextData {
 		return fOptionContextData;
 	}
 
+	/**
+	 * @return the evaluator of the file macros, or <code>null</code>
+	 * @since 8.0
+	 */
+	public FileMacroEvaluator getMacroEvaluator() {
+		return fMacroEvaluator;
+	}
+
 }
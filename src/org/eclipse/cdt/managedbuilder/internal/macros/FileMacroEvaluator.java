@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2011 Broadcom Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Broadcom Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.cdt.managedbuilder.internal.macros;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.cdt.managedbuilder.core.IBuilder;
+import org.eclipse.cdt.managedbuilder.core.IConfiguration;
+import org.eclipse.cdt.managedbuilder.core.ManagedBuildManager;
+import org.eclipse.cdt.managedbuilder.macros.IBuildMacroProvider;
+import org.eclipse.cdt.managedbuilder.macros.IFileContextBuildMacroValues;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.Path;
+
+/**
+ * Evaluates the file context macros (InputFileName, OutputDirRelPath, ...) for the files
+ * built within one configuration.
+ * <p>
+ * The values that do not depend on the file, i.e. the builder working directory and the
+ * values defined by the builder, are computed once per builder, and the paths relative to
+ * the working directory are computed once per directory.
+ * <p>
+ * The evaluator is attached to the {@link FileContextData} of the files, see
+ * {@link FileContextData#FileContextData(IPath, IPath, org.eclipse.cdt.managedbuilder.core.IOption, org.eclipse.cdt.managedbuilder.core.IBuildObject, FileMacroEvaluator)},
+ * and is meant to live for a single makefile generation or build description, as changes to
+ * the builder settings are not tracked.
+ *
+ * @since 8.0
+ */
+public class FileMacroEvaluator {
+	private static final int INPUT_FILE_NAME = 0;
+	private static final int INPUT_FILE_EXT = 1;
+	private static final int INPUT_FILE_BASE_NAME = 2;
+	private static final int INPUT_FILE_REL_PATH = 3;
+	private static final int INPUT_DIR_REL_PATH = 4;
+	private static final int OUTPUT_FILE_NAME = 5;
+	private static final int OUTPUT_FILE_EXT = 6;
+	private static final int OUTPUT_FILE_BASE_NAME = 7;
+	private static final int OUTPUT_FILE_REL_PATH = 8;
+	private static final int OUTPUT_DIR_REL_PATH = 9;
+
+	private static final String NAMES[] = MbsMacroSupplier.getInstance().getMacroNames(IBuildMacroProvider.CONTEXT_FILE);
+	private static final Map<String, Integer> INDICES = new HashMap<String, Integer>();
+	static {
+		for(int i = 0; i < NAMES.length; i++)
+			INDICES.put(NAMES[i], Integer.valueOf(i));
+	}
+
+	private final IConfiguration fCfg;
+	private final Map<IBuilder, BuilderData> fBuilderData = new HashMap<IBuilder, BuilderData>();
+
+	/**
+	 * The file independent parts of the macro values for a builder
+	 */
+	private final class BuilderData {
+		private final IPath fCWD;
+		/** values defined by the builder, <code>null</code> for the explicit macros */
+		private final String fBuilderValues[] = new String[NAMES.length];
+		/** directory locations mapped to the paths relative to the working directory */
+		private final Map<IPath, IPath> fRelDirs = new HashMap<IPath, IPath>();
+
+		BuilderData(IBuilder builder){
+			fCWD = ManagedBuildManager.getBuildLocation(fCfg, builder);
+			if(builder != null){
+				IFileContextBuildMacroValues values = builder.getFileContextBuildMacroValues();
+				for(int i = 0; i < NAMES.length; i++)
+					fBuilderValues[i] = values.getMacroValue(NAMES[i]);
+			}
+		}
+
+		IPath getRelativeDir(IPath dir){
+			IPath rel = fRelDirs.get(dir);
+			if(rel == null){
+				rel = ManagedBuildManager.calculateRelativePath(fCWD, dir.addTrailingSeparator());
+				fRelDirs.put(dir, rel);
+			}
+			return rel;
+		}
+
+		IPath getRelativeFile(IPath file){
+			IPath rel = getRelativeDir(file.removeLastSegments(1));
+			// equivalent to calculateRelativePath(cwd, file)
+			if(rel.segmentCount() == 0 && !rel.isAbsolute())
+				return new Path(file.lastSegment());
+			return rel.append(file.lastSegment());
+		}
+	}
+
+	public FileMacroEvaluator(IConfiguration cfg){
+		fCfg = cfg;
+	}
+
+	/**
+	 * @return whether this evaluator computes the values for the given configuration
+	 */
+	public boolean isFor(IConfiguration cfg){
+		return fCfg == cfg;
+	}
+
+	private synchronized BuilderData getBuilderData(IBuilder builder){
+		BuilderData data = fBuilderData.get(builder);
+		if(data == null){
+			data = new BuilderData(builder);
+			fBuilderData.put(builder, data);
+		}
+		return data;
+	}
+
+	/**
+	 * @return the value the builder defines for the macro, or <code>null</code>
+	 * if the macro is an explicit one for the builder
+	 */
+	public String getBuilderValue(String name, IBuilder builder){
+		Integer index = INDICES.get(name);
+		if(index == null || builder == null)
+			return null;
+		return getBuilderData(builder).fBuilderValues[index.intValue()];
+	}
+
+	/**
+	 * @return the explicit value of the macro for the given file
+	 */
+	public String getExplicitValue(String name, IPath inputFileLocation, IPath outputFileLocation, IBuilder builder){
+		Integer index = INDICES.get(name);
+		if(index == null)
+			return null;
+		BuilderData data = getBuilderData(builder);
+		synchronized(this){
+			return getExplicitValue(index.intValue(), inputFileLocation, outputFileLocation, data);
+		}
+	}
+
+	private String getExplicitValue(int index, IPath input, IPath output, BuilderData data){
+		IPath location = index < OUTPUT_FILE_NAME ? input : output;
+		if(location == null || location.segmentCount() == 0)
+			return null;
+
+		switch(index){
+		case INPUT_FILE_NAME:
+		case OUTPUT_FILE_NAME:
+			return location.lastSegment();
+		case INPUT_FILE_EXT:
+		case OUTPUT_FILE_EXT:
+			return getExtension(location.lastSegment());
+		case INPUT_FILE_BASE_NAME:
+		case OUTPUT_FILE_BASE_NAME:
+			return getBaseName(location.lastSegment());
+		case INPUT_FILE_REL_PATH:
+		case OUTPUT_FILE_REL_PATH:
+			if(data.fCWD == null)
+				return null;
+			return data.getRelativeFile(location).toOSString();
+		case INPUT_DIR_REL_PATH:
+		case OUTPUT_DIR_REL_PATH:
+			if(data.fCWD == null)
+				return null;
+			return data.getRelativeDir(location.removeLastSegments(1)).toOSString();
+		}
+		return null;
+	}
+
+	private static String getBaseName(String name){
+		int index = name.lastIndexOf('.');
+		return index == -1 ? name : name.substring(0, index);
+	}
+
+	private static String getExtension(String name){
+		int index = name.lastIndexOf('.');
+		return index == -1 ? null : name.substring(index + 1);
+	}
+}
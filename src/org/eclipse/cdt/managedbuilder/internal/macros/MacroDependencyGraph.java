@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright (c) 2011 Broadcom Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Broadcom Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.cdt.managedbuilder.internal.macros;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.cdt.core.cdtvariables.CdtVariableException;
+import org.eclipse.cdt.core.cdtvariables.ICdtVariable;
+import org.eclipse.cdt.core.cdtvariables.ICdtVariableManager;
+import org.eclipse.cdt.utils.cdtvariables.CdtVariableResolver;
+import org.eclipse.cdt.utils.cdtvariables.IVariableContextInfo;
+import org.eclipse.cdt.utils.cdtvariables.IVariableSubstitutor;
+import org.eclipse.core.variables.IDynamicVariable;
+
+/**
+ * Graph of the references between the macros of a context, maintained across the
+ * integrity checks of the context.
+ * <p>
+ * On every check only the macros whose values
+ * changed are re-parsed, and the graph is searched for cycles starting from the changed
+ * macros only. A new reference cycle must contain a changed macro, so when there is none
+ * the previous result of the check still holds and the macros need not be resolved.
+ * <p>
+ * The graph is conservative: macros are matched by name regardless of the context they are
+ * defined in, and the values that cannot be parsed into plain references are treated as
+ * possibly cyclic. A cycle in the graph therefore only means that the full check is needed.
+ *
+ * @since 8.0
+ */
+public class MacroDependencyGraph {
+	private static final String NO_REFERENCES[] = new String[0];
+
+	/** macro names mapped to the nodes */
+	private final Map<String, Node> fNodes = new HashMap<String, Node>();
+	/** number of the nodes whose references are unknown */
+	private int fUnknownCount;
+	/** whether the macros passed the last full check */
+	private boolean fValid;
+
+	private static final class Node {
+		private final int fType;
+		private final Object fValue;
+		private final boolean fDynamic;
+		/** names of the referenced macros, <code>null</code> if unknown */
+		private final String fReferences[];
+
+		Node(int type, Object value, boolean dynamic, String references[]){
+			fType = type;
+			fValue = value;
+			fDynamic = dynamic;
+			fReferences = references;
+		}
+
+		boolean isSame(int type, Object value, boolean dynamic){
+			return fType == type && fDynamic == dynamic
+				&& (fValue == null ? value == null : fValue.equals(value));
+		}
+	}
+
+	/**
+	 * Updates the graph with the current macros of the context and runs the full integrity
+	 * check of the context unless the result of the last full check still holds. The update
+	 * and the check are done atomically, so no other check of the context can rely on a
+	 * result that does not cover the current macros.
+	 *
+	 * @throws CdtVariableException if the macros of the context contain a reference cycle
+	 */
+	public synchronized void checkIntegrity(ICdtVariable macros[], ICdtVariableManager mngr,
+			IVariableContextInfo info, IVariableSubstitutor substitutor) throws CdtVariableException {
+		if(!update(macros, mngr))
+			return;
+		fValid = false;
+		CdtVariableResolver.checkIntegrity(info, substitutor);
+		fValid = true;
+	}
+
+	/**
+	 * Updates the graph with the current macros of the context.
+	 *
+	 * @return <code>true</code> if the macros need the full integrity check, <code>false</code>
+	 * if the result of the last full check still holds
+	 */
+	private boolean update(ICdtVariable macros[], ICdtVariableManager mngr){
+		Set<String> changed = new HashSet<String>();
+		Set<String> names = new HashSet<String>();
+		for(int i = 0; i < macros.length; i++){
+			ICdtVariable macro = macros[i];
+			String name = macro.getName();
+			if(!names.add(name))
+				continue;
+
+			int type = macro.getValueType();
+			Object value;
+			try {
+				if(CdtVariableResolver.isStringListVariable(type)){
+					String list[] = macro.getStringListValue();
+					value = list != null ? Arrays.asList(list) : null;
+				} else {
+					value = macro.getStringValue();
+				}
+			} catch (CdtVariableException e) {
+				value = e;
+			}
+			boolean dynamic = mngr != null && mngr.toEclipseVariable(macro, null) instanceof IDynamicVariable;
+
+			Node node = fNodes.get(name);
+			if(node != null && node.isSame(type, value, dynamic))
+				continue;
+
+			if(node != null && node.fReferences == null)
+				fUnknownCount--;
+			node = new Node(type, value, dynamic, getReferences(value, dynamic));
+			if(node.fReferences == null)
+				fUnknownCount++;
+			fNodes.put(name, node);
+			changed.add(name);
+		}
+
+		for(Iterator<Map.Entry<String, Node>> iter = fNodes.entrySet().iterator(); iter.hasNext();){
+			Map.Entry<String, Node> entry = iter.next();
+			// removed macros can not introduce cycles
+			if(!names.contains(entry.getKey())){
+				if(entry.getValue().fReferences == null)
+					fUnknownCount--;
+				iter.remove();
+			}
+		}
+
+		if(!fValid || fUnknownCount != 0)
+			return true;
+		return hasCycle(changed);
+	}
+
+	/**
+	 * @return the names of the macros referenced by the value, <code>null</code> if unknown
+	 */
+	private static String[] getReferences(Object value, boolean dynamic){
+		// dynamic variables are not resolved by the integrity check
+		if(dynamic || value == null)
+			return NO_REFERENCES;
+		if(value instanceof String)
+			return getReferences((String)value);
+		if(value instanceof List<?>){
+			List<String> refs = new ArrayList<String>();
+			for(Object element : (List<?>)value){
+				String elementRefs[] = getReferences((String)element);
+				if(elementRefs == null)
+					return null;
+				refs.addAll(Arrays.asList(elementRefs));
+			}
+			return refs.toArray(new String[refs.size()]);
+		}
+		return null;
+	}
+
+	private static String[] getReferences(String value){
+		MacroTemplate template = MacroTemplate.getTemplate(value);
+		if(template == null)
+			return NO_REFERENCES;
+		if(!template.isSimple())
+			return null;
+		return template.getReferences();
+	}
+
+	/**
+	 * Searches for cycles reachable from the given macros.
+	 */
+	private boolean hasCycle(Set<String> roots){
+		Set<String> done = new HashSet<String>();
+		Set<String> path = new HashSet<String>();
+		for(String root : roots){
+			if(hasCycle(root, done, path))
+				return true;
+		}
+		return false;
+	}
+
+	private boolean hasCycle(String name, Set<String> done, Set<String> path){
+		if(done.contains(name))
+			return false;
+		Node node = fNodes.get(name);
+		if(node == null)
+			return false;
+		if(!path.add(name))
+			return true;
+		for(int i = 0; i < node.fReferences.length; i++){
+			if(hasCycle(node.fReferences[i], done, path))
+				return true;
+		}
+		path.remove(name);
+		done.add(name);
+		return false;
+	}
+}
@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2011 Broadcom Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Broadcom Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.cdt.managedbuilder.internal.macros;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.cdt.core.cdtvariables.CdtVariableException;
+import org.eclipse.cdt.managedbuilder.macros.IBuildMacroProvider;
+import org.eclipse.cdt.managedbuilder.macros.IFileContextData;
+import org.eclipse.cdt.managedbuilder.macros.IOptionContextData;
+import org.eclipse.cdt.utils.cdtvariables.CdtVariableResolver;
+
+/**
+ * Short-lived cache of macro resolution results, used by the makefile generator for the
+ * duration of a single generation.
+ * <p>
+ * Only file-independent results are cached. They are keyed by the value being resolved,
+ * the context type and the context data, for the file context the option context of the
+ * file is used instead of the file itself. Values referencing file macros are resolved
+ * for every file and are not cached.
+ *
+ * @since 8.0
+ */
+public class MacroResolutionCache {
+	private final Map<Key, String> fResolved = new HashMap<Key, String>();
+	/** Whether a (value, option context) pair references file macros */
+	private final Map<Key, Boolean> fFileMacros = new HashMap<Key, Boolean>();
+	private int fHits;
+	private int fMisses;
+
+	private static final class Key {
+		private final boolean fMakefileFormat;
+		private final String fValue;
+		private final int fContextType;
+		private final Object fData1;
+		private final Object fData2;
+		private final Object fData3;
+		private final int fHash;
+
+		Key(boolean makefileFormat, String value, int contextType, Object contextData){
+			fMakefileFormat = makefileFormat;
+			fValue = value;
+			fContextType = contextType;
+
+			IOptionContextData optionData = null;
+			if(contextData instanceof IFileContextData)
+				optionData = ((IFileContextData)contextData).getOptionContextData();
+			else if(contextData instanceof IOptionContextData)
+				optionData = (IOptionContextData)contextData;
+
+			if(optionData != null){
+				fData1 = optionData.getOption();
+				fData2 = optionData.getOptionCategory();
+				fData3 = optionData.getParent();
+			} else {
+				fData1 = contextType == IBuildMacroProvider.CONTEXT_FILE ? null : contextData;
+				fData2 = null;
+				fData3 = null;
+			}
+
+			int hash = value.hashCode() * 31 + contextType;
+			hash = hash * 31 + (makefileFormat ? 1 : 0);
+			hash = hash * 31 + (fData1 != null ? fData1.hashCode() : 0);
+			hash = hash * 31 + (fData2 != null ? fData2.hashCode() : 0);
+			hash = hash * 31 + (fData3 != null ? fData3.hashCode() : 0);
+			fHash = hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(obj == this)
+				return true;
+			if(!(obj instanceof Key))
+				return false;
+			Key other = (Key)obj;
+			return fHash == other.fHash
+				&& fMakefileFormat == other.fMakefileFormat
+				&& fContextType == other.fContextType
+				&& fData1 == other.fData1
+				&& fData2 == other.fData2
+				&& fData3 == other.fData3
+				&& fValue.equals(other.fValue);
+		}
+
+		@Override
+		public int hashCode() {
+			return fHash;
+		}
+	}
+
+	/**
+	 * @param makefileFormat <code>true</code> if the value is resolved to the makefile format
+	 * @return the cached result of resolving the value, or <code>null</code> if there is none
+	 */
+	public String get(boolean makefileFormat, String value, int contextType, Object contextData){
+		if(value == null || isFileDependent(value, contextType, contextData))
+			return null;
+		String resolved = fResolved.get(new Key(makefileFormat, value, contextType, contextData));
+		if(resolved != null)
+			fHits++;
+		else
+			fMisses++;
+		return resolved;
+	}
+
+	/**
+	 * Stores the result of resolving the value. Results of values referencing file macros
+	 * are not stored, as they differ for every file.
+	 */
+	public void put(boolean makefileFormat, String value, int contextType, Object contextData, String resolved){
+		if(value == null || resolved == null || isFileDependent(value, contextType, contextData))
+			return;
+		fResolved.put(new Key(makefileFormat, value, contextType, contextData), resolved);
+	}
+
+	private boolean isFileDependent(String value, int contextType, Object contextData){
+		return contextType == IBuildMacroProvider.CONTEXT_FILE
+				&& contextData instanceof IFileContextData
+				&& referencesFileMacros(value, contextData);
+	}
+
+	private boolean referencesFileMacros(String value, Object contextData){
+		// The referenced file macros depend on the option context, not on the file
+		Key key = new Key(false, value, IBuildMacroProvider.CONTEXT_FILE, contextData);
+		Boolean referenced = fFileMacros.get(key);
+		if(referenced == null){
+			ExplicitFileMacroCollector collector = new ExplicitFileMacroCollector(
+					BuildMacroProvider.getDefault().getMacroContextInfo(IBuildMacroProvider.CONTEXT_FILE, contextData), true);
+			try {
+				CdtVariableResolver.resolveToString(value, collector);
+			} catch (CdtVariableException e){
+			}
+			referenced = Boolean.valueOf(collector.getExplicisFileMacros().length != 0);
+			fFileMacros.put(key, referenced);
+		}
+		return referenced.booleanValue();
+	}
+
+	public int getHits(){
+		return fHits;
+	}
+
+	public int getMisses(){
+		return fMisses;
+	}
+
+	/**
+	 * @return the share of lookups answered from the cache, in percent
+	 */
+	public int getHitRatio(){
+		int lookups = fHits + fMisses;
+		return lookups != 0 ? (int)(fHits * 100L / lookups) : 0;
+	}
+
+	/**
+	 * Discards all cached results and resets the counters.
+	 */
+	public void clear(){
+		fResolved.clear();
+		fFileMacros.clear();
+		fHits = 0;
+		fMisses = 0;
+	}
+}
@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2011 Broadcom Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Broadcom Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.cdt.managedbuilder.internal.macros;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.cdt.core.cdtvariables.CdtVariableException;
+import org.eclipse.cdt.utils.cdtvariables.CdtVariableResolver;
+import org.eclipse.cdt.utils.cdtvariables.IVariableSubstitutor;
+
+/**
+ * Pre-parsed form of a string containing <code>${name}</code> macro references.
+ * <p>
+ * A string is split once into its literal and reference segments, the templates are shared
+ * by all the resolutions of the same string. Resolution then walks the segments instead of
+ * re-scanning the string. Templates that cannot be represented as a plain sequence of literals
+ * and references, e.g. nested or unterminated references, are resolved by the
+ * {@link CdtVariableResolver}, as are the values whose resolution yields further references.
+ *
+ * @since 8.0
+ */
+public final class MacroTemplate {
+	private static final String VARIABLE_PREFIX = "${"; //$NON-NLS-1$
+	private static final char VARIABLE_SUFFIX = '}';
+	private static final String EMPTY_STRING = ""; //$NON-NLS-1$
+	private static final int TEMPLATES_LIMIT = 8192;
+
+	private static final Map<String, MacroTemplate> fTemplates = new ConcurrentHashMap<String, MacroTemplate>();
+
+	private final String fString;
+	/** literals surrounding the references, one more than the references */
+	private final String fLiterals[];
+	private final String fReferences[];
+	private final boolean fSimple;
+	private final int fLiteralsLength;
+
+	private MacroTemplate(String string){
+		fString = string;
+
+		List<String> literals = new ArrayList<String>();
+		List<String> references = new ArrayList<String>();
+		boolean simple = true;
+		int pos = 0;
+		int start;
+		while((start = string.indexOf(VARIABLE_PREFIX, pos)) != -1){
+			int end = string.indexOf(VARIABLE_SUFFIX, start + VARIABLE_PREFIX.length());
+			if(end == -1){
+				simple = false;
+				break;
+			}
+			String name = string.substring(start + VARIABLE_PREFIX.length(), end);
+			if(name.length() == 0 || name.indexOf('$') != -1 || name.indexOf('{') != -1){
+				simple = false;
+				break;
+			}
+			literals.add(string.substring(pos, start));
+			references.add(name);
+			pos = end + 1;
+		}
+		literals.add(string.substring(pos));
+
+		fSimple = simple;
+		fLiterals = literals.toArray(new String[literals.size()]);
+		fReferences = references.toArray(new String[references.size()]);
+		int length = 0;
+		for(int i = 0; i < fLiterals.length; i++)
+			length += fLiterals[i].length();
+		fLiteralsLength = length;
+	}
+
+	/**
+	 * @return the template of the given string, <code>null</code> if the string
+	 * does not reference any macros
+	 */
+	public static MacroTemplate getTemplate(String string){
+		if(string == null || string.indexOf(VARIABLE_PREFIX) == -1)
+			return null;
+
+		MacroTemplate template = fTemplates.get(string);
+		if(template == null){
+			template = new MacroTemplate(string);
+			if(fTemplates.size() >= TEMPLATES_LIMIT)
+				fTemplates.clear();
+			fTemplates.put(string, template);
+		}
+		return template;
+	}
+
+	/**
+	 * Discards all the parsed templates.
+	 */
+	public static void clearTemplates(){
+		fTemplates.clear();
+	}
+
+	/**
+	 * Equivalent of {@link CdtVariableResolver#resolveToString(String, IVariableSubstitutor)}
+	 */
+	public static String resolveToString(String string, IVariableSubstitutor substitutor) throws CdtVariableException {
+		if(string == null)
+			return EMPTY_STRING;
+		MacroTemplate template = getTemplate(string);
+		if(template == null)
+			return string;
+		return template.resolveToString(substitutor);
+	}
+
+	/**
+	 * Equivalent of {@link CdtVariableResolver#resolveToStringList(String, IVariableSubstitutor)}
+	 */
+	public static String[] resolveToStringList(String string, IVariableSubstitutor substitutor) throws CdtVariableException {
+		MacroTemplate template = getTemplate(string);
+		if(template == null)
+			return new String[]{string};
+		return template.resolveToStringList(substitutor);
+	}
+
+	public String getString(){
+		return fString;
+	}
+
+	/**
+	 * @return whether the string is a plain sequence of literals and references
+	 */
+	public boolean isSimple(){
+		return fSimple;
+	}
+
+	/**
+	 * @return the names of the macros referenced, in the order of appearance
+	 */
+	public String[] getReferences(){
+		return fReferences.clone();
+	}
+
+	public String resolveToString(IVariableSubstitutor substitutor) throws CdtVariableException {
+		if(!fSimple)
+			return CdtVariableResolver.resolveToString(fString, substitutor);
+
+		StringBuilder buf = new StringBuilder(fLiteralsLength + 16 * fReferences.length);
+		for(int i = 0; i < fReferences.length; i++){
+			buf.append(fLiterals[i]);
+			String value = substitutor.resolveToString(fReferences[i]);
+			if(value == null || value.indexOf(VARIABLE_PREFIX) != -1)
+				return CdtVariableResolver.resolveToString(fString, substitutor);
+			buf.append(value);
+		}
+		buf.append(fLiterals[fReferences.length]);
+		return buf.toString();
+	}
+
+	public String[] resolveToStringList(IVariableSubstitutor substitutor) throws CdtVariableException {
+		if(!fSimple)
+			return CdtVariableResolver.resolveToStringList(fString, substitutor);
+
+		if(fReferences.length == 1 && fLiterals[0].length() == 0 && fLiterals[1].length() == 0){
+			String values[] = substitutor.resolveToStringList(fReferences[0]);
+			if(values != null)
+				return values;
+		}
+		return new String[]{resolveToString(substitutor)};
+	}
+
+	/**
+	 * Replaces the references to the given macros with their values, the references to
+	 * other macros are kept as they are. Unlike the resolution, the values are not scanned
+	 * for further references.
+	 *
+	 * @return the substituted string, or <code>null</code> for templates that are not
+	 * {@link #isSimple() simple}
+	 */
+	public String substitute(Map<String, String> values){
+		if(!fSimple)
+			return null;
+
+		StringBuilder buf = new StringBuilder(fLiteralsLength + 16 * fReferences.length);
+		for(int i = 0; i < fReferences.length; i++){
+			buf.append(fLiterals[i]);
+			String value = values.get(fReferences[i]);
+			if(value != null)
+				buf.append(value);
+			else
+				buf.append(VARIABLE_PREFIX).append(fReferences[i]).append(VARIABLE_SUFFIX);
+		}
+		buf.append(fLiterals[fReferences.length]);
+		return buf.toString();
+	}
+}
@@ -52,7 +52,9 @@ import org.osgi.framework.Bundle;
  * @since 3.0
  */
 public class MbsMacroSupplier extends BuildCdtVariablesSupplierBase {
-	private static MbsMacroSupplier fInstance;
+	private static final class Holder {
+		static final MbsMacroSupplier fInstance = new MbsMacroSupplier();
+	}
 	public final static String DOT = ".";	//$NON-NLS-1$
 	public final static String EMPTY_STRING = ""; //$NON-NLS-1$
 
@@ -140,6 +142,7 @@ public class MbsMacroSupplier extends BuildCdtVariablesSupplierBase {
 		private boolean fIsExplicitResolved;
 		private IPath fInputFileLocation;
 		private IPath fOutputFileLocation;
+		private FileMacroEvaluator fEvaluator;
 
 		private FileContextMacro(String name, IFileContextData contextData){
 			fName = name;
@@ -177,9 +180,20 @@ public class MbsMacroSupplier extends BuildCdtVariablesSupplierBase {
 				}
 			}
 			
+			if(contextData instanceof FileContextData){
+				FileMacroEvaluator evaluator = ((FileContextData)contextData).getMacroEvaluator();
+				if(evaluator != null && configuration != null && evaluator.isFor(configuration))
+					fEvaluator = evaluator;
+			}
+			
 			if(builder != null){
-				IFileContextBuildMacroValues values = builder.getFileContextBuildMacroValues();
-				String value = values.getMacroValue(fName);
+				String value;
+				if(fEvaluator != null){
+					value = fEvaluator.getBuilderValue(fName, builder);
+				} else {
+					IFileContextBuildMacroValues values = builder.getFileContextBuildMacroValues();
+					value = values.getMacroValue(fName);
+				}
 				if(value != null){
 					fStringValue = value;
 					fIsExplicit = false;
@@ -188,7 +202,7 @@ public class MbsMacroSupplier extends BuildCdtVariablesSupplierBase {
 			
 			if(fStringValue == null){
 				fIsExplicit = true;
-				fStringValue = getExplicitFileMacroValue(fName, contextData.getInputFileLocation(), contextData.getOutputFileLocation(), builder, configuration);
+				fStringValue = getExplicitValue(contextData.getInputFileLocation(), contextData.getOutputFileLocation(), builder, configuration);
 				fExplicitValue = fStringValue;
 				fIsExplicitResolved = true;
 			}
@@ -201,12 +215,18 @@ public class MbsMacroSupplier extends BuildCdtVariablesSupplierBase {
 		public String getExplicitMacroValue(IConfiguration configuration, IBuilder builder){
 //			loadValue();
 			if(!fIsExplicitResolved){
-				fExplicitValue = getExplicitFileMacroValue(fName, fInputFileLocation, fOutputFileLocation, builder, configuration);
+				fExplicitValue = getExplicitValue(fInputFileLocation, fOutputFileLocation, builder, configuration);
 				fIsExplicitResolved = true;
 			}
 			return fExplicitValue;
 		}
 		
+		private String getExplicitValue(IPath inputFileLocation, IPath outputFileLocation, IBuilder builder, IConfiguration configuration){
+			if(fEvaluator != null && fEvaluator.isFor(configuration))
+				return fEvaluator.getExplicitValue(fName, inputFileLocation, outputFileLocation, builder);
+			return getExplicitFileMacroValue(fName, inputFileLocation, outputFileLocation, builder, configuration);
+		}
+		
 		public boolean isExplicit(){
 //			loadValue();
 			return fIsExplicit;
@@ -326,9 +346,7 @@ public class MbsMacroSupplier extends BuildCdtVariablesSupplierBase {
 	}
 
 	public static MbsMacroSupplier getInstance(){
-		if(fInstance == null)
-			fInstance = new MbsMacroSupplier();
-		return fInstance;
+		return Holder.fInstance;
 	}
 	
 	/* (non-Javadoc)
@@ -812,7 +830,7 @@ public class MbsMacroSupplier extends BuildCdtVariablesSupplierBase {
 				}
 				
 				if(str != null)
-					return CdtVariableResolver.resolveToString(str,sub);
+					return MacroTemplate.resolveToString(str,sub);
 				else if(strL != null){
 					strL = CdtVariableResolver.resolveStringListValues(strL,sub,true);
 					return CdtVariableResolver.convertStringListToString(strL," "); 	//$NON-NLS-1$
@@ -864,7 +882,7 @@ public class MbsMacroSupplier extends BuildCdtVariablesSupplierBase {
 				}
 				
 				if(str != null)
-					return CdtVariableResolver.resolveToStringList(str,sub);
+					return MacroTemplate.resolveToStringList(str,sub);
 				else if(strL != null)
 					return CdtVariableResolver.resolveStringListValues(strL,sub,true);
 			} catch (BuildException e){
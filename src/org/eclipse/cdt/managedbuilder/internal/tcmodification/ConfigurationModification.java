@@ -119,7 +119,7 @@ public class ConfigurationModification extends FolderInfoModification implements
 	
 	private IBuilder[] getAllSysBuilders(){
 		if(fAllSysBuilders == null)
-			fAllSysBuilders = ManagedBuildManager.getRealBuilders();
+			fAllSysBuilders = ManagedBuildManager.getExtensionBuilderIndex().getRealElements();
 		return fAllSysBuilders;
 	}
 	
@@ -90,7 +90,7 @@ public class FolderInfoModification extends ToolListModification implements IFol
 	
 	private IToolChain[] getAllSysToolChains(){
 		if(fAllSysToolChains == null)
-			fAllSysToolChains = ManagedBuildManager.getRealToolChains();
+			fAllSysToolChains = ManagedBuildManager.getExtensionToolChainIndex().getRealElements();
 		return fAllSysToolChains;
 	}
 	
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2011 Broadcom Corporation and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ * Broadcom Corporation - Initial API and implementation
+ *******************************************************************************/
+package org.eclipse.cdt.managedbuilder.internal.tcmodification;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.cdt.managedbuilder.internal.core.IRealBuildObjectAssociation;
+
+/**
+ * Dense integer ids of the real tool-chains, tools, builders and configurations.
+ * <p>
+ * The real extension objects of a type get the ids 0 to n-1 in the order of the
+ * extension element index, further objects can be added while the ids are set up.
+ * A set of the real objects of one type is represented as a {@link BitSet} of their ids.
+ * <p>
+ * The ids are only valid as long as the extension model does not change, see {@link #isCurrent()}.
+ * The instance is not synchronized, it must not be modified once it is shared.
+ *
+ * @since 8.0
+ */
+final class RealBuildObjectIds {
+	private final ObjectTypeBasedStorage<IRealBuildObjectAssociation[]> fExtensionObjects = new ObjectTypeBasedStorage<IRealBuildObjectAssociation[]>();
+	private final ObjectTypeBasedStorage<List<IRealBuildObjectAssociation>> fObjects = new ObjectTypeBasedStorage<List<IRealBuildObjectAssociation>>();
+	private final ObjectTypeBasedStorage<Map<IRealBuildObjectAssociation, Integer>> fIds = new ObjectTypeBasedStorage<Map<IRealBuildObjectAssociation, Integer>>();
+
+	RealBuildObjectIds(){
+		int types[] = ObjectTypeBasedStorage.getSupportedObjectTypes();
+		for(int i = 0; i < types.length; i++){
+			int type = types[i];
+			IRealBuildObjectAssociation objs[] = TcModificationUtil.getRealObjects(type);
+			fExtensionObjects.set(type, objs);
+			fObjects.set(type, new ArrayList<IRealBuildObjectAssociation>(objs.length));
+			fIds.set(type, new IdentityHashMap<IRealBuildObjectAssociation, Integer>(objs.length));
+			for(int k = 0; k < objs.length; k++)
+				add(objs[k]);
+		}
+	}
+
+	/**
+	 * @return whether the ids were set up for the current extension model
+	 */
+	boolean isCurrent(){
+		int types[] = ObjectTypeBasedStorage.getSupportedObjectTypes();
+		for(int i = 0; i < types.length; i++){
+			if(fExtensionObjects.get(types[i]) != TcModificationUtil.getRealObjects(types[i]))
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Assigns the next free id of its type to the object, unless it already has an id.
+	 *
+	 * @return the id of the object
+	 */
+	int add(IRealBuildObjectAssociation obj){
+		Map<IRealBuildObjectAssociation, Integer> ids = fIds.get(obj.getType());
+		Integer id = ids.get(obj);
+		if(id == null){
+			List<IRealBuildObjectAssociation> objects = fObjects.get(obj.getType());
+			id = Integer.valueOf(objects.size());
+			objects.add(obj);
+			ids.put(obj, id);
+		}
+		return id.intValue();
+	}
+
+	/**
+	 * @return the id of the object, -1 if the object has none
+	 */
+	int getId(IRealBuildObjectAssociation obj){
+		Integer id = fIds.get(obj.getType()).get(obj);
+		return id != null ? id.intValue() : -1;
+	}
+
+	IRealBuildObjectAssociation getObject(int type, int id){
+		return fObjects.get(type).get(id);
+	}
+
+	/**
+	 * @return the bitset of the ids of the objects of the given type, the objects having no id are ignored
+	 */
+	BitSet getBits(int type, Collection<? extends IRealBuildObjectAssociation> objs){
+		Map<IRealBuildObjectAssociation, Integer> ids = fIds.get(type);
+		BitSet bits = new BitSet(ids.size());
+		for (IRealBuildObjectAssociation obj : objs) {
+			Integer id = ids.get(obj);
+			if(id != null)
+				bits.set(id.intValue());
+		}
+		return bits;
+	}
+
+	/**
+	 * Adds the objects of the given type whose ids are set in the bitset to the set.
+	 */
+	Set<IRealBuildObjectAssociation> getObjects(int type, BitSet bits, Set<IRealBuildObjectAssociation> set){
+		List<IRealBuildObjectAssociation> objects = fObjects.get(type);
+		for(int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1))
+			set.add(objects.get(id));
+		return set;
+	}
+}
@@ -33,6 +33,7 @@ import org.eclipse.cdt.managedbuilder.core.IToolChain;
 import org.eclipse.cdt.managedbuilder.core.ManagedBuildManager;
 import org.eclipse.cdt.managedbuilder.internal.core.Builder;
 import org.eclipse.cdt.managedbuilder.internal.core.Configuration;
+import org.eclipse.cdt.managedbuilder.internal.core.ExtensionElementIndex;
 import org.eclipse.cdt.managedbuilder.internal.core.FolderInfo;
 import org.eclipse.cdt.managedbuilder.internal.core.IRealBuildObjectAssociation;
 import org.eclipse.cdt.managedbuilder.internal.core.ResourceConfiguration;
@@ -628,34 +629,36 @@ public class TcModificationUtil {
 		return false;
 	}
 	
-	public static IRealBuildObjectAssociation[] getRealObjects(int type){
+	/**
+	 * @return the index of the extension objects of the given type
+	 */
+	public static ExtensionElementIndex<? extends IRealBuildObjectAssociation> getExtensionIndex(int type){
 		switch (type) {
 		case IRealBuildObjectAssociation.OBJECT_TOOL:
-			return (IRealBuildObjectAssociation[])ManagedBuildManager.getRealTools();
+			return ManagedBuildManager.getExtensionToolIndex();
 		case IRealBuildObjectAssociation.OBJECT_TOOLCHAIN:
-			return (IRealBuildObjectAssociation[])ManagedBuildManager.getRealToolChains();
+			return ManagedBuildManager.getExtensionToolChainIndex();
 		case IRealBuildObjectAssociation.OBJECT_BUILDER:
-			return (IRealBuildObjectAssociation[])ManagedBuildManager.getRealBuilders();
+			return ManagedBuildManager.getExtensionBuilderIndex();
 		case IRealBuildObjectAssociation.OBJECT_CONFIGURATION:
-			return (IRealBuildObjectAssociation[])ManagedBuildManager.getExtensionConfigurations();
+			return ManagedBuildManager.getExtensionConfigurationIndex();
 		default:
 			throw new IllegalArgumentException();
 		}
 	}
+
+	/**
+	 * @return the shared array of the real extension objects of the given type, the array must not be modified
+	 */
+	public static IRealBuildObjectAssociation[] getRealObjects(int type){
+		return getExtensionIndex(type).getRealElements();
+	}
 	
+	/**
+	 * @return the shared array of the extension objects of the given type, the array must not be modified
+	 */
 	public static IRealBuildObjectAssociation[] getExtensionObjects(int type){
-		switch (type) {
-		case IRealBuildObjectAssociation.OBJECT_TOOL:
-			return (IRealBuildObjectAssociation[])ManagedBuildManager.getExtensionTools();
-		case IRealBuildObjectAssociation.OBJECT_TOOLCHAIN:
-			return (IRealBuildObjectAssociation[])ManagedBuildManager.getExtensionToolChains();
-		case IRealBuildObjectAssociation.OBJECT_BUILDER:
-			return (IRealBuildObjectAssociation[])ManagedBuildManager.getExtensionBuilders();
-		case IRealBuildObjectAssociation.OBJECT_CONFIGURATION:
-			return (IRealBuildObjectAssociation[])ManagedBuildManager.getExtensionConfigurations();
-		default:
-			throw new IllegalArgumentException();
-		}
+		return getExtensionIndex(type).getElements();
 	}
 	
 	public static IRealBuildObjectAssociation getObjectById(int type, String id){
@@ -12,6 +12,7 @@ package org.eclipse.cdt.managedbuilder.internal.tcmodification;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -36,6 +37,7 @@ import org.eclipse.core.runtime.IPath;
 public class ToolChainModificationManager implements
 		IToolChainModificationManager {
 	private static ToolChainModificationManager fInstance;
+	private ConflictRules fConflictRules;
 	
 	private ToolChainModificationManager(){
 	}
@@ -119,34 +121,6 @@ public class ToolChainModificationManager implements
 		return flags &= (~value);
 	}
 	
-	private boolean getMatchingObjects(int type, IObjectSet[] oSets, Set<IRealBuildObjectAssociation> skipSet, IRealBuildObjectAssociation additionalSkip, Set<IRealBuildObjectAssociation> result){
-		Set<IRealBuildObjectAssociation> tmp = null;
-		boolean added = false;
-		for (IObjectSet os : oSets) {
-			int setType = os.getObjectType();
-			if(setType != type)
-				continue;
-
-			if(tmp == null)
-				tmp = new HashSet<IRealBuildObjectAssociation>();
-			else
-				tmp.clear();
-			
-			os.getRealBuildObjects(tmp);
-			
-			if(skipSet != null)
-				tmp.removeAll(skipSet);
-			
-			if(additionalSkip != null)
-				tmp.remove(additionalSkip);
-			
-			if(result.addAll(tmp)){
-				added = true;
-			}
-		}
-		return added;
-	}
-
 	public ConflictMatchSet getConflictInfo(int objType, PerTypeMapStorage<IRealBuildObjectAssociation, Set<IPath>> parent){
 		//parent should be passed - it is constant no need to recalculate every time
 		//PerTypeMapStorage parent = TcModificationUtil.createParentObjectsRealToolToPathSet(foInfo);
@@ -182,6 +156,75 @@ public class ToolChainModificationManager implements
 		
 	}
 	
+	/**
+	 * An object set of a conflict rule. The objects of the set and, per object type, the objects
+	 * of the other sets of the rule are kept as bitsets of their {@link RealBuildObjectIds ids}.
+	 */
+	private static final class ConflictRuleSet {
+		final int fObjectType;
+		final BitSet fObjects;
+		final ObjectTypeBasedStorage<BitSet> fRemainingObjects = new ObjectTypeBasedStorage<BitSet>();
+		final ObjectTypeBasedStorage<Set<IRealBuildObjectAssociation>> fRemainingObjectSets = new ObjectTypeBasedStorage<Set<IRealBuildObjectAssociation>>();
+
+		ConflictRuleSet(RealBuildObjectIds ids, IObjectSet oss[], int index){
+			IObjectSet os = oss[index];
+			fObjectType = os.getObjectType();
+			fObjects = getBits(ids, os);
+
+			int types[] = ObjectTypeBasedStorage.getSupportedObjectTypes();
+			for(int i = 0; i < types.length; i++){
+				int type = types[i];
+				BitSet remaining = new BitSet();
+				for(int k = 0; k < oss.length; k++){
+					if(k != index && oss[k].getObjectType() == type)
+						remaining.or(getBits(ids, oss[k]));
+				}
+				fRemainingObjects.set(type, remaining);
+				fRemainingObjectSets.set(type, Collections.unmodifiableSet(ids.getObjects(type, remaining, new HashSet<IRealBuildObjectAssociation>())));
+			}
+		}
+
+		private static BitSet getBits(RealBuildObjectIds ids, IObjectSet os){
+			IRealBuildObjectAssociation objs[] = os.getRealBuildObjects();
+			for(int i = 0; i < objs.length; i++)
+				ids.add(objs[i]);
+			return ids.getBits(os.getObjectType(), Arrays.asList(objs));
+		}
+	}
+
+	/**
+	 * The conflict rules evaluated against the extension model, valid until the rules
+	 * or the extension model change.
+	 */
+	private static final class ConflictRules {
+		final ObjectSetListBasedDefinition fDefs[];
+		final RealBuildObjectIds fIds;
+		final ConflictRuleSet fSets[];
+
+		ConflictRules(ObjectSetListBasedDefinition defs[]){
+			fDefs = defs;
+			fIds = new RealBuildObjectIds();
+			List<ConflictRuleSet> list = new ArrayList<ConflictRuleSet>();
+			for(int i = 0; i < defs.length; i++){
+				IObjectSet oss[] = defs[i].getObjectSetList().getObjectSets();
+				for(int k = 0; k < oss.length; k++)
+					list.add(new ConflictRuleSet(fIds, oss, k));
+			}
+			fSets = list.toArray(new ConflictRuleSet[list.size()]);
+		}
+
+		boolean isCurrent(ObjectSetListBasedDefinition defs[]){
+			return Arrays.equals(fDefs, defs) && fIds.isCurrent();
+		}
+	}
+
+	private synchronized ConflictRules getConflictRules(){
+		ObjectSetListBasedDefinition[] defs = RulesManager.getInstance().getRules(ObjectSetListBasedDefinition.CONFLICT);
+		if(fConflictRules == null || !fConflictRules.isCurrent(defs))
+			fConflictRules = new ConflictRules(defs);
+		return fConflictRules;
+	}
+
 	private ConflictMatchSet getConflictMatches(int type, PerTypeMapStorage<IRealBuildObjectAssociation, Set<IPath>> rtToPath, PerTypeSetStorage<IRealBuildObjectAssociation> skip){
 		
 		//conversion:
@@ -192,51 +235,57 @@ public class ToolChainModificationManager implements
 		List<ConflictMatch> conflictList = new ArrayList<ConflictMatch>();
 		Map<IRealBuildObjectAssociation, List<ConflictMatch>> objToConflictMatchMap = new HashMap<IRealBuildObjectAssociation, List<ConflictMatch>>();
 		
-		ObjectSetListBasedDefinition[] defs = RulesManager.getInstance().getRules(ObjectSetListBasedDefinition.CONFLICT);
-		for(int i = 0; i < defs.length; i++){
-			ObjectSetListBasedDefinition def= defs[i];
-			ObjectSetList sl = def.getObjectSetList();
-			IObjectSet oss[] = sl.getObjectSets();
-			for(int k = 0; k < oss.length; k++){
-				IObjectSet os = oss[k];
-				int objType = os.getObjectType();
-				Map<IRealBuildObjectAssociation, Set<IPath>> rtToPathMap = rtToPath.getMap(objType, false);
-				if(rtToPathMap == null)
-					continue;
-				
-				@SuppressWarnings("unchecked")
-				Map<IRealBuildObjectAssociation, Set<IPath>> clone = (Map<IRealBuildObjectAssociation, Set<IPath>>)((HashMap<IRealBuildObjectAssociation, Set<IPath>>)rtToPathMap).clone();
-				rtToPathMap = clone;
-				Set<IRealBuildObjectAssociation> skipSet = skip != null ? (Set<IRealBuildObjectAssociation>)skip.getSet(objType, false) : null;
-				Set<IRealBuildObjectAssociation> objSet = rtToPathMap.keySet();
+		ConflictRules rules = getConflictRules();
+		RealBuildObjectIds ids = rules.fIds;
+		ObjectTypeBasedStorage<BitSet> parentObjects = new ObjectTypeBasedStorage<BitSet>();
+		Set<IRealBuildObjectAssociation> skipSet2 = skip != null ? (Set<IRealBuildObjectAssociation>)skip.getSet(type, false) : null;
+		BitSet skipBits2 = skipSet2 != null ? ids.getBits(type, skipSet2) : null;
+
+		for(ConflictRuleSet rs : rules.fSets){
+			int objType = rs.fObjectType;
+			Map<IRealBuildObjectAssociation, Set<IPath>> rtToPathMap = rtToPath.getMap(objType, false);
+			if(rtToPathMap == null)
+				continue;
 
+			//the objects having no id are in none of the rule sets
+			BitSet objBits = parentObjects.get(objType);
+			if(objBits == null){
+				objBits = ids.getBits(objType, rtToPathMap.keySet());
+				Set<IRealBuildObjectAssociation> skipSet = skip != null ? (Set<IRealBuildObjectAssociation>)skip.getSet(objType, false) : null;
 				if(skipSet != null)
-					objSet.removeAll(skipSet);
-
-				os.retainMatches(objSet);
-				
-				if(objSet.size() != 0){
-					List<IObjectSet> remainingList = new ArrayList<IObjectSet>(Arrays.asList(oss));
-					remainingList.remove(os);
-
-					IObjectSet[] remaining = remainingList.toArray(new IObjectSet[remainingList.size()]);
-					//get objects matching remaining
-					Set<IRealBuildObjectAssociation> skipSet2 = skip != null ? (Set<IRealBuildObjectAssociation>)skip.getSet(type, false) : null;
-					Set<IRealBuildObjectAssociation> matchingObjects = new HashSet<IRealBuildObjectAssociation>();
-					getMatchingObjects(type, remaining, skipSet2, null, matchingObjects);
-					if(matchingObjects.size() != 0){
-						ConflictMatch conflict = new ConflictMatch(objType, rtToPathMap, type, matchingObjects);
-						
-						for (IRealBuildObjectAssociation bo : matchingObjects) {
-							List<ConflictMatch> list = TcModificationUtil.getArrayList(objToConflictMatchMap, bo);
-							list.add(conflict);
-						}
-						
-						conflictList.add(conflict);
-					}
-//					break;
-				}
+					objBits.andNot(ids.getBits(objType, skipSet));
+				parentObjects.set(objType, objBits);
 			}
+
+			if(!objBits.intersects(rs.fObjects))
+				continue;
+
+			//get objects matching remaining
+			Set<IRealBuildObjectAssociation> matchingObjects = rs.fRemainingObjectSets.get(type);
+			if(skipBits2 != null && rs.fRemainingObjects.get(type).intersects(skipBits2)){
+				BitSet bits = (BitSet)rs.fRemainingObjects.get(type).clone();
+				bits.andNot(skipBits2);
+				matchingObjects = ids.getObjects(type, bits, new HashSet<IRealBuildObjectAssociation>());
+			}
+			if(matchingObjects.size() == 0)
+				continue;
+
+			BitSet matchBits = (BitSet)objBits.clone();
+			matchBits.and(rs.fObjects);
+			Map<IRealBuildObjectAssociation, Set<IPath>> matchMap = new HashMap<IRealBuildObjectAssociation, Set<IPath>>();
+			for(int id = matchBits.nextSetBit(0); id >= 0; id = matchBits.nextSetBit(id + 1)){
+				IRealBuildObjectAssociation obj = ids.getObject(objType, id);
+				matchMap.put(obj, rtToPathMap.get(obj));
+			}
+
+			ConflictMatch conflict = new ConflictMatch(objType, matchMap, type, matchingObjects);
+			
+			for (IRealBuildObjectAssociation bo : matchingObjects) {
+				List<ConflictMatch> list = TcModificationUtil.getArrayList(objToConflictMatchMap, bo);
+				list.add(conflict);
+			}
+			
+			conflictList.add(conflict);
 		}
 		
 		return new ConflictMatchSet(conflictList.toArray(new ConflictMatch[conflictList.size()]), objToConflictMatchMap);
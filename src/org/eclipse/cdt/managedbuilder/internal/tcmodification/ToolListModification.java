@@ -497,8 +497,8 @@ public abstract class ToolListModification implements IToolListModification {
 	
 	private Tool[] getAllSysTools(){
 		if(fAllSysTools == null){
-			ITool[] allSys = ManagedBuildManager.getRealTools();
-			fAllSysTools = filterTools((Tool[])allSys);
+			Tool[] allSys = ManagedBuildManager.getExtensionToolIndex().getRealElements();
+			fAllSysTools = filterTools(allSys);
 			HashSet<ITool> set = new HashSet<ITool>(Arrays.asList(allSys));
 			set.removeAll(Arrays.asList(fAllSysTools));
 			fFilteredOutSysTools = set;
@@ -19,6 +19,7 @@ import java.util.Set;
 import java.util.regex.Pattern;
 
 import org.eclipse.cdt.managedbuilder.core.ManagedBuilderCorePlugin;
+import org.eclipse.cdt.managedbuilder.internal.core.ExtensionElementIndex;
 import org.eclipse.cdt.managedbuilder.internal.core.IRealBuildObjectAssociation;
 import org.eclipse.cdt.managedbuilder.internal.tcmodification.IObjectSet;
 import org.eclipse.cdt.managedbuilder.internal.tcmodification.Messages;
@@ -41,6 +42,7 @@ public class RulesManager {
 	private static RulesManager fInstance;
 	private static final String EXTENSION_POINT_ID = ManagedBuilderCorePlugin.getUniqueIdentifier() + ".tcModificationInfo"; //$NON-NLS-1$
 	
+	private ConflictDefinitionElement[] fConflictDefinitionElements;
 	private ConflictDefinition[] fConflictDefinitions;
 	
 	private Map<MatchObjectElement, IObjectSet> fMatchObjectMap = new HashMap<MatchObjectElement, IObjectSet>();
@@ -97,13 +99,17 @@ public class RulesManager {
 		fStarter.schedule();
 	}
 	
+	/*
+	 * only reads the rule definitions, the build objects they refer to are looked up
+	 * when the rules are first requested, see getConflictDefinitions()
+	 */
 	private void loadExtensions(){
 		IExtensionPoint extensionPoint = Platform.getExtensionRegistry().getExtensionPoint(EXTENSION_POINT_ID);
 		if(extensionPoint == null){
-			fConflictDefinitions = new ConflictDefinition[0];
+			fConflictDefinitionElements = new ConflictDefinitionElement[0];
 		} else {
 			IExtension[] extensions = extensionPoint.getExtensions();
-			List<ConflictDefinition> conflictDefs = new ArrayList<ConflictDefinition>();
+			List<ConflictDefinitionElement> conflictDefs = new ArrayList<ConflictDefinitionElement>();
 			for (int i = 0; i < extensions.length; ++i) {
 				IExtension extension = extensions[i];
 				IConfigurationElement[] elements = extension.getConfigurationElements();
@@ -112,10 +118,7 @@ public class RulesManager {
 					String elName = el.getName();
 					if(ConflictDefinitionElement.ELEMENT_NAME.equals(elName)){
 						try {
-							ConflictDefinitionElement cde = new ConflictDefinitionElement(el);
-							ConflictDefinition cd = resolve(cde);
-							if(cd != null)
-								conflictDefs.add(cd);
+							conflictDefs.add(new ConflictDefinitionElement(el));
 						} catch (IllegalArgumentException e){
 							ManagedBuilderCorePlugin.log(e);
 						}
@@ -123,8 +126,31 @@ public class RulesManager {
 				}
 			}
 			
+			fConflictDefinitionElements = conflictDefs.toArray(new ConflictDefinitionElement[conflictDefs.size()]);
+		}
+	}
+	
+	/*
+	 * matching the rules against the extension build objects resolves the objects, which
+	 * is left until the rules are needed, and the rules with exact ids only resolve the
+	 * objects they name
+	 */
+	private synchronized ConflictDefinition[] getConflictDefinitions(){
+		if(fConflictDefinitions == null){
+			List<ConflictDefinition> conflictDefs = new ArrayList<ConflictDefinition>();
+			for(int i = 0; i < fConflictDefinitionElements.length; i++){
+				try {
+					ConflictDefinition cd = resolve(fConflictDefinitionElements[i]);
+					if(cd != null)
+						conflictDefs.add(cd);
+				} catch (IllegalArgumentException e){
+					ManagedBuilderCorePlugin.log(e);
+				}
+			}
+			
 			fConflictDefinitions = conflictDefs.toArray(new ConflictDefinition[conflictDefs.size()]);
 		}
+		return fConflictDefinitions;
 	}
 	
 	private ConflictDefinition resolve(ConflictDefinitionElement el) throws IllegalArgumentException {
@@ -194,7 +220,6 @@ public class RulesManager {
 				}
 			}
 		} else if (el.getSearchType() == PatternElement.TYPE_SEARCH_ALL_EXTENSION_SUPERCLASSES){
-			IRealBuildObjectAssociation[] allReal = TcModificationUtil.getRealObjects(objType);
 			for(int i = 0; i < ids.length; i++){
 				IRealBuildObjectAssociation []objs = getObjectsForId(objType, ids[i], el.getIdType());
 				for(int k = 0; k < objs.length; k++){
@@ -202,7 +227,7 @@ public class RulesManager {
 					
 					set.add(obj.getRealBuildObject());
 
-					Set<IRealBuildObjectAssociation> childRealSet = getChildSuperClassRealSet(obj, allReal);
+					Set<IRealBuildObjectAssociation> childRealSet = getChildSuperClassRealSet(obj);
 					
 					set.addAll(childRealSet);
 //					for(int k = 0; k < allReal.length; k++){
@@ -230,52 +255,43 @@ public class RulesManager {
 		return set;
 	}
 	
-	private Set<IRealBuildObjectAssociation> getChildSuperClassRealSet(IRealBuildObjectAssociation obj, IRealBuildObjectAssociation[] all){
+	private Set<IRealBuildObjectAssociation> getChildSuperClassRealSet(IRealBuildObjectAssociation obj){
 		if(fObjToChildSuperClassMap == null)
 			fObjToChildSuperClassMap = new PerTypeMapStorage<IRealBuildObjectAssociation, Set<IRealBuildObjectAssociation>>();
 
-		if(all == null)
-			all = TcModificationUtil.getExtensionObjects(obj.getType());
-
 		Map<IRealBuildObjectAssociation, Set<IRealBuildObjectAssociation>> map = fObjToChildSuperClassMap.getMap(obj.getType(), true);
 		Set<IRealBuildObjectAssociation> set = map.get(obj);
 		if(set == null){
-			set = createChildSuperClassRealSet(obj, all, null);
+			set = new HashSet<IRealBuildObjectAssociation>();
+			addChildSuperClassRealSet(obj, TcModificationUtil.getExtensionIndex(obj.getType()),
+					new ArrayList<IRealBuildObjectAssociation>(), set);
 			map.put(obj, set);
 		}
 		
 		return set;
 	}
 	
-	private static Set<IRealBuildObjectAssociation> createChildSuperClassRealSet(IRealBuildObjectAssociation obj, IRealBuildObjectAssociation[] all, Set<IRealBuildObjectAssociation> set){
-		if(set == null)
-			set = new HashSet<IRealBuildObjectAssociation>();
-		
-		if(all == null)
-			all = TcModificationUtil.getExtensionObjects(obj.getType());
-		
-		for(int i = 0; i < all.length; i++){
-			IRealBuildObjectAssociation cur = all[i];
-			for(IRealBuildObjectAssociation el = cur.getSuperClassObject(); el != null; el = el.getSuperClassObject()){
-				if(el == obj){
-					IRealBuildObjectAssociation realQuickTest = null;
-					for(IRealBuildObjectAssociation found = cur; found != obj; found = found.getSuperClassObject()){
-						IRealBuildObjectAssociation real = found.getRealBuildObject();
-						if(real != realQuickTest){
-							set.add(real);
-							realQuickTest = real;
-						}
-					}
-				}
+	/**
+	 * Walks the sub-classes of the object and adds, for every real sub-class, the real objects
+	 * of the elements on its super-class chain up to the object.
+	 */
+	private static void addChildSuperClassRealSet(IRealBuildObjectAssociation obj,
+			ExtensionElementIndex<? extends IRealBuildObjectAssociation> index,
+			List<IRealBuildObjectAssociation> path, Set<IRealBuildObjectAssociation> set){
+		for(IRealBuildObjectAssociation cur : index.getSubClasses(obj)){
+			path.add(cur);
+			if(index.isRealElement(cur)){
+				for(IRealBuildObjectAssociation found : path)
+					set.add(found.getRealBuildObject());
 			}
+			addChildSuperClassRealSet(cur, index, path, set);
+			path.remove(path.size() - 1);
 		}
-		
-		return set;
 	}
 	
 	public ObjectSetListBasedDefinition[] getRules(int ruleType){
 		checkInitialization();
-		return fConflictDefinitions.clone();
+		return getConflictDefinitions().clone();
 	}
 	
 	private void checkInitialization(){
@@ -58,10 +58,14 @@ import org.eclipse.cdt.managedbuilder.core.IResourceInfo;
 import org.eclipse.cdt.managedbuilder.core.ITool;
 import org.eclipse.cdt.managedbuilder.core.ManagedBuildManager;
 import org.eclipse.cdt.managedbuilder.core.ManagedBuilderCorePlugin;
+import org.eclipse.cdt.managedbuilder.internal.core.GeneratedMakefileBuilder;
 import org.eclipse.cdt.managedbuilder.internal.core.ManagedMakeMessages;
+import org.eclipse.cdt.managedbuilder.internal.core.ResourcePathTrie;
 import org.eclipse.cdt.managedbuilder.internal.core.Tool;
 import org.eclipse.cdt.managedbuilder.internal.macros.BuildMacroProvider;
 import org.eclipse.cdt.managedbuilder.internal.macros.FileContextData;
+import org.eclipse.cdt.managedbuilder.internal.macros.FileMacroEvaluator;
+import org.eclipse.cdt.managedbuilder.internal.macros.MacroResolutionCache;
 import org.eclipse.cdt.managedbuilder.macros.BuildMacroException;
 import org.eclipse.cdt.managedbuilder.macros.IBuildMacroProvider;
 import org.eclipse.cdt.managedbuilder.makegen.IManagedBuilderMakefileGenerator;
@@ -323,6 +327,18 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 	private static final String MAINBUILD = "main-build"; //$NON-NLS-1$
 	private static final String POSTBUILD = "post-build"; //$NON-NLS-1$
 	private static final String SECONDARY_OUTPUTS = "secondary-outputs"; //$NON-NLS-1$
+	private static final String RECIPE_MACRO_PREFIX = "RECIPE_"; //$NON-NLS-1$
+
+	/**
+	 * Builder attribute which switches the generator to the single, non-recursive makefile
+	 * mode. When set to <code>"true"</code> one flattened makefile is generated instead of
+	 * sources.mk, objects.mk and a subdir.mk per source folder. Pattern rules with identical
+	 * recipes share a canned recipe.
+	 *
+	 * @see IBuilder#getBuildAttribute(String, String)
+	 * @since 8.0
+	 */
+	public static final String FLAT_MAKEFILE_ATTRIBUTE = "org.eclipse.cdt.managedbuilder.makegen.gnu.flatMakefile"; //$NON-NLS-1$
 
 	// Enumerations
 	public static final int
@@ -348,6 +364,7 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 //	private boolean[] buildToolsUsed;
 //	private ManagedBuildGnuToolInfo[] gnuToolInfos;
 	private PathSettingsContainer toolInfos;
+	private ResourcePathTrie<ToolInfoHolder> toolInfoTrie;
 	private Vector<IResource> deletedFileList;
 	private Vector<IResource> deletedDirList;
 //	private IManagedBuildInfo info;
@@ -378,6 +395,18 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 //	private Vector dependencyMakefiles;		//  IPath's - relative to the top build directory or absolute
 
 	private ICSourceEntry srcEntries[];
+	/** Results of the macro resolution, valid for the duration of a makefile generation */
+	private final MacroResolutionCache resolutionCache = new MacroResolutionCache();
+	private FileMacroEvaluator fileMacroEvaluator;
+
+	//=== Single, non-recursive makefile mode
+	private boolean flatMakefile;
+	//  Contents of sources.mk, the per-folder build variable additions and the per-folder rules
+	private StringBuffer flatSourcesBuffer;
+	private StringBuffer flatMacroBuffer;
+	private StringBuffer flatRuleBuffer;
+	//  Map of recipe text to the name of the canned recipe macro it is written to
+	private final LinkedHashMap<String, String> flatRecipes = new LinkedHashMap<String, String>();
 
 
 	public GnuMakefileGenerator() {
@@ -415,6 +444,7 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 		// Cache the build tools
 		config = info.getDefaultConfiguration();
 		builder = config.getEditableBuilder();
+		flatMakefile = isFlatMakefile(builder);
 		initToolInfos();
 		// initialize the topBuildDir
 		topBuildDir = project.getFullPath().append(getBuildWorkingDir());
@@ -583,6 +613,14 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 	 * @see org.eclipse.cdt.managedbuilder.makegen.IManagedBuilderMakefileGenerator#generateMakefiles(org.eclipse.core.resources.IResourceDelta)
 	 */
 	public MultiStatus generateMakefiles(IResourceDelta delta) throws CoreException {
+		try {
+			return generateMakefilesForDelta(delta);
+		} finally {
+			clearResolutionCache();
+		}
+	}
+
+	private MultiStatus generateMakefilesForDelta(IResourceDelta delta) throws CoreException {
 		/*
 		 * Let's do a sanity check right now.
 		 *
@@ -635,19 +673,23 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 		checkCancel();
 
 		// Make sure that there is a makefile containing all the folders participating
-		IPath srcsFilePath = topBuildDir.append(SRCSFILE_NAME);
-		IFile srcsFileHandle = createFile(srcsFilePath);
+		IFile srcsFileHandle = null;
+		if (!flatMakefile) {
+			IPath srcsFilePath = topBuildDir.append(SRCSFILE_NAME);
+			srcsFileHandle = createFile(srcsFilePath);
+		}
 		buildSrcVars.clear();
 		buildOutVars.clear();
 		buildDepVars.clear();
 		topBuildOutVars.clear();
+		resetFlatMakefile();
 		populateSourcesMakefile(srcsFileHandle);
 		checkCancel();
 
 		// Regenerate any fragments that are missing for the exisiting directories NOT modified
 		for (IResource res : getSubdirList()) {
 			IContainer subdirectory = (IContainer)res;
-			if (!getModifiedList().contains(subdirectory)) {
+			if (!flatMakefile && !getModifiedList().contains(subdirectory)) {
 				// Make sure the directory exists (it may have been deleted)
 				if (!subdirectory.exists()) {
 					appendDeletedSubdirectory(subdirectory);
@@ -844,6 +886,14 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 	 * @see org.eclipse.cdt.managedbuilder.makegen.IManagedBuilderMakefileGenerator#regenerateMakefiles()
 	 */
 	public MultiStatus regenerateMakefiles() throws CoreException {
+		try {
+			return regenerateAllMakefiles();
+		} finally {
+			clearResolutionCache();
+		}
+	}
+
+	private MultiStatus regenerateAllMakefiles() throws CoreException {
 		MultiStatus status;
 		// Visit the resources in the project
 		ResourceProxyVisitor visitor = new ResourceProxyVisitor(this, config);
@@ -875,12 +925,16 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 		checkCancel();
 
 		// Get the list of subdirectories
-		IPath srcsFilePath = topBuildDir.append(SRCSFILE_NAME);
-		IFile srcsFileHandle = createFile(srcsFilePath);
+		IFile srcsFileHandle = null;
+		if (!flatMakefile) {
+			IPath srcsFilePath = topBuildDir.append(SRCSFILE_NAME);
+			srcsFileHandle = createFile(srcsFilePath);
+		}
 		buildSrcVars.clear();
 		buildOutVars.clear();
 		buildDepVars.clear();
 		topBuildOutVars.clear();
+		resetFlatMakefile();
 		populateSourcesMakefile(srcsFileHandle);
 		checkCancel();
 
@@ -908,10 +962,12 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 		checkCancel();
 
 		// Now finish up by adding all the object files
-		IPath objFilePath = topBuildDir.append(OBJECTS_MAKFILE);
-		IFile objsFileHandle = createFile(objFilePath);
-		populateObjectsMakefile(objsFileHandle);
-		checkCancel();
+		if (!flatMakefile) {
+			IPath objFilePath = topBuildDir.append(OBJECTS_MAKFILE);
+			IFile objsFileHandle = createFile(objFilePath);
+			populateObjectsMakefile(objsFileHandle);
+			checkCancel();
+		}
 
 		// How did we do
 		if (!getInvalidDirList().isEmpty()) {
@@ -964,6 +1020,12 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 		// Now create the directory
 		IPath moduleOutputDir = createDirectory(moduleOutputPath);
 
+		// In the flattened mode the folder contributes to the single makefile instead
+		if (flatMakefile) {
+			addSources(module, flatMacroBuffer, flatRuleBuffer);
+			return;
+		}
+
 		// Create a module makefile
 		IFile modMakefile = createFile(moduleOutputDir.append(MODFILE_NAME));
 		StringBuffer makeBuf = new StringBuffer();
@@ -981,11 +1043,22 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 	 * @param fileHandle The file that should be populated with the output
 	 */
 	protected void populateObjectsMakefile(IFile fileHandle) throws CoreException {
+		StringBuffer macroBuffer = addDefaultHeader();
+		macroBuffer.append(addObjectsMacros());
+
+ 		// For now, just save the buffer that was populated when the rules were created
+		Util.save(macroBuffer, fileHandle);
+
+	}
+
+	/**
+	 * Returns the predefined LIBS and USER_OBJS macros of the objects makefile (objects.mk)
+	 */
+	private StringBuffer addObjectsMacros() {
 
 		// Master list of "object" dependencies, i.e. dependencies between input files and output files.
 		StringBuffer macroBuffer = new StringBuffer();
 		List<String> valueList;
-		macroBuffer.append(addDefaultHeader());
 
 		// Map of macro names (String) to its definition (List of Strings)
 		HashMap<String, List<String>> outputMacros = new HashMap<String, List<String>>();
@@ -1029,15 +1102,12 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 			// leave a blank line before the next macro
 			macroBuffer.append(NEWLINE);
 		}
-
- 		// For now, just save the buffer that was populated when the rules were created
-		Util.save(macroBuffer, fileHandle);
-
+		return macroBuffer;
 	}
 
 	protected void populateSourcesMakefile(IFile fileHandle) throws CoreException {
 		// Add the comment
-		StringBuffer buffer = addDefaultHeader();
+		StringBuffer buffer = flatMakefile ? new StringBuffer() : addDefaultHeader();
 
 		// Determine the set of macros
 		toolInfos.accept(new IPathSettingsContainerVisitor() {
@@ -1115,6 +1185,12 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 		// Add a list of subdirectories to the makefile
 		buffer.append(NEWLINE + addSubdirectories());
 
+		// In the flattened mode sources.mk becomes a part of the single makefile
+		if (flatMakefile) {
+			flatSourcesBuffer = buffer;
+			return;
+		}
+
 		// Save the file
 		Util.save(buffer, fileHandle);
 	}
@@ -1186,6 +1262,14 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 
 		buffer.append(NEWLINE);
 
+		// The flattened makefile carries the contents of all the included makefiles itself
+		if (flatMakefile) {
+			buffer.append(addFlatMakefileContents());
+			// Include makefile.defs supplemental makefile
+			buffer.append("-include " + ROOT + SEPARATOR + MAKEFILE_DEFS + NEWLINE); //$NON-NLS-1$
+			return (buffer.append(NEWLINE));
+		}
+
 		// Now add the source providers
 		buffer.append(COMMENT_SYMBOL + WHITESPACE + ManagedMakeMessages.getResourceString(SRC_LISTS) + NEWLINE);
 		buffer.append("-include sources.mk" + NEWLINE); //$NON-NLS-1$
@@ -1229,6 +1313,61 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 		return (buffer.append(NEWLINE));
 	}
 
+	/**
+	 * Answers a <code>StringBuffer</code> with the body of the flattened makefile: the source
+	 * lists, the build variable additions and rules of all folders, the canned recipes shared
+	 * by those rules, the object macros and the includes of the dependency files.
+	 */
+	private StringBuffer addFlatMakefileContents() {
+		StringBuffer buffer = new StringBuffer();
+
+		// The source lists
+		buffer.append(COMMENT_SYMBOL + WHITESPACE + ManagedMakeMessages.getResourceString(SRC_LISTS) + NEWLINE);
+		buffer.append(flatSourcesBuffer);
+
+		// The inputs and outputs of every folder
+		buffer.append(flatMacroBuffer);
+		buffer.append(addObjectsMacros());
+
+		// The recipes shared by rules with identical commands and flags
+		for (Entry<String, String> entry : flatRecipes.entrySet()) {
+			buffer.append("define " + entry.getValue() + NEWLINE); //$NON-NLS-1$
+			// Every line of a canned recipe is a command of its own, so the commands continued
+			// over several lines are joined into one line
+			String recipe = entry.getKey().replace(LINEBREAK, WHITESPACE);
+			for (String line : recipe.split("[\\r\\n]")) {	//$NON-NLS-1$
+				if (line.length() == 0)
+					continue;
+				buffer.append((line.startsWith(TAB) ? line.substring(TAB.length()) : line) + NEWLINE);
+			}
+			buffer.append("endef" + NEWLINE + NEWLINE); //$NON-NLS-1$
+		}
+
+		// The rules of every folder
+		buffer.append(COMMENT_SYMBOL + WHITESPACE + ManagedMakeMessages.getResourceString(MOD_RULES) + NEWLINE);
+		buffer.append(flatRuleBuffer);
+		buffer.append(NEWLINE);
+
+		// Include the generated dependency files if a "clean" has not been requested
+		if (!buildDepVars.isEmpty()) {
+			buffer.append("ifneq ($(MAKECMDGOALS),clean)" + NEWLINE); //$NON-NLS-1$
+			for (Entry<String, GnuDependencyGroupInfo> entry : buildDepVars.entrySet()) {
+				String depsMacro = entry.getKey();
+				GnuDependencyGroupInfo info = entry.getValue();
+				buffer.append("ifneq ($(strip $(" + depsMacro + ")),)" + NEWLINE); //$NON-NLS-1$ //$NON-NLS-2$
+				if (info.conditionallyInclude) {
+					buffer.append("-include $(" + depsMacro + ")" + NEWLINE); //$NON-NLS-1$ //$NON-NLS-2$
+				} else {
+					buffer.append("include $(" + depsMacro + ")" + NEWLINE); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				buffer.append("endif" + NEWLINE); //$NON-NLS-1$
+			}
+			buffer.append("endif" + NEWLINE + NEWLINE); //$NON-NLS-1$
+		}
+
+		return buffer;
+	}
+
 	/**
 	 * Answers a <code>StringBuffer</code> containing all of the required targets to
 	 * properly build the project.
@@ -1595,7 +1734,7 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 				// TODO  report error
 				flags = EMPTY_STRING_ARRAY;
 			}
-			Object fileContextData =  new FileContextData(null, null, null, tool);
+			Object fileContextData =  createFileContextData(null, null, null, tool);
 			String command = resolveToMakefile(tool.getToolCommand(), IBuildMacroProvider.CONTEXT_FILE, fileContextData);
 			String[] cmdInputs = inputs.toArray(new String[inputs.size()]);
 			IManagedCommandLineGenerator gen = tool.getCommandLineGenerator();
@@ -1847,6 +1986,21 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 	 * @return StringBuffer  generated text for the fragement makefile
 	 */
 	protected StringBuffer addSources(IContainer module) throws CoreException {
+ 		StringBuffer buffer = new StringBuffer();	// Return buffer
+ 		StringBuffer ruleBuffer = new StringBuffer(COMMENT_SYMBOL + WHITESPACE + ManagedMakeMessages.getResourceString(MOD_RULES) + NEWLINE);
+		addSources(module, buffer, ruleBuffer);
+		return buffer.append(ruleBuffer + NEWLINE);
+	}
+
+	/**
+	 * Adds the makefile text for all of the sources contributed by a container to
+	 * the given buffers.
+	 *
+	 * @param module  project resource directory/subdirectory
+	 * @param buffer  buffer to add the build variable additions to
+	 * @param ruleBuffer  buffer to add the build rules to
+	 */
+	private void addSources(IContainer module, StringBuffer buffer, StringBuffer ruleBuffer) throws CoreException {
 		// Calculate the new directory relative to the build output
 		IPath moduleRelativePath = module.getProjectRelativePath();
 		String relativePath = moduleRelativePath.toString();
@@ -1869,10 +2023,6 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 			addMacroAdditionPrefix(buildVarToRuleStringMap, macroName, "./" + relativePath, false);	  //$NON-NLS-1$
 		}
 
- 		// String buffers
- 		StringBuffer buffer = new StringBuffer();	// Return buffer
- 		StringBuffer ruleBuffer = new StringBuffer(COMMENT_SYMBOL + WHITESPACE + ManagedMakeMessages.getResourceString(MOD_RULES) + NEWLINE);
-
 		// Visit the resources in this folder and add each one to a sources macro, and generate a build rule, if appropriate
 		IResource[] resources = module.members();
 
@@ -1894,7 +2044,6 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 
 		// Write out the macro addition entries to the buffer
 		buffer.append(writeAdditionMacros(buildVarToRuleStringMap));
-		return buffer.append(ruleBuffer + NEWLINE);
 	}
 
 	/* (non-Javadoc
@@ -2125,14 +2274,14 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 			cmd = resolveAllValues(
 								cmd,
 								IBuildMacroProvider.CONTEXT_FILE,
-								new FileContextData(inputLocation,
+								createFileContextData(inputLocation,
 										outputLocation, null,
 										tool));
 		else
 			cmd = resolveToMakefile(
 								cmd,
 								IBuildMacroProvider.CONTEXT_FILE,
-								new FileContextData(inputLocation,
+								createFileContextData(inputLocation,
 										outputLocation, null,
 										tool));
 
@@ -2299,19 +2448,19 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 			BuildMacroProvider.getReferencedExplitFileMacros(tool).length > 0
 				|| BuildMacroProvider.getReferencedExplitFileMacros(tool
 						.getToolCommand(), IBuildMacroProvider.CONTEXT_FILE,
-						new FileContextData(sourceLocation, outputLocation,
+						createFileContextData(sourceLocation, outputLocation,
 								null, tool)).length > 0;
 
 		// Get and resolve the command
 		String cmd;
 		if (!needExplicitRuleForFile)
-			cmd = resolveToMakefile(tool.getToolCommand(), IBuildMacroProvider.CONTEXT_FILE, new FileContextData(sourceLocation,
+			cmd = resolveToMakefile(tool.getToolCommand(), IBuildMacroProvider.CONTEXT_FILE, createFileContextData(sourceLocation,
 										outputLocation, null, tool));
 		else
 				// if we need an explicit rule then don't use any builder
 				// variables, resolve everything
 				// to explicit strings
-			cmd = resolveAllValues(tool.getToolCommand(), IBuildMacroProvider.CONTEXT_FILE, new FileContextData(sourceLocation,
+			cmd = resolveAllValues(tool.getToolCommand(), IBuildMacroProvider.CONTEXT_FILE, createFileContextData(sourceLocation,
 										outputLocation, null, tool));
 
 		String defaultOutputName = EMPTY_STRING;
@@ -2422,11 +2571,11 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 		}
 		else {
 			getRuleList().add(buildRule);
+			StringBuffer recipe = new StringBuffer();
 
 			// Echo starting message
-			buffer.append(buildRule + NEWLINE);
-			buffer.append(TAB + AT + escapedEcho(MESSAGE_START_FILE + WHITESPACE + IN_MACRO));
-			buffer.append(TAB + AT + escapedEcho(tool.getAnnouncement()));
+			recipe.append(TAB + AT + escapedEcho(MESSAGE_START_FILE + WHITESPACE + IN_MACRO));
+			recipe.append(TAB + AT + escapedEcho(tool.getAnnouncement()));
 
 			// If the tool specifies a dependency calculator of TYPE_BUILD_COMMANDS, ask whether
 			// there are any pre-tool commands.
@@ -2437,16 +2586,16 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 							String resolvedCommand;
 						if (!needExplicitRuleForFile)
 							resolvedCommand = resolveToMakefile(preCmd, IBuildMacroProvider.CONTEXT_FILE,
-												new FileContextData(sourceLocation,
+												createFileContextData(sourceLocation,
 														outputLocation, null, tool));
 						else
 								// if we need an explicit rule then don't use any builder
 								// variables, resolve everything to explicit strings
 							resolvedCommand = resolveAllValues(preCmd, IBuildMacroProvider.CONTEXT_FILE,
-												new FileContextData(sourceLocation,
+												createFileContextData(sourceLocation,
 														outputLocation, null, tool));
 							if (resolvedCommand != null)
-								buffer.append(resolvedCommand + NEWLINE);
+								recipe.append(resolvedCommand + NEWLINE);
 						}
 					}
 				}
@@ -2532,7 +2681,7 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 				buildCmd = resolveToMakefile(
 									buildCmd,
 									IBuildMacroProvider.CONTEXT_FILE,
-									new FileContextData(sourceLocation,
+									createFileContextData(sourceLocation,
 											outputLocation, null, tool));
 				} else {
 					// if we need an explicit rule then don't use any builder
@@ -2540,13 +2689,13 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 				buildCmd = resolveAllValues(
 									buildCmd,
 									IBuildMacroProvider.CONTEXT_FILE,
-									new FileContextData(sourceLocation,
+									createFileContextData(sourceLocation,
 											outputLocation, null, tool));
 				}
 
 			//buffer.append(TAB + AT + escapedEcho(buildCmd));
 			//buffer.append(TAB + AT + buildCmd);
-			buffer.append(TAB + buildCmd);
+			recipe.append(TAB + buildCmd);
 
 			// Determine if there are any dependencies to calculate
 			if (doDepGen) {
@@ -2565,31 +2714,33 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 					for (String depCmd : depCmds) {
 		                // Resolve any macros in the dep command after it has been generated.
 		                // Note:  do not trim the result because it will strip out necessary tab characters.
-						buffer.append(WHITESPACE + LOGICAL_AND + WHITESPACE + LINEBREAK);
+						recipe.append(WHITESPACE + LOGICAL_AND + WHITESPACE + LINEBREAK);
 						if (!needExplicitRuleForFile)
 							depCmd = resolveToMakefile(
 												depCmd,
 												IBuildMacroProvider.CONTEXT_FILE,
-												new FileContextData(sourceLocation,
+												createFileContextData(sourceLocation,
 														outputLocation, null,
 														tool));
 						else
 							depCmd = resolveAllValues(
 												depCmd,
 												IBuildMacroProvider.CONTEXT_FILE,
-												new FileContextData(sourceLocation,
+												createFileContextData(sourceLocation,
 														outputLocation, null,
 														tool));
 
-						buffer.append(depCmd);
+						recipe.append(depCmd);
 					}
 				}
 			}
 
 			// Echo finished message
-			buffer.append(NEWLINE);
-			buffer.append(TAB + AT + escapedEcho(MESSAGE_FINISH_FILE + WHITESPACE + IN_MACRO));
-			buffer.append(TAB + AT + ECHO_BLANK_LINE + NEWLINE);
+			recipe.append(NEWLINE);
+			recipe.append(TAB + AT + escapedEcho(MESSAGE_FINISH_FILE + WHITESPACE + IN_MACRO));
+			recipe.append(TAB + AT + ECHO_BLANK_LINE + NEWLINE);
+
+			addRuleRecipe(buffer, buildRule, recipe, patternRule);
 		}
 
 		// Determine if there are calculated dependencies
@@ -2686,14 +2837,14 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 							depLine = resolveToMakefile(
 												depLine,
 												IBuildMacroProvider.CONTEXT_FILE,
-												new FileContextData(sourceLocation,
+												createFileContextData(sourceLocation,
 														outputLocation, null,
 														tool));
 						else
 							depLine = resolveAllValues(
 												depLine,
 												IBuildMacroProvider.CONTEXT_FILE,
-												new FileContextData(sourceLocation,
+												createFileContextData(sourceLocation,
 														outputLocation, null,
 														tool));
 						//buffer.append(TAB + AT + escapedEcho(depLine));
@@ -2708,6 +2859,26 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 		}
 	}
 
+	/**
+	 * Adds a build rule and its recipe to the buffer. In the flattened makefile mode pattern
+	 * rules whose recipes are identical, i.e. that use the same tool with the same flags,
+	 * share one canned recipe instead of repeating the commands for every folder.
+	 */
+	private void addRuleRecipe(StringBuffer buffer, String buildRule, StringBuffer recipe, boolean patternRule) {
+		buffer.append(buildRule + NEWLINE);
+		String recipeText = recipe.toString();
+		if (!flatMakefile || !patternRule) {
+			buffer.append(recipeText);
+			return;
+		}
+		String recipeMacro = flatRecipes.get(recipeText);
+		if (recipeMacro == null) {
+			recipeMacro = RECIPE_MACRO_PREFIX + (flatRecipes.size() + 1);
+			flatRecipes.put(recipeText, recipeMacro);
+		}
+		buffer.append(TAB + "$(" + recipeMacro + ")" + NEWLINE + NEWLINE);	//$NON-NLS-1$ //$NON-NLS-2$
+	}
+
 	/*
 	 * Add any dependency calculator options to the tool options
 	 */
@@ -2961,14 +3132,14 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 								outputName = resolveAllValues(
 													outputName,
 													IBuildMacroProvider.CONTEXT_FILE,
-													new FileContextData(
+													createFileContextData(
 															sourceLocation,
 															null, option, tool));
 							else
 								outputName = resolveToMakefile(
 													outputName,
 													IBuildMacroProvider.CONTEXT_FILE,
-													new FileContextData(
+													createFileContextData(
 															sourceLocation,
 															null, option, tool));
 
@@ -3002,14 +3173,14 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 							outputName = resolveAllValues(
 												outputName,
 												IBuildMacroProvider.CONTEXT_FILE,
-												new FileContextData(
+												createFileContextData(
 														sourceLocation, null,
 														option, tool));
 						else
 							outputName = resolveToMakefile(
 												outputName,
 												IBuildMacroProvider.CONTEXT_FILE,
-												new FileContextData(
+												createFileContextData(
 														sourceLocation, null,
 														option, tool));
 
@@ -3034,7 +3205,7 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 						outputName = resolveToMakefile(
 									outputName,
 									IBuildMacroProvider.CONTEXT_FILE,
-									new FileContextData(sourceLocation, null, option, tool));
+									createFileContextData(sourceLocation, null, option, tool));
 
 						IPath outPath = Path.fromOSString(outputName);
 						//  If only a file name is specified, add the relative path of this output directory
@@ -3120,6 +3291,9 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 	 * @return resolved string, or the passed in string
 	 */
 	protected String resolveToMakefile(String value, int context, Object contextData) {
+		String cached = resolutionCache.get(true, value, context, contextData);
+		if (cached != null)
+			return cached;
 		//try to resolve the build macros in the output names
 		try {
 			String resolved = ManagedBuildManager.getBuildMacroProvider().resolveValueToMakefileFormat(
@@ -3130,8 +3304,10 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 					contextData);
 			// If resolved is non-empty, return it. Otherwise return the original value
 				resolved = resolved.trim();
-			if (resolved.length() > 0)
+			if (resolved.length() > 0) {
+				resolutionCache.put(true, value, context, contextData, resolved);
 				return resolved;
+			}
 		} catch (BuildMacroException e) {
 			ManagedBuilderCorePlugin.log(e);
 		}
@@ -3153,6 +3329,9 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 	 * @return resolved string, or the passed in string
 	 */
 	protected String resolveAllValues(String value, int context, Object contextData) {
+		String cached = resolutionCache.get(false, value, context, contextData);
+		if (cached != null)
+			return cached;
 		//try to resolve the build macros in the output names
 		try {
 			String resolved = ManagedBuildManager.getBuildMacroProvider().resolveValue(
@@ -3164,14 +3343,41 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 			// If resolved is non-empty, return it. Otherwise return the original value
 			if (true)
 				resolved = resolved.trim();
-			if (resolved.length() > 0)
+			if (resolved.length() > 0) {
+				resolutionCache.put(false, value, context, contextData, resolved);
 				return resolved;
+			}
 		} catch (BuildMacroException e) {
 			ManagedBuilderCorePlugin.log(e);
 		}
 		return value;
 	}
 
+	/**
+	 * Discards the macro resolution results of the finished makefile generation,
+	 * tracing how effective they were.
+	 */
+	private void clearResolutionCache() {
+		int lookups = resolutionCache.getHits() + resolutionCache.getMisses();
+		if (lookups > 0 && GeneratedMakefileBuilder.VERBOSE) {
+			GeneratedMakefileBuilder.outputTrace(project.getName(), "Macro resolution cache: " + lookups + " lookups, " //$NON-NLS-1$ //$NON-NLS-2$
+					+ resolutionCache.getHits() + " hits (" + resolutionCache.getHitRatio() + "%)"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		resolutionCache.clear();
+		fileMacroEvaluator = null;
+	}
+
+	/**
+	 * Creates the macro context of a source file. The file macros of all the sources
+	 * are evaluated by the same {@link FileMacroEvaluator}, which computes the parts
+	 * common to the files of a directory once.
+	 */
+	private FileContextData createFileContextData(IPath inputLocation, IPath outputLocation, IOption option, ITool tool) {
+		if (fileMacroEvaluator == null || !fileMacroEvaluator.isFor(config))
+			fileMacroEvaluator = new FileMacroEvaluator(config);
+		return new FileContextData(inputLocation, outputLocation, option, tool, fileMacroEvaluator);
+	}
+
 	/**
 	 * If the path contains a %, returns the path resolved using the resource name
 	 *
@@ -4400,6 +4606,7 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 		// Cache the build tools
 		config = cfg;
 		this.builder = builder;
+		flatMakefile = isFlatMakefile(builder);
 
 		initToolInfos();
 		// Setup topBuildDir
@@ -4414,8 +4621,30 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 		}
 	}
 
+	/**
+	 * Returns whether the builder asks for the single, non-recursive makefile.
+	 *
+	 * @see #FLAT_MAKEFILE_ATTRIBUTE
+	 */
+	private static boolean isFlatMakefile(IBuilder builder) {
+		if (builder == null)
+			return false;
+		return Boolean.valueOf(builder.getBuildAttribute(FLAT_MAKEFILE_ATTRIBUTE, null)).booleanValue();
+	}
+
+	/**
+	 * Discards the contents collected for the flattened makefile by a previous generation.
+	 */
+	private void resetFlatMakefile() {
+		flatSourcesBuffer = new StringBuffer();
+		flatMacroBuffer = new StringBuffer();
+		flatRuleBuffer = new StringBuffer();
+		flatRecipes.clear();
+	}
+
 	private void initToolInfos(){
 		toolInfos = PathSettingsContainer.createRootContainer();
+		toolInfoTrie = new ResourcePathTrie<ToolInfoHolder>();
 
 		IResourceInfo rcInfos[] = config.getResourceInfos();
 		for (IResourceInfo rcInfo : rcInfos) {
@@ -4451,14 +4680,15 @@ public class GnuMakefileGenerator implements IManagedBuilderMakefileGenerator2 {
 	}
 
 	private ToolInfoHolder getToolInfo(IPath path, boolean create){
-		PathSettingsContainer child = toolInfos.getChildContainer(path, create, create);
-		ToolInfoHolder h = null;
-		if(child != null){
-			h = (ToolInfoHolder)child.getValue();
-			if(h == null && create){
-				h = new ToolInfoHolder();
-				child.setValue(h);
-			}
+		if(!create)
+			return toolInfoTrie.getNearest(path);
+
+		PathSettingsContainer child = toolInfos.getChildContainer(path, true, true);
+		ToolInfoHolder h = (ToolInfoHolder)child.getValue();
+		if(h == null){
+			h = new ToolInfoHolder();
+			child.setValue(h);
+			toolInfoTrie.put(child.getPath(), h);
 		}
 		return h;
 	}
@@ -102,7 +102,8 @@ class UpdateManagedProject12 {
 	private static final int TYPE_EXE = 0;
 	private static final int TYPE_SHARED = 1;
 	private static final int TYPE_STATIC = 2;
-	private static Map<String, IConfiguration> configIdMap;
+	// projects may be converted concurrently, each thread maps the configurations of its project
+	private static ThreadLocal<Map<String, IConfiguration>> configIdMap = new ThreadLocal<Map<String, IConfiguration>>();
 	
 	/* (non-Javadoc)
 	 * Generates a valid 2.1 eqivalent ID for an old 1.2 format
@@ -779,10 +780,12 @@ class UpdateManagedProject12 {
 	 * @return Returns the configIdMap.
 	 */
 	protected static Map<String, IConfiguration> getConfigIdMap() {
-		if (configIdMap == null) {
-			configIdMap = new HashMap<String, IConfiguration>();
+		Map<String, IConfiguration> map = configIdMap.get();
+		if (map == null) {
+			map = new HashMap<String, IConfiguration>();
+			configIdMap.set(map);
 		}
-		return configIdMap;
+		return map;
 	}
 
 	protected static boolean isBuiltInOption(Vector<String> idTokens) {
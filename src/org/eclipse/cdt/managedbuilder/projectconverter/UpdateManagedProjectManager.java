@@ -14,9 +14,21 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.eclipse.cdt.core.CCorePlugin;
 import org.eclipse.cdt.managedbuilder.core.IManagedBuildInfo;
 import org.eclipse.cdt.managedbuilder.core.ManagedBuildManager;
 import org.eclipse.cdt.managedbuilder.core.ManagedBuilderCorePlugin;
@@ -31,6 +43,7 @@ import org.eclipse.core.resources.WorkspaceJob;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.MultiStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.core.runtime.Path;
@@ -38,6 +51,9 @@ import org.osgi.framework.Version;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.jobs.ISchedulingRule;
 import org.eclipse.ui.dialogs.IOverwriteQuery;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
 
 /**
  * @noextend This class is not intended to be subclassed by clients.
@@ -53,6 +69,17 @@ public class UpdateManagedProjectManager {
 	private boolean fIsInfoReadOnly = false;
 	final private IProject fProject;
 	
+	/**
+	 * Stops parsing the settings file once its version is known.
+	 */
+	private static class VersionFoundException extends SAXException {
+		private static final long serialVersionUID = 1L;
+
+		VersionFoundException() {
+			super((String)null);
+		}
+	}
+
 	private UpdateManagedProjectManager(IProject project){
 		fProject = project;
 	}	
@@ -400,4 +427,154 @@ public class UpdateManagedProjectManager {
 			job.schedule();
 		}
 	}
+
+	/**
+	 * Converts the legacy managed build settings of the projects, the projects are converted concurrently.
+	 * <p>
+	 * The settings file of each project is loaded, updated to the current version of the
+	 * Managed Build System and registered as the loaded build info of the project, the project
+	 * description is created from it when the project is loaded. Projects without a settings file,
+	 * new style projects and projects whose build info is already loaded are skipped.
+	 * <p>
+	 * The conversion questions are answered by the queries set with {@link #setUpdateProjectQuery(IOverwriteQuery)}
+	 * and {@link #setBackupFileOverwriteQuery(IOverwriteQuery)}, they must be set when no workbench is running.
+	 * 
+	 * @param projects the projects to be converted
+	 * @param monitor the progress monitor, may be <code>null</code>
+	 * @return the status of the conversion of each project, the statuses of the converted projects report
+	 * the conversion time, the failures are reported as errors
+	 * @since 8.0
+	 */
+	static public MultiStatus updateProjects(IProject projects[], IProgressMonitor monitor) {
+		if(monitor == null)
+			monitor = new NullProgressMonitor();
+		MultiStatus result = new MultiStatus(ManagedBuilderCorePlugin.getUniqueIdentifier(), IStatus.OK,
+				ConverterMessages.getResourceString("UpdateManagedProjectManager.8"), null); //$NON-NLS-1$
+
+		final List<IProject> toConvert = new ArrayList<IProject>(projects.length);
+		for (IProject project : projects) {
+			if(!project.isAccessible() || ManagedBuildManager.getBuildInfoCache().get(project) != null)
+				continue;
+			// the settings of a new style project are stored in its project description
+			if(CCorePlugin.getDefault().isNewStyleProject(project))
+				continue;
+			IFile settingsFile = project.getFile(ManagedBuildManager.SETTINGS_FILE_NAME);
+			if(settingsFile.getLocation() != null && settingsFile.getLocation().toFile().exists())
+				toConvert.add(project);
+		}
+
+		int count = toConvert.size();
+		monitor.beginTask(ConverterMessages.getFormattedString("UpdateManagedProjectManager.9", Integer.toString(count)), count); //$NON-NLS-1$
+		if(count == 0){
+			monitor.done();
+			return result;
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(Runtime.getRuntime().availableProcessors(), count));
+		List<Future<IStatus>> futures = new ArrayList<Future<IStatus>>(count);
+		try {
+			for (final IProject project : toConvert) {
+				futures.add(executor.submit(new Callable<IStatus>() {
+					public IStatus call() {
+						return convertProject(project);
+					}
+				}));
+			}
+			for(int i = 0; i < count; i++){
+				if(monitor.isCanceled()){
+					result.add(new Status(IStatus.CANCEL, ManagedBuilderCorePlugin.getUniqueIdentifier(),
+							ConverterMessages.getResourceString("UpdateManagedProjectManager.7"))); //$NON-NLS-1$
+					break;
+				}
+				try {
+					result.add(futures.get(i).get());
+				} catch (ExecutionException e) {
+					result.add(new Status(IStatus.ERROR, ManagedBuilderCorePlugin.getUniqueIdentifier(),
+							ConverterMessages.getFormattedString("UpdateManagedProjectManager.11", toConvert.get(i).getName()), e.getCause())); //$NON-NLS-1$
+				}
+				monitor.worked(1);
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			result.add(new Status(IStatus.CANCEL, ManagedBuilderCorePlugin.getUniqueIdentifier(),
+					ConverterMessages.getResourceString("UpdateManagedProjectManager.7"))); //$NON-NLS-1$
+		} finally {
+			// the conversions already running are completed, the others are not started
+			for (Future<IStatus> future : futures)
+				future.cancel(false);
+			executor.shutdown();
+			monitor.done();
+		}
+		return result;
+	}
+
+	/**
+	 * Loads and updates the legacy build info of the project on the current thread.
+	 * 
+	 * @return the status of the conversion
+	 */
+	private static IStatus convertProject(IProject project){
+		long start = System.currentTimeMillis();
+		String name = project.getName();
+		try {
+			File settingsFile = project.getFile(ManagedBuildManager.SETTINGS_FILE_NAME).getLocation().toFile();
+			Version version = getManagedBuildInfoVersion(readSettingsFileVersion(settingsFile));
+
+			IManagedBuildInfo info = ManagedBuildManager.getOldStyleBuildInfo(project);
+			if(info == null || !info.isValid() || info.isReadOnly())
+				return new Status(IStatus.ERROR, ManagedBuilderCorePlugin.getUniqueIdentifier(),
+						ConverterMessages.getFormattedString("UpdateManagedProjectManager.11", name)); //$NON-NLS-1$
+
+			return new Status(IStatus.OK, ManagedBuilderCorePlugin.getUniqueIdentifier(),
+					ConverterMessages.getFormattedString("UpdateManagedProjectManager.10", new String[] { //$NON-NLS-1$
+							name, version.toString(), Long.toString(System.currentTimeMillis() - start)}));
+		} catch (CoreException e) {
+			return new Status(IStatus.ERROR, ManagedBuilderCorePlugin.getUniqueIdentifier(),
+					ConverterMessages.getFormattedString("UpdateManagedProjectManager.11", name), e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Reads the version of a legacy settings file. The file is read as a stream up to
+	 * its root element, the version is the processing instruction preceding it.
+	 * 
+	 * @return the version of the file, <code>null</code> for a 1.2 file
+	 * @throws CoreException if the file can not be read
+	 * @since 8.0
+	 */
+	static public String readSettingsFileVersion(File settingsFile) throws CoreException {
+		final String version[] = new String[1];
+		InputStream stream = null;
+		try {
+			stream = new FileInputStream(settingsFile);
+			SAXParserFactory.newInstance().newSAXParser().parse(stream, new DefaultHandler() {
+				@Override
+				public void processingInstruction(String target, String data) {
+					if(version[0] == null)
+						version[0] = data;
+				}
+
+				@Override
+				public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+					throw new VersionFoundException();
+				}
+			});
+		} catch (VersionFoundException e) {
+			// the root element is reached
+		} catch (SAXException e) {
+			throw new CoreException(new Status(IStatus.ERROR, ManagedBuilderCorePlugin.getUniqueIdentifier(), e.getLocalizedMessage(), e));
+		} catch (ParserConfigurationException e) {
+			throw new CoreException(new Status(IStatus.ERROR, ManagedBuilderCorePlugin.getUniqueIdentifier(), e.getLocalizedMessage(), e));
+		} catch (IOException e) {
+			throw new CoreException(new Status(IStatus.ERROR, ManagedBuilderCorePlugin.getUniqueIdentifier(), e.getLocalizedMessage(), e));
+		} finally {
+			if(stream != null){
+				try {
+					stream.close();
+				} catch (IOException e) {
+				}
+			}
+		}
+		return version[0];
+	}
 }